@@ -0,0 +1,97 @@
+package com.bruno.carlisting.benchmarks;
+
+import com.bruno.carlisting.CarlistingApplication;
+import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.services.interfaces.CarService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/* Runs CarService.getAllCars against an embedded H2 holding data.sql plus carsCount generated cars */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarServiceBenchmark {
+
+    private static final String[] MAKES = {"Toyota", "Honda", "Ford", "Chevrolet", "BMW", "Dodge"};
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000"})
+    private int carsCount;
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private CarService carService;
+    private int lastPage;
+
+    @Setup
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(CarlistingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=warn",
+                        "--logging.level.com.bruno.carlisting=warn");
+
+        seedCars(context.getBean(JdbcTemplate.class));
+        carService = context.getBean(CarService.class);
+        lastPage = carService.getAllCars(0, pageSize).getTotalPages() - 1;
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Car> getAllCarsFirstPage() {
+        return carService.getAllCars(0, pageSize);
+    }
+
+    @Benchmark
+    public Page<Car> getAllCarsLastPage() {
+        return carService.getAllCars(lastPage, pageSize);
+    }
+
+    private void seedCars(JdbcTemplate jdbcTemplate) {
+
+        List<Object[]> cars = new ArrayList<>();
+        for (int i = 0; i < carsCount; i++) {
+            cars.add(new Object[]{MAKES[i % MAKES.length], "Model " + i, 2000 + i % 22, "Base", "Silver", "AT",
+                    "Gasoline", 1 + i % 5});
+            if (cars.size() == INSERT_BATCH_SIZE || i == carsCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO car (make, model, year, trim, color, transmission, fuel, " +
+                        "user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", cars);
+                cars.clear();
+            }
+        }
+        jdbcTemplate.update("INSERT INTO listing (price, mileage, description, car_id, user_id) " +
+                "SELECT 20000, 50000, 'Generated listing', car_id, user_id FROM car " +
+                "WHERE car_id NOT IN (SELECT car_id FROM listing)");
+    }
+}
@@ -0,0 +1,88 @@
+package com.bruno.carlisting.benchmarks;
+
+import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.domain.Role;
+import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.dtos.response.car.CarPublicResponseDTO;
+import com.bruno.carlisting.dtos.response.user.UserPublicResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int LISTINGS_PER_ENTITY = 2;
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private Page<Car> carsPage;
+    private Page<User> usersPage;
+
+    @Setup
+    public void setUp() {
+
+        var pageRequest = PageRequest.of(0, size);
+        var userRole = new Role("user");
+        ReflectionTestUtils.setField(userRole, "roleId", 1);
+
+        List<Car> cars = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        long listingId = 1;
+
+        for (long id = 1; id <= size; id++) {
+
+            var user = new User("user" + id, "password" + id, "User " + id, "user" + id + "@email.com");
+            ReflectionTestUtils.setField(user, "userId", id);
+            user.getRoles().add(userRole);
+
+            var car = new Car("Make", "Model " + id, 2020, "Trim", "Silver", "AT", "Gasoline");
+            ReflectionTestUtils.setField(car, "carId", id);
+            car.setUser(user);
+
+            for (int i = 0; i < LISTINGS_PER_ENTITY; i++) {
+                var listing = new Listing(30000, 10000, "Listing description", user, car);
+                ReflectionTestUtils.setField(listing, "listingId", listingId++);
+                car.getCarListings().add(listing);
+                user.getUserListings().add(listing);
+            }
+            cars.add(car);
+            users.add(user);
+        }
+        carsPage = new PageImpl<>(cars, pageRequest, size);
+        usersPage = new PageImpl<>(users, pageRequest, size);
+    }
+
+    @Benchmark
+    public Page<CarPublicResponseDTO> carsPageToCarPublicDTO() {
+        return CarPublicResponseDTO.toCarPublicDTO(carsPage);
+    }
+
+    @Benchmark
+    public Page<UserPublicResponseDTO> usersPageToUsersPagePublicDTO() {
+        return UserPublicResponseDTO.toUsersPagePublicDTO(usersPage);
+    }
+}
@@ -0,0 +1,160 @@
+package com.bruno.carlisting.benchmarks;
+
+import com.bruno.carlisting.CarlistingApplication;
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.services.interfaces.ListingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/* Time from creating a listing to its delivery to every matching stream, with subscribersCount simulated buyers
+   holding GET /listings/stream open. Buyers follow one make of data.sql each, one in ten also caps the price below
+   the created listings, so every listing fans out to about a sixth of the streams and is filtered out of the rest */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingStreamBenchmark {
+
+    /* Makes of cars 1 to 7 of data.sql */
+    private static final String[] CAR_MAKES = {"Toyota", "Honda", "Ford", "Honda", "BMW", "Chevrolet", "Dodge"};
+    private static final String[] MAKES = {"Toyota", "Honda", "Ford", "BMW", "Chevrolet", "Dodge"};
+    private static final int LISTING_PRICE = 35000;
+    private static final int CAPPED_PRICE = 20000;
+    private static final long CITY_ID = 1L;
+    private static final long DELIVERY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Param({"100", "1000", "5000"})
+    private int subscribersCount;
+
+    private ConfigurableApplicationContext context;
+    private ListingService listingService;
+    private final Map<Long, AtomicInteger> deliveriesByListingId = new ConcurrentHashMap<>();
+    private final int[] expectedDeliveriesByCar = new int[CAR_MAKES.length];
+    private int nextCar;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+
+        context = new SpringApplicationBuilder(CarlistingApplication.class)
+                .run("--spring.profiles.active=test",
+                        "--server.port=0",
+                        "--server.tomcat.max-connections=" + (subscribersCount + 100),
+                        "--spring.datasource.url=jdbc:h2:mem:stream;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=warn",
+                        "--logging.level.com.bruno.carlisting=warn");
+        listingService = context.getBean(ListingService.class);
+
+        var port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        var subscribed = new CountDownLatch(subscribersCount);
+        for (int i = 0; i < subscribersCount; i++) {
+
+            var make = MAKES[i % MAKES.length];
+            var capped = i % 10 == 0;
+            for (int car = 0; car < CAR_MAKES.length; car++) {
+                if (!capped && CAR_MAKES[car].equals(make)) {
+                    expectedDeliveriesByCar[car]++;
+                }
+            }
+
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/listings/stream?make=" +
+                    make + (capped ? "&maxPrice=" + CAPPED_PRICE : ""))).GET().build();
+            httpClient.sendAsync(request,
+                    HttpResponse.BodyHandlers.fromLineSubscriber(new StreamSubscriber(subscribed)));
+        }
+        if (!subscribed.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(subscribed.getCount() + " of " + subscribersCount +
+                    " streams did not open");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createListingAndDeliver() {
+
+        var car = nextCar;
+        nextCar = (nextCar + 1) % CAR_MAKES.length;
+
+        var listingId = listingService.createListing(new Listing(LISTING_PRICE, 1000, "Streamed listing", null, null),
+                car + 1L, CITY_ID).getListingId();
+        var deliveries = deliveriesByListingId.computeIfAbsent(listingId, id -> new AtomicInteger());
+
+        var deadline = System.nanoTime() + DELIVERY_TIMEOUT_NANOS;
+        while (deliveries.get() < expectedDeliveriesByCar[car]) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(deliveries.get() + " of " + expectedDeliveriesByCar[car] +
+                        " streams received listing " + listingId);
+            }
+            LockSupport.parkNanos(50_000);
+        }
+        deliveriesByListingId.remove(listingId);
+        return deliveries.get();
+    }
+
+    /* Counts the open comment once and every listing event by its ID line */
+    private class StreamSubscriber implements Flow.Subscriber<String> {
+
+        private final CountDownLatch subscribed;
+
+        private StreamSubscriber(CountDownLatch subscribed) {
+            this.subscribed = subscribed;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith(":subscribed")) {
+                subscribed.countDown();
+            } else if (line.startsWith("id:")) {
+                deliveriesByListingId.computeIfAbsent(Long.valueOf(line.substring("id:".length()).trim()),
+                        id -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            /* Streams end when the application is closed */
+        }
+
+        @Override
+        public void onComplete() {
+            /* Streams end when the application is closed */
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.bruno.carlisting.benchmarks;
+
+import com.bruno.carlisting.CarlistingApplication;
+import com.bruno.carlisting.config.ReactiveCatalogConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/* Batches of concurrentRequests simultaneous GETs per second, answered by the servlet API or the reactive catalog API.
+   Both serve the same paths from the same data.sql rows: mvn -P jmh verify -DskipTests -Djmh.include=ReactiveCatalog */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReactiveCatalogBenchmark {
+
+    private static final int CARS_COUNT = 7;
+    private static final int USERS_COUNT = 5;
+
+    @Param({"mvc", "reactive"})
+    private String api;
+
+    @Param({"cars", "users"})
+    private String resource;
+
+    @Param({"200", "2000"})
+    private int concurrentRequests;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private List<HttpRequest> requests;
+
+    @Setup
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(CarlistingApplication.class)
+                .run("--spring.profiles.active=test,reactive-catalog",
+                        "--server.port=0",
+                        "--reactive-catalog.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:catalog;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--reactive-catalog.url=r2dbc:h2:mem:///catalog",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=warn",
+                        "--logging.level.com.bruno.carlisting=warn");
+
+        var port = "mvc".equals(api)
+                ? ((ServletWebServerApplicationContext) context).getWebServer().getPort()
+                : context.getBean(ReactiveCatalogConfig.class).getReactiveCatalogPort();
+        var count = "cars".equals(resource) ? CARS_COUNT : USERS_COUNT;
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        requests = new ArrayList<>();
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/" + resource + "/" +
+                    (1 + i % count))).GET().build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentReads() {
+
+        var responses = requests.stream()
+                .map(request -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(responses).join();
+
+        var succeeded = 0;
+        for (var response : responses) {
+            if (((HttpResponse<?>) response.join()).statusCode() == 200) {
+                succeeded++;
+            }
+        }
+        if (succeeded != concurrentRequests) {
+            throw new IllegalStateException(succeeded + " of " + concurrentRequests + " requests succeeded");
+        }
+        return succeeded;
+    }
+}
@@ -0,0 +1,154 @@
+package com.bruno.carlisting.benchmarks;
+
+import com.bruno.carlisting.CarlistingApplication;
+import com.bruno.carlisting.repositories.CarRepository;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/* Time for concurrentRequests simultaneous GET /cars/{carId} to complete, on platform or virtual request threads.
+   Every request runs an H2 SLEEP of downstreamLatencyMillis before reading the car, inside the read transaction,
+   so it holds one of the dbPoolSize connections while it waits, like a slow query would.
+   Virtual threads need JDK 21 or later: mvn -P jmh,virtual-threads verify -DskipTests -Djmh.include=RequestThreads */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestThreadsBenchmark {
+
+    private static final int CARS_COUNT = 5;
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"200", "2000"})
+    private int concurrentRequests;
+
+    @Param({"50"})
+    private int downstreamLatencyMillis;
+
+    @Param({"20"})
+    private int dbPoolSize;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private List<HttpRequest> requests;
+
+    @Setup
+    public void setUp() {
+
+        context = new SpringApplicationBuilder(CarlistingApplication.class, SlowDownstreamConfig.class)
+                .run("--spring.profiles.active=" + (virtualThreads ? "test,virtual-threads" : "test"),
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:requests;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--downstream-latency-millis=" + downstreamLatencyMillis,
+                        "--spring.datasource.hikari.maximum-pool-size=" + dbPoolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + dbPoolSize,
+                        /* Every request waits for a connection, none may time out on either kind of thread */
+                        "--spring.datasource.hikari.connection-timeout=600000",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=warn",
+                        "--logging.level.com.bruno.carlisting=warn");
+
+        var port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        requests = new ArrayList<>();
+        for (int i = 0; i < concurrentRequests; i++) {
+            requests.add(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/cars/" +
+                    (1 + i % CARS_COUNT))).GET().build());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int concurrentCarRequests() {
+
+        var responses = requests.stream()
+                .map(request -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(responses).join();
+
+        var succeeded = 0;
+        for (var response : responses) {
+            if (((HttpResponse<?>) response.join()).statusCode() == 200) {
+                succeeded++;
+            }
+        }
+        if (succeeded != concurrentRequests) {
+            throw new IllegalStateException(succeeded + " of " + concurrentRequests + " requests succeeded");
+        }
+        return succeeded;
+    }
+
+    @Configuration
+    static class SlowDownstreamConfig {
+
+        @Bean
+        public ApplicationRunner sleepAlias(JdbcTemplate jdbcTemplate) {
+            return args -> jdbcTemplate.execute(
+                    "CREATE ALIAS IF NOT EXISTS SLEEP FOR \"java.lang.Thread.sleep(long)\"");
+        }
+
+        /* Wraps the car repository so the read of GET /cars/{carId} is preceded by the sleep, on the connection of
+           the transaction CarService.getCarPublicById already holds */
+        @Bean
+        public static BeanPostProcessor slowCarReads(Environment environment,
+                                                     ObjectProvider<JdbcTemplate> jdbcTemplate) {
+
+            var latencyMillis = environment.getRequiredProperty("downstream-latency-millis", Long.class);
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof CarRepository)) {
+                        return bean;
+                    }
+                    var proxyFactory = new ProxyFactory(bean);
+                    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                        if (invocation.getMethod().getName().equals("findProjectedByCarId")) {
+                            jdbcTemplate.getObject().execute("CALL SLEEP(" + latencyMillis + ")");
+                        }
+                        return invocation.proceed();
+                    });
+                    return proxyFactory.getProxy();
+                }
+            };
+        }
+    }
+}
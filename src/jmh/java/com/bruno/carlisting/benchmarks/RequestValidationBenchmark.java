@@ -0,0 +1,90 @@
+package com.bruno.carlisting.benchmarks;
+
+import com.bruno.carlisting.dtos.request.car.CarRequestDTO;
+import com.bruno.carlisting.dtos.request.user.UserRequestDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestValidationBenchmark {
+
+    private static final String VALID_CAR = "{\"make\": \"Toyota\", \"model\": \"Corolla\", \"year\": 2020, " +
+            "\"trim\": \"SEG\", \"color\": \"Silver\", \"transmission\": \"AT\", \"fuel\": \"Gasoline\", " +
+            "\"userId\": 1}";
+    private static final String INVALID_CAR = "{\"make\": \"\", \"model\": \"Corolla\", \"year\": 20, " +
+            "\"trim\": \"SEG\", \"color\": \"Silver\", \"transmission\": \"CVT\", \"fuel\": \"Diesel\", " +
+            "\"userId\": -1}";
+    private static final String VALID_USER = "{\"username\": \"JohnDoe\", \"password\": \"John123456789\", " +
+            "\"displayName\": \"John\", \"contact\": \"john@email.com\", \"rolesIds\": [1, 2]}";
+    private static final String INVALID_USER = "{\"username\": \"\", \"password\": \"short\", " +
+            "\"displayName\": \"Jo\", \"contact\": \"john.email.com\", \"rolesIds\": [0, -2]}";
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private CarRequestDTO validCar;
+    private CarRequestDTO invalidCar;
+    private UserRequestDTO validUser;
+    private UserRequestDTO invalidUser;
+
+    @Setup
+    public void setUp() throws IOException {
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        var objectMapper = new ObjectMapper();
+        validCar = objectMapper.readValue(VALID_CAR, CarRequestDTO.class);
+        invalidCar = objectMapper.readValue(INVALID_CAR, CarRequestDTO.class);
+        validUser = objectMapper.readValue(VALID_USER, UserRequestDTO.class);
+        invalidUser = objectMapper.readValue(INVALID_USER, UserRequestDTO.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CarRequestDTO>> validateValidCar() {
+        return validator.validate(validCar);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CarRequestDTO>> validateInvalidCar() {
+        return validator.validate(invalidCar);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequestDTO>> validateValidUser() {
+        return validator.validate(validUser);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequestDTO>> validateInvalidUser() {
+        return validator.validate(invalidUser);
+    }
+}
@@ -0,0 +1,265 @@
+package com.bruno.carlisting.bootstrap;
+
+import com.bruno.carlisting.config.CatalogGeneratorProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/* Bulk-loads users, cars, listings and locations with JDBC batch inserts, see application-catalog.yml */
+@Component
+@Profile("catalog")
+@Slf4j
+public class CatalogGenerator implements CommandLineRunner {
+
+    private static final String[] MAKES = {"Toyota", "Honda", "Ford", "Chevrolet", "Nissan", "Hyundai",
+            "Volkswagen", "BMW", "Jeep", "Dodge", "Porsche"};
+    /* Relative popularity of each make, a few makes account for most of the catalog */
+    private static final int[] MAKE_WEIGHTS = {18, 14, 13, 12, 9, 8, 7, 6, 5, 3, 1};
+    private static final String[][] MODELS = {
+            {"Corolla", "Camry", "RAV4", "Hilux"},
+            {"Civic", "Accord", "CR-V", "Fit"},
+            {"F-150", "Focus", "Mustang", "Ranger"},
+            {"Cruze", "Silverado", "Onix", "Camaro"},
+            {"Sentra", "Altima", "Kicks"},
+            {"Elantra", "Tucson", "HB20"},
+            {"Golf", "Jetta", "Polo", "Tiguan"},
+            {"320i", "X1", "X5"},
+            {"Wrangler", "Compass", "Renegade"},
+            {"Challenger", "Charger", "Ram"},
+            {"911", "Cayenne", "Macan"}};
+    private static final String[] TRIMS = {"Base", "LX", "EX", "Sport", "Limited", "Premium"};
+    private static final String[] COLORS = {"White", "Black", "Silver", "Gray", "Red", "Blue"};
+    private static final String[] TRANSMISSIONS = {"AT", "MT"};
+    private static final String[] FUELS = {"Gasoline", "Flex-Fuel", "Ethanol", "Hybrid", "Electricity"};
+    private static final int NEWEST_YEAR = 2021;
+    private static final int OLDEST_YEAR = 1995;
+
+    private static final String INSERT_USER = "INSERT INTO users (username, password, display_name, contact) " +
+            "VALUES (?, ?, ?, ?)";
+    private static final String INSERT_USER_ROLE = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_CAR = "INSERT INTO car (make, model, year, trim, color, transmission, fuel, " +
+            "user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_LISTING = "INSERT INTO listing (price, mileage, description, car_id, user_id) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_LOCATION = "INSERT INTO location (listing_id, country_id, state_id, city_id, " +
+            "latitude, longitude) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    /* Reads generated rows back in batch size chunks instead of loading the whole result set */
+    private final JdbcTemplate readJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogGeneratorProperties properties;
+
+    public CatalogGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            CatalogGeneratorProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.readJdbcTemplate.setFetchSize(properties.getBatchSize());
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+
+        var random = new Random(properties.getSeed());
+        var start = System.currentTimeMillis();
+
+        log.info("Generating catalog: users = {}, cars = {}, batch size = {}, seed = {}",
+                properties.getUsers(), properties.getCars(), properties.getBatchSize(), properties.getSeed());
+
+        var usersIds = generateUsers(runTag(maxId("users", "user_id")));
+        var lastListingId = maxId("listing", "listing_id");
+        generateCars(random, runTag, usersIds);
+        generateLocations(random, lastListingId);
+        analyze();
+
+        log.info("Catalog generated in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /* Same seed and same existing users, same usernames and trims, while another run on top still gets new ones */
+    private String runTag(long lastUserId) {
+        return Long.toString(properties.getSeed(), Character.MAX_RADIX) + "-" +
+                Long.toString(lastUserId, Character.MAX_RADIX);
+    }
+
+    private long[] generateUsers(String runTag) {
+
+        var lastUserId = maxId("users", "user_id");
+        var users = new BatchInserter(INSERT_USER);
+        for (int i = 0; i < properties.getUsers(); i++) {
+            var username = "user-" + runTag + "-" + i;
+            users.add(username, "Generated123", "User " + i, username + "@example.com");
+        }
+        users.flush();
+
+        var usersIds = jdbcTemplate.queryForList("SELECT user_id FROM users WHERE user_id > ? ORDER BY user_id",
+                Long.class, lastUserId).stream().mapToLong(Long::longValue).toArray();
+
+        var userRoleIds = jdbcTemplate.queryForList("SELECT role_id FROM role WHERE type = 'user'", Integer.class);
+        if (!userRoleIds.isEmpty()) {
+            var userRoles = new BatchInserter(INSERT_USER_ROLE);
+            for (var userId : usersIds) {
+                userRoles.add(userId, userRoleIds.get(0));
+            }
+            userRoles.flush();
+        }
+
+        log.info("Generated {} users", usersIds.length);
+        return usersIds;
+    }
+
+    /* Cars are inserted first, then listed by owner in a second pass over the generated car IDs */
+    private void generateCars(Random random, String runTag, long[] usersIds) {
+
+        if (usersIds.length == 0) {
+            log.warn("No users generated, skipping cars and listings");
+            return;
+        }
+
+        var powerUsersCount = Math.max(1, (int) (usersIds.length * properties.getPowerUsersShare()));
+        var lastCarId = maxId("car", "car_id");
+        var cars = new BatchInserter(INSERT_CAR);
+        for (int i = 0; i < properties.getCars(); i++) {
+            var make = pickWeighted(random, MAKE_WEIGHTS);
+            var year = NEWEST_YEAR - (int) ((NEWEST_YEAR - OLDEST_YEAR) * Math.pow(random.nextDouble(), 2));
+            cars.add(MAKES[make], pick(random, MODELS[make]), year, pick(random, TRIMS) + " " + runTag + "-" + i,
+                    pick(random, COLORS), pick(random, TRANSMISSIONS), pick(random, FUELS),
+                    pickOwner(random, usersIds, powerUsersCount));
+        }
+        cars.flush();
+
+        log.info("Generated {} cars", properties.getCars());
+
+        var listings = new BatchInserter(INSERT_LISTING);
+        /* PostgreSQL only honors the fetch size inside a transaction */
+        transactionTemplate.executeWithoutResult(status -> {
+            readJdbcTemplate.query("SELECT car_id, user_id, year FROM car WHERE car_id > ? ORDER BY car_id",
+                    resultSet -> {
+                        if (random.nextDouble() < properties.getListedCarsShare()) {
+                            var age = NEWEST_YEAR - resultSet.getInt("year");
+                            var price = Math.max(1000, 60000 - age * 2000 + random.nextInt(10000));
+                            var mileage = 1 + age * 12000 + random.nextInt(10000);
+                            listings.add(price, mileage, "Generated listing, " + age + " years old",
+                                    resultSet.getLong("car_id"), resultSet.getLong("user_id"));
+                        }
+                    }, lastCarId);
+            listings.flush();
+        });
+
+        log.info("Generated {} listings", listings.getCount());
+    }
+
+    private void generateLocations(Random random, long lastListingId) {
+
+        var cities = jdbcTemplate.query("SELECT c.city_id, c.state_id, s.country_id, c.latitude, c.longitude " +
+                        "FROM city c JOIN state s ON s.state_id = c.state_id ORDER BY c.city_id",
+                (resultSet, rowNum) -> new Object[]{resultSet.getLong("city_id"), resultSet.getLong("state_id"),
+                        resultSet.getLong("country_id"), resultSet.getObject("latitude"),
+                        resultSet.getObject("longitude")});
+
+        if (cities.isEmpty()) {
+            log.warn("No cities found, skipping locations");
+            return;
+        }
+
+        var locations = new BatchInserter(INSERT_LOCATION);
+        transactionTemplate.executeWithoutResult(status -> {
+            readJdbcTemplate.query("SELECT listing_id FROM listing WHERE listing_id > ? ORDER BY listing_id",
+                    resultSet -> {
+                        /* Squaring the random number concentrates listings in the first cities, like big metro
+                           areas */
+                        var city = cities.get((int) (cities.size() * Math.pow(random.nextDouble(), 2)));
+                        locations.add(resultSet.getLong("listing_id"), city[2], city[1], city[0], city[3], city[4]);
+                    }, lastListingId);
+            locations.flush();
+        });
+
+        log.info("Generated {} locations", locations.getCount());
+    }
+
+    /* Refreshes planner statistics and the row estimates used by approximate counts */
+    private void analyze() throws Exception {
+
+        var productName = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                DatabaseMetaData::getDatabaseProductName);
+        if ("PostgreSQL".equals(productName)) {
+            jdbcTemplate.execute("ANALYZE users, user_roles, car, listing, location");
+        } else if ("H2".equals(productName)) {
+            jdbcTemplate.execute("ANALYZE");
+        }
+    }
+
+    private long maxId(String tableName, String idColumn) {
+        var maxId = jdbcTemplate.queryForObject(
+                String.format("SELECT COALESCE(MAX(%s), 0) FROM %s", idColumn, tableName), Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    /* A few power users own powerUsersCarsShare of the cars, the rest is spread over everyone else */
+    private long pickOwner(Random random, long[] usersIds, int powerUsersCount) {
+        if (powerUsersCount >= usersIds.length || random.nextDouble() < properties.getPowerUsersCarsShare()) {
+            return usersIds[random.nextInt(Math.min(powerUsersCount, usersIds.length))];
+        }
+        return usersIds[powerUsersCount + random.nextInt(usersIds.length - powerUsersCount)];
+    }
+
+    private static int pickWeighted(Random random, int[] weights) {
+        var total = 0;
+        for (var weight : weights) {
+            total += weight;
+        }
+        var target = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            target -= weights[i];
+            if (target < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private class BatchInserter {
+
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+        private long count;
+
+        private BatchInserter(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+            count++;
+            if (rows.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, rows);
+                rows.clear();
+            }
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "car-import")
+@Getter
+@Setter
+public class CarImportProperties {
+
+    /* Number of cars committed per transaction */
+    private int chunkSize = 500;
+
+    /* Failed rows listed in the import summary, the others are only counted */
+    private int maxFailedRows = 100;
+}
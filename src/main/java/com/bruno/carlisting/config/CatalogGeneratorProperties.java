@@ -0,0 +1,30 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "catalog-generator")
+@Getter
+@Setter
+public class CatalogGeneratorProperties {
+
+    private int users = 10000;
+
+    private int cars = 100000;
+
+    /* Share of the generated cars that get a listing */
+    private double listedCarsShare = 0.8;
+
+    /* Share of the generated users that own powerUsersCarsShare of the generated cars */
+    private double powerUsersShare = 0.01;
+
+    private double powerUsersCarsShare = 0.3;
+
+    private int batchSize = 1000;
+
+    /* Same seed, same catalog */
+    private long seed = 42;
+}
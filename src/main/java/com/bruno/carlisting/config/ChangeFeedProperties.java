@@ -0,0 +1,20 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "change-feed")
+@Getter
+@Setter
+public class ChangeFeedProperties {
+
+    /* How long a missing sequence holds back the changes after it, counted from when this node first saw it missing.
+       Only gaps wait. Outbox rows are inserted at the end of their write, a write that still has not committed this
+       long after a later sequence was seen is taken as rolled back and never served */
+    private Duration settleTime = Duration.ofSeconds(30);
+}
@@ -0,0 +1,13 @@
+package com.bruno.carlisting.config;
+
+public enum CountStrategy {
+
+    /* SELECT COUNT(*) on every request */
+    EXACT,
+
+    /* Planner statistics of the whole table, requests with a filter are counted exactly */
+    APPROXIMATE,
+
+    /* Exact count kept per filter key for a short time and evicted on writes */
+    CACHED
+}
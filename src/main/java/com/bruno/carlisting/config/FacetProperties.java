@@ -0,0 +1,21 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "facets")
+@Getter
+@Setter
+public class FacetProperties {
+
+    /* Number of years grouped in each year facet value, 1 counts every year on its own */
+    private int yearBucketSize = 5;
+
+    /* Facet counts are evicted on writes, the time to live bounds staleness after direct database writes */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,30 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "listing-stream")
+@Getter
+@Setter
+public class ListingStreamProperties {
+
+    /* Lifetime of a stream, clients open a new one with the same filters once it ends */
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /* Comment sent to every stream at this interval, so connections closed by the client or a proxy are let go */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /* Streams open at once, further ones are refused until others end */
+    private int maxSubscriptions = 10000;
+
+    /* Threads writing events to the streams, a client that stops reading holds one of them until its write fails */
+    private int senderThreads = 8;
+
+    /* Events waiting for a stream, a stream that falls this far behind is closed */
+    private int queueCapacity = 64;
+}
@@ -0,0 +1,16 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "listing-text-index")
+@Getter
+@Setter
+public class ListingTextIndexProperties {
+
+    /* Directory of the Lucene index files, the index is kept in memory when not set */
+    private String directory;
+}
@@ -0,0 +1,23 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "optimistic-lock-retry")
+@Getter
+@Setter
+public class OptimisticLockRetryProperties {
+
+    /* Attempts of a write, including the first one, before the conflict is answered with 409 */
+    private int maxAttempts = 3;
+
+    /* Upper bound of the random pause before the first retry, doubled for every further retry */
+    private Duration initialBackoff = Duration.ofMillis(20);
+
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
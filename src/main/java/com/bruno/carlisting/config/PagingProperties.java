@@ -0,0 +1,28 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "paging")
+@Getter
+@Setter
+public class PagingProperties {
+
+    /* Count strategy by endpoint key, endpoints not listed use an exact count */
+    private Map<String, CountStrategy> countStrategies = new HashMap<>();
+
+    private Duration countCacheTtl = Duration.ofSeconds(30);
+
+    private int countCacheMaxEntries = 10000;
+
+    public CountStrategy getCountStrategy(String endpoint) {
+        return countStrategies.getOrDefault(endpoint, CountStrategy.EXACT);
+    }
+}
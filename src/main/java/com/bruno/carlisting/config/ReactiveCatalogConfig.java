@@ -0,0 +1,72 @@
+package com.bruno.carlisting.config;
+
+import com.bruno.carlisting.reactive.ReactiveCatalogApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+
+/* Starts the reactive catalog API once the database is set up and seeded. Its context shares no beans with this one,
+   only the database, and reads no application*.yml, so R2DBC is configured for it from reactive-catalog.* here */
+@Configuration
+@ConditionalOnProperty(prefix = "reactive-catalog", name = "enabled", havingValue = "true")
+@Slf4j
+public class ReactiveCatalogConfig {
+
+    private static final String REACTIVE_CATALOG_CONFIG_NAME = "reactive-catalog";
+
+    private final ReactiveCatalogProperties reactiveCatalogProperties;
+
+    private ConfigurableApplicationContext reactiveCatalogContext;
+
+    public ReactiveCatalogConfig(ReactiveCatalogProperties reactiveCatalogProperties) {
+        this.reactiveCatalogProperties = reactiveCatalogProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startReactiveCatalog() {
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.config.name", REACTIVE_CATALOG_CONFIG_NAME);
+        properties.put("server.port", reactiveCatalogProperties.getPort());
+        properties.put("spring.r2dbc.url", reactiveCatalogProperties.getUrl());
+        properties.put("spring.r2dbc.username", reactiveCatalogProperties.getUsername());
+        properties.put("spring.r2dbc.password", reactiveCatalogProperties.getPassword());
+        properties.put("spring.r2dbc.pool.initial-size", reactiveCatalogProperties.getPoolSize());
+        properties.put("spring.r2dbc.pool.max-size", reactiveCatalogProperties.getPoolSize());
+        properties.put("reactive-catalog.batch-size", reactiveCatalogProperties.getBatchSize());
+        properties.put("spring.devtools.restart.enabled", false);
+        properties.put("spring.devtools.livereload.enabled", false);
+
+        reactiveCatalogContext = new SpringApplicationBuilder(ReactiveCatalogApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .bannerMode(Banner.Mode.OFF)
+                .registerShutdownHook(false)
+                .properties(properties)
+                .run();
+
+        log.info("Reactive catalog API listening on port {}", getReactiveCatalogPort());
+    }
+
+    /* Differs from reactive-catalog.port when that is 0 and a free port was picked */
+    public int getReactiveCatalogPort() {
+        return ((ReactiveWebServerApplicationContext) reactiveCatalogContext).getWebServer().getPort();
+    }
+
+    @PreDestroy
+    public void stopReactiveCatalog() {
+        if (reactiveCatalogContext != null) {
+            reactiveCatalogContext.close();
+        }
+    }
+}
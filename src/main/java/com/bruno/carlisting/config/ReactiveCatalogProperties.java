@@ -0,0 +1,29 @@
+package com.bruno.carlisting.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "reactive-catalog")
+@Getter
+@Setter
+public class ReactiveCatalogProperties {
+
+    private boolean enabled = false;
+
+    private int port = 8081;
+
+    /* R2DBC URL of the database the servlet API writes to */
+    private String url = "r2dbc:h2:mem:///testdb";
+
+    private String username = "sa";
+
+    private String password = "";
+
+    private int poolSize = 10;
+
+    /* Cars or users per query of their listing and role IDs */
+    private int batchSize = 100;
+}
@@ -0,0 +1,45 @@
+package com.bruno.carlisting.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/* Tomcat runs every request, and the services it calls, on a virtual thread of its own instead of a worker pool.
+   Enabled by the virtual-threads profile, which needs a JDK with virtual threads */
+@Configuration
+@ConditionalOnProperty(prefix = "virtual-threads", name = "enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    public static final String VIRTUAL_THREADS_UNSUPPORTED = "Virtual threads need JDK 21 or later, running on JDK %s";
+
+    private final ExecutorService requestExecutor = newVirtualThreadPerTaskExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+
+        log.info("Tomcat requests run on virtual threads");
+
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        requestExecutor.shutdown();
+    }
+
+    /* Looked up at runtime, so the code still compiles for Java 11 */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(String.format(VIRTUAL_THREADS_UNSUPPORTED, Runtime.version()), e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.bruno.carlisting.controller;
 
+import com.bruno.carlisting.domain.Car;
 import com.bruno.carlisting.dtos.request.car.CarColorRequestDTO;
 import com.bruno.carlisting.dtos.request.car.CarFuelRequestDTO;
 import com.bruno.carlisting.dtos.request.car.CarMakeRequestDTO;
@@ -9,14 +10,24 @@ import com.bruno.carlisting.dtos.request.car.CarTransmissionRequestDTO;
 import com.bruno.carlisting.dtos.request.car.CarTrimRequestDTO;
 import com.bruno.carlisting.dtos.request.car.CarUserRequestDTO;
 import com.bruno.carlisting.dtos.request.car.CarYearRequestDTO;
+import com.bruno.carlisting.dtos.response.BatchItemResponseDTO;
+import com.bruno.carlisting.dtos.response.FacetsResponseDTO;
+import com.bruno.carlisting.dtos.response.car.CarImportResponseDTO;
 import com.bruno.carlisting.dtos.response.car.CarPrivateResponseDTO;
 import com.bruno.carlisting.dtos.response.car.CarPublicResponseDTO;
+import com.bruno.carlisting.services.interfaces.CarImportService;
 import com.bruno.carlisting.services.interfaces.CarService;
+import com.bruno.carlisting.services.interfaces.CatalogExportService;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import com.bruno.carlisting.services.interfaces.FacetService;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -27,17 +38,28 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.bruno.carlisting.services.interfaces.CatalogExportService.EXPORT_DEFAULT_FORMAT;
+import static com.bruno.carlisting.services.interfaces.CatalogExportService.EXPORT_FORMAT_PATTERN;
 
 @CrossOrigin("*")
 @RestController
@@ -51,22 +73,38 @@ public class CarController {
     private static final int CAR_PAGE_MIN_NUMBER = 0;
     private static final int CAR_PAGE_MIN_SIZE = 1;
     private static final int CAR_PAGE_MAX_SIZE = 10;
+    private static final int CAR_CURSOR_MAX_LENGTH = 100;
+    private static final int CAR_BATCH_MIN_SIZE = 1;
+    private static final int CAR_BATCH_MAX_SIZE = 1000;
+    private static final int CAR_IDS_MIN_SIZE = 1;
+    private static final int CAR_IDS_MAX_SIZE = 100;
 
     private final CarService carService;
-
-    public CarController(CarService carService) {
+    private final CarImportService carImportService;
+    private final FacetService facetService;
+    private final ConditionalRequestService conditionalRequestService;
+    private final CatalogExportService catalogExportService;
+
+    public CarController(CarService carService, CarImportService carImportService, FacetService facetService,
+                         ConditionalRequestService conditionalRequestService,
+                         CatalogExportService catalogExportService) {
         this.carService = carService;
+        this.carImportService = carImportService;
+        this.facetService = facetService;
+        this.conditionalRequestService = conditionalRequestService;
+        this.catalogExportService = catalogExportService;
     }
 
-    @ApiOperation(value = "Return all cars grouped in pages")
+    @ApiOperation(value = "Return all cars grouped in pages, or in slices following an after cursor")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return a page of cars"),
+            @ApiResponse(code = 400, message = "Invalid cursor provided"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "Page content not found"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<Page<CarPublicResponseDTO>> findAllCars(
+    public ResponseEntity<Slice<CarPublicResponseDTO>> findAllCars(
 
             @RequestParam(value = "page", required = false, defaultValue = CAR_PAGE_DEFAULT_NUMBER)
             @Min(value = CAR_PAGE_MIN_NUMBER,
@@ -76,12 +114,26 @@ public class CarController {
             @Min(value = CAR_PAGE_MIN_SIZE,
                     message = "Page size must be greater than or equal to " + CAR_PAGE_MIN_SIZE)
             @Max(value = CAR_PAGE_MAX_SIZE,
-                    message = "Page size must be less than or equal to " + CAR_PAGE_MAX_SIZE) int size) {
+                    message = "Page size must be less than or equal to " + CAR_PAGE_MAX_SIZE) int size,
+
+            @RequestParam(value = "after", required = false)
+            @Size(max = CAR_CURSOR_MAX_LENGTH,
+                    message = "Cursor must have " + CAR_CURSOR_MAX_LENGTH + " characters or less") String after) {
+
+        if (after != null) {
+
+            log.info("Finding all cars after cursor {} with maximum size {}", after, size);
+
+            var carsSliceDTO = carService.getAllCarsPublicAfter(after, size);
+
+            log.info("Returning {} cars after cursor {}", carsSliceDTO.getNumberOfElements(), after);
+
+            return ResponseEntity.ok().body(carsSliceDTO);
+        }
 
         log.info("Finding all cars on page {} with maximum size {}", page, size);
 
-        var carsPageDTO = CarPublicResponseDTO.toCarPublicDTO(
-                carService.getAllCars(page, size));
+        var carsPageDTO = carService.getAllCarsPublic(page, size);
 
         log.info("Returning {} cars on page {}",
                 carsPageDTO.getContent().size(), carsPageDTO.getPageable().getPageNumber());
@@ -89,9 +141,71 @@ public class CarController {
         return ResponseEntity.ok().body(carsPageDTO);
     }
 
+    @ApiOperation(value = "Count cars per make, fuel, transmission and year range")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return the car counts of every facet"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/facets", produces = "application/json")
+    public ResponseEntity<FacetsResponseDTO> getCarFacets() {
+
+        log.info("Counting cars per facet");
+
+        var facetsDTO = facetService.getCarFacets();
+
+        log.info("Returning facets of {} cars", facetsDTO.getTotal());
+
+        return ResponseEntity.ok().body(facetsDTO);
+    }
+
+    @ApiOperation(value = "Export every car as NDJSON or CSV from a single query, gzip compressed if accepted")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stream every car, one per line"),
+            @ApiResponse(code = 400, message = "Invalid format provided"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportCars(
+
+            @RequestParam(value = "format", required = false, defaultValue = EXPORT_DEFAULT_FORMAT)
+            @Pattern(regexp = EXPORT_FORMAT_PATTERN, message = "Format must be either ndjson or csv") String format,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        return catalogExportService.toExportResponse("cars", format, acceptEncoding,
+                catalogExportService::exportCars);
+    }
+
+    @ApiOperation(value = "Find cars by a list of IDs, with a not found result for every missing ID")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return one result per requested ID, in request order"),
+            @ApiResponse(code = 400, message = "Invalid list of IDs provided"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(params = "ids", produces = "application/json")
+    public ResponseEntity<List<BatchItemResponseDTO<CarPublicResponseDTO>>> findCarsByIds(
+
+            @RequestParam(value = "ids")
+            @Size(min = CAR_IDS_MIN_SIZE, max = CAR_IDS_MAX_SIZE,
+                    message = "IDs must have between " + CAR_IDS_MIN_SIZE + " and " + CAR_IDS_MAX_SIZE +
+                            " elements")
+                    List<@Positive(message = "Car ID must be a positive integer") Long> carsIds) {
+
+        log.info("Finding cars by IDs = {}", carsIds);
+
+        var carsDTO = carService.getCarsPublicByIds(carsIds);
+
+        log.info("Returning {} of {} requested cars",
+                carsDTO.stream().filter(BatchItemResponseDTO::isFound).count(), carsIds.size());
+
+        return ResponseEntity.ok().body(carsDTO);
+    }
+
     @ApiOperation(value = "Find a car by ID")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return the car with corresponding ID"),
+            @ApiResponse(code = 304, message = "Car not modified since the ETag or date of the request"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "Car not found"),
             @ApiResponse(code = 500, message = "Server exception"),
@@ -99,26 +213,39 @@ public class CarController {
     @GetMapping(value = "/{carId}", produces = "application/json")
     public ResponseEntity<CarPublicResponseDTO> findCarById(
 
-            @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId) {
+            @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
+
+            WebRequest request) {
 
         log.info("Finding car by ID = {}", carId);
 
-        var car = carService.getCarById(carId);
+        /* Also sets the ETag and Last-Modified headers of the full response */
+        var carVersion = carService.getCarVersion(carId);
+        if (request.checkNotModified(conditionalRequestService.toETag(carVersion.getVersion()),
+                conditionalRequestService.toLastModified(carVersion.getUpdatedAt()))) {
+
+            log.info("Car of ID = {} not modified", carId);
+
+            return null;
+        }
+
+        var car = carService.getCarPublicById(carId);
 
         log.info("Returning car of ID = {}", car.getCarId());
 
-        return ResponseEntity.ok().body(CarPublicResponseDTO.toCarPublicDTO(car));
+        return ResponseEntity.ok().body(car);
     }
 
-    @ApiOperation(value = "Find all cars by make")
+    @ApiOperation(value = "Find all cars by make, grouped in pages or in slices following an after cursor")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return a page of cars from the corresponding make"),
+            @ApiResponse(code = 400, message = "Invalid cursor provided"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "Page content not found"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @GetMapping(value = "/make/{make}", produces = "application/json")
-    public ResponseEntity<Page<CarPublicResponseDTO>> findCarsByMake(
+    public ResponseEntity<Slice<CarPublicResponseDTO>> findCarsByMake(
 
             @PathVariable @NotBlank(message = "Make is mandatory")
             @Size(max = 30, message = "Make must have 30 characters or less") String make,
@@ -131,12 +258,26 @@ public class CarController {
             @Min(value = CAR_PAGE_MIN_SIZE,
                     message = "Page size must be greater than or equal to " + CAR_PAGE_MIN_SIZE)
             @Max(value = CAR_PAGE_MAX_SIZE,
-                    message = "Page size must be less than or equal to " + CAR_PAGE_MAX_SIZE) int size) {
+                    message = "Page size must be less than or equal to " + CAR_PAGE_MAX_SIZE) int size,
+
+            @RequestParam(value = "after", required = false)
+            @Size(max = CAR_CURSOR_MAX_LENGTH,
+                    message = "Cursor must have " + CAR_CURSOR_MAX_LENGTH + " characters or less") String after) {
+
+        if (after != null) {
+
+            log.info("Finding all cars of make {} after cursor {} with maximum size {}", make, after, size);
+
+            var carsSliceDTO = carService.getCarsPublicByMakeAfter(make, after, size);
+
+            log.info("Returning {} cars by {} after cursor {}", carsSliceDTO.getNumberOfElements(), make, after);
+
+            return ResponseEntity.ok().body(carsSliceDTO);
+        }
 
         log.info("Finding all cars of make {} on page {} with maximum size {}", make, page, size);
 
-        var carsPageDTO = CarPublicResponseDTO.toCarPublicDTO(
-                carService.getCarsByMake(make, page, size));
+        var carsPageDTO = carService.getCarsPublicByMake(make, page, size);
 
         log.info("Returning {} cars by {} on page {}",
                 carsPageDTO.getContent().size(),
@@ -170,8 +311,7 @@ public class CarController {
 
         log.info("Finding all cars by user ID = {} on page {} with maximum size {}", userId, page, size);
 
-        var carsPageDTO = CarPublicResponseDTO.toCarPublicDTO(
-                carService.getCarsByUserId(userId, page, size));
+        var carsPageDTO = carService.getCarsPublicByUserId(userId, page, size);
 
         log.info("Returning {} cars listed by {} on page {}",
                 carsPageDTO.getContent().size(), userId, carsPageDTO.getPageable().getPageNumber());
@@ -201,11 +341,64 @@ public class CarController {
         return ResponseEntity.created(uri).body(CarPrivateResponseDTO.toCarPrivateDTO(newCar));
     }
 
+    @ApiOperation(value = "Add a batch of new cars")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "New cars created"),
+            @ApiResponse(code = 400, message = "Invalid Car data provided"),
+            @ApiResponse(code = 404, message = "Responsible user not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @PostMapping(value = "/batch", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<List<CarPrivateResponseDTO>> createCars(
+
+            @RequestBody
+            @Size(min = CAR_BATCH_MIN_SIZE, max = CAR_BATCH_MAX_SIZE,
+                    message = "Batch must have between " + CAR_BATCH_MIN_SIZE + " and " + CAR_BATCH_MAX_SIZE + " cars")
+                    List<@Valid CarRequestDTO> carsRequestDTO) {
+
+        log.info("Creating batch of {} cars", carsRequestDTO.size());
+
+        List<Car> newCars = new ArrayList<>();
+        List<Long> usersIds = new ArrayList<>();
+        carsRequestDTO.forEach(carRequestDTO -> {
+            newCars.add(carRequestDTO.toCar());
+            usersIds.add(carRequestDTO.getUserId());
+        });
+        var createdCars = carService.createCars(newCars, usersIds);
+
+        log.info("Returning {} created cars", createdCars.size());
+
+        List<CarPrivateResponseDTO> createdCarsDTO = new ArrayList<>();
+        createdCars.forEach(car -> createdCarsDTO.add(CarPrivateResponseDTO.toCarPrivateDTO(car)));
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdCarsDTO);
+    }
+
+    @ApiOperation(value = "Import cars from a JSON array or from one JSON car per line, counting rows by result")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Import summary with row counts and the first failed rows"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @PostMapping(value = "/import", consumes = {"application/json", "application/x-ndjson"},
+            produces = "application/json")
+    public ResponseEntity<CarImportResponseDTO> importCars(InputStream carsJson) throws IOException {
+
+        log.info("Importing cars");
+
+        var importSummaryDTO = carImportService.importCars(carsJson);
+
+        log.info("Imported {} of {} cars, {} failed", importSummaryDTO.getCreatedRows(),
+                importSummaryDTO.getTotalRows(), importSummaryDTO.getFailedRows());
+
+        return ResponseEntity.ok().body(importSummaryDTO);
+    }
+
     @ApiOperation(value = "Update an existing car")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car updated"),
             @ApiResponse(code = 400, message = "Invalid Car data provided"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PutMapping(value = "/{carId}", consumes = "application/json", produces = "application/json")
@@ -213,183 +406,253 @@ public class CarController {
 
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarRequestDTO carRequestDTO) {
 
         log.info("Updating car according to request: {}", carRequestDTO);
 
+        conditionalRequestService.checkIfMatch(ifMatch, () -> carService.getCarById(carId).getVersion());
+
         var updatedCar = carService.updateCar(carRequestDTO.toCar(), carRequestDTO.getUserId(), carId);
 
         log.info("Returning updated car: {}", updatedCar);
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's make")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's make updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PatchMapping(value = "/{carId}/make", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarMake(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarMakeRequestDTO carMakeRequestDTO) {
 
         log.info("Updating car ID = {} make to {}", carId, carMakeRequestDTO.getMake());
 
-        var updatedCar = carService.updateCarMake(carMakeRequestDTO.getMake(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarMake(carMakeRequestDTO.getMake(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} make to {}", updatedCar.getCarId(), updatedCar.getMake());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's model")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's model updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/model", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarModel(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarModelRequestDTO carModelRequestDTO) {
 
         log.info("Updating car ID = {} model to {}", carId, carModelRequestDTO.getModel());
 
-        var updatedCar = carService.updateCarModel(carModelRequestDTO.getModel(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarModel(carModelRequestDTO.getModel(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} model to {}", updatedCar.getCarId(), updatedCar.getModel());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's year")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's year updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/year", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarYear(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarYearRequestDTO carYearRequestDTO) {
 
         log.info("Updating car ID = {} year to {}", carId, carYearRequestDTO.getYear());
 
-        var updatedCar = carService.updateCarYear(carYearRequestDTO.getYear(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarYear(carYearRequestDTO.getYear(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} year to {}", updatedCar.getCarId(), updatedCar.getYear());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's trim")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's trim updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/trim", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarTrim(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarTrimRequestDTO carTrimRequestDTO) {
 
         log.info("Updating car ID = {} trim to {}", carId, carTrimRequestDTO.getTrim());
 
-        var updatedCar = carService.updateCarTrim(carTrimRequestDTO.getTrim(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarTrim(carTrimRequestDTO.getTrim(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} trim to {}", updatedCar.getCarId(), updatedCar.getTrim());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's color")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's color updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/color", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarColor(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarColorRequestDTO carColorRequestDTO) {
 
         log.info("Updating car ID = {} color to {}", carId, carColorRequestDTO.getColor());
 
-        var updatedCar = carService.updateCarColor(carColorRequestDTO.getColor(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarColor(carColorRequestDTO.getColor(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} color to {}", updatedCar.getCarId(), updatedCar.getColor());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's transmission")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's transmission updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/transmission", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarTransmission(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarTransmissionRequestDTO carTransmissionRequestDTO) {
 
         log.info("Updating car ID = {} transmission to {}", carId, carTransmissionRequestDTO.getTransmission());
 
-        var updatedCar = carService.updateCarTransmission(carTransmissionRequestDTO.getTransmission(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarTransmission(carTransmissionRequestDTO.getTransmission(), carId,
+                expectedVersion);
 
         log.info("Returning updated car ID = {} transmission to {}", updatedCar.getCarId(), updatedCar.getTransmission());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's fuel")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's fuel updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/fuel", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarFuel(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarFuelRequestDTO carFuelRequestDTO) {
 
         log.info("Updating car ID = {} fuel to {}", carId, carFuelRequestDTO.getFuel());
 
-        var updatedCar = carService.updateCarFuel(carFuelRequestDTO.getFuel(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarFuel(carFuelRequestDTO.getFuel(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} fuel to {}", updatedCar.getCarId(), updatedCar.getFuel());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Update a car's responsible User")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "Car's responsible User updated"),
             @ApiResponse(code = 404, message = "Car not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PatchMapping(value = "/{carId}/user", consumes = "application/json", produces = "application/json")
     public ResponseEntity<CarPrivateResponseDTO> updateCarUser(
             @PathVariable @Positive(message = "Car ID must be a positive integer") Long carId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody CarUserRequestDTO carUserRequestDTO) {
 
         log.info("Updating car ID = {} responsible user to user ID = {}", carId, carUserRequestDTO.getUserId());
 
-        var updatedCar = carService.updateCarUser(carUserRequestDTO.getUserId(), carId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> carService.getCarVersion(carId).getVersion());
+
+        var updatedCar = carService.updateCarUser(carUserRequestDTO.getUserId(), carId, expectedVersion);
 
         log.info("Returning updated car ID = {} responsible user to user ID = {}", carId, updatedCar.getUser().getUserId());
 
-        return ResponseEntity.ok().body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedCar.getVersion()))
+                .body(CarPrivateResponseDTO.toCarPrivateDTO(updatedCar));
     }
 
     @ApiOperation(value = "Delete an existing car")
@@ -0,0 +1,68 @@
+package com.bruno.carlisting.controller;
+
+import com.bruno.carlisting.dtos.response.change.ChangeFeedResponseDTO;
+import com.bruno.carlisting.services.interfaces.ChangeFeedService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping(value = "/changes")
+@Validated
+@Slf4j
+public class ChangeController {
+
+    private static final String CHANGE_DEFAULT_SINCE = "0";
+    private static final String CHANGE_DEFAULT_SIZE = "100";
+    private static final long CHANGE_MIN_SINCE = 0;
+    private static final int CHANGE_MIN_SIZE = 1;
+    private static final int CHANGE_MAX_SIZE = 1000;
+
+    private final ChangeFeedService changeFeedService;
+
+    public ChangeController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    @ApiOperation(value = "Return the car, user, role and listing changes after a change sequence")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return the changes in sequence order, possibly none"),
+            @ApiResponse(code = 400, message = "Invalid sequence or size"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(produces = "application/json")
+    public ResponseEntity<ChangeFeedResponseDTO> findChangesSince(
+
+            @RequestParam(value = "since", required = false, defaultValue = CHANGE_DEFAULT_SINCE)
+            @Min(value = CHANGE_MIN_SINCE,
+                    message = "Change sequence must be greater than or equal to " + CHANGE_MIN_SINCE) Long since,
+
+            @RequestParam(value = "size", required = false, defaultValue = CHANGE_DEFAULT_SIZE)
+            @Min(value = CHANGE_MIN_SIZE,
+                    message = "Size must be greater than or equal to " + CHANGE_MIN_SIZE)
+            @Max(value = CHANGE_MAX_SIZE,
+                    message = "Size must be less than or equal to " + CHANGE_MAX_SIZE) int size) {
+
+        log.info("Finding at most {} changes after sequence {}", size, since);
+
+        var changeFeedDTO = changeFeedService.getChangesSince(since, size);
+
+        log.info("Returning {} changes, next sequence {}", changeFeedDTO.getChanges().size(),
+                changeFeedDTO.getNextSince());
+
+        return ResponseEntity.ok().body(changeFeedDTO);
+    }
+}
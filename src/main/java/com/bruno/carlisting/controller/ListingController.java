@@ -0,0 +1,426 @@
+package com.bruno.carlisting.controller;
+
+import com.bruno.carlisting.dtos.request.listing.ListingRequestDTO;
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.FacetsResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingIndexSearchResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingNearbyResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingViewResponseDTO;
+import com.bruno.carlisting.services.interfaces.CatalogExportService;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import com.bruno.carlisting.services.interfaces.FacetService;
+import com.bruno.carlisting.services.interfaces.ListingGeoSearchService;
+import com.bruno.carlisting.services.interfaces.ListingIndexService;
+import com.bruno.carlisting.services.interfaces.ListingSearchService;
+import com.bruno.carlisting.services.interfaces.ListingService;
+import com.bruno.carlisting.services.interfaces.ListingStreamService;
+import com.bruno.carlisting.services.interfaces.ListingTextSearchService;
+import com.bruno.carlisting.services.interfaces.ListingViewService;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.validation.Valid;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+
+import static com.bruno.carlisting.services.interfaces.CatalogExportService.EXPORT_DEFAULT_FORMAT;
+import static com.bruno.carlisting.services.interfaces.CatalogExportService.EXPORT_FORMAT_PATTERN;
+
+@CrossOrigin("*")
+@RestController
+@RequestMapping(value = "/listings")
+@Validated
+@Slf4j
+public class ListingController {
+
+    private static final String LISTING_PAGE_DEFAULT_NUMBER = "0";
+    private static final String LISTING_PAGE_DEFAULT_SIZE = "10";
+    private static final int LISTING_PAGE_MIN_NUMBER = 0;
+    private static final int LISTING_PAGE_MIN_SIZE = 1;
+    private static final int LISTING_PAGE_MAX_SIZE = 50;
+    private static final String LISTING_INDEX_DEFAULT_LIMIT = "100";
+    private static final int LISTING_INDEX_MIN_LIMIT = 0;
+    private static final int LISTING_INDEX_MAX_LIMIT = 1000;
+    private static final int LISTING_TEXT_MAX_LENGTH = 200;
+    /* Hits collected for a text search page are all the hits up to its end, the last page keeps them bounded */
+    private static final int LISTING_TEXT_MAX_RESULT_WINDOW = 10000;
+    private static final int LISTING_TEXT_MAX_PAGE = LISTING_TEXT_MAX_RESULT_WINDOW / LISTING_PAGE_MAX_SIZE - 1;
+    private static final String LISTING_NEAR_DEFAULT_RADIUS = "50";
+    private static final String LISTING_NEAR_MIN_RADIUS = "0";
+    private static final String LISTING_NEAR_MAX_RADIUS = "1000";
+    private static final int LISTING_CURSOR_MAX_LENGTH = 200;
+
+    private final ListingService listingService;
+    private final ListingSearchService listingSearchService;
+    private final ListingIndexService listingIndexService;
+    private final ListingTextSearchService listingTextSearchService;
+    private final ListingGeoSearchService listingGeoSearchService;
+    private final ListingViewService listingViewService;
+    private final FacetService facetService;
+    private final ConditionalRequestService conditionalRequestService;
+    private final CatalogExportService catalogExportService;
+    private final ListingStreamService listingStreamService;
+
+    public ListingController(ListingService listingService, ListingSearchService listingSearchService,
+                             ListingIndexService listingIndexService,
+                             ListingTextSearchService listingTextSearchService,
+                             ListingGeoSearchService listingGeoSearchService, ListingViewService listingViewService,
+                             FacetService facetService, ConditionalRequestService conditionalRequestService,
+                             CatalogExportService catalogExportService, ListingStreamService listingStreamService) {
+        this.listingService = listingService;
+        this.listingSearchService = listingSearchService;
+        this.listingIndexService = listingIndexService;
+        this.listingTextSearchService = listingTextSearchService;
+        this.listingGeoSearchService = listingGeoSearchService;
+        this.listingViewService = listingViewService;
+        this.facetService = facetService;
+        this.conditionalRequestService = conditionalRequestService;
+        this.catalogExportService = catalogExportService;
+        this.listingStreamService = listingStreamService;
+    }
+
+    @ApiOperation(value = "Count listings per make, fuel, transmission and year range of their car")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return the listing counts of every facet"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/facets", produces = "application/json")
+    public ResponseEntity<FacetsResponseDTO> getListingFacets() {
+
+        log.info("Counting listings per facet");
+
+        var facetsDTO = facetService.getListingFacets();
+
+        log.info("Returning facets of {} listings", facetsDTO.getTotal());
+
+        return ResponseEntity.ok().body(facetsDTO);
+    }
+
+    @ApiOperation(value = "Export every listing as NDJSON or CSV from a single query, gzip compressed if accepted")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Stream every listing, one per line"),
+            @ApiResponse(code = 400, message = "Invalid format provided"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportListings(
+
+            @RequestParam(value = "format", required = false, defaultValue = EXPORT_DEFAULT_FORMAT)
+            @Pattern(regexp = EXPORT_FORMAT_PATTERN, message = "Format must be either ndjson or csv") String format,
+
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        return catalogExportService.toExportResponse("listings", format, acceptEncoding,
+                catalogExportService::exportListings);
+    }
+
+    @ApiOperation(value = "Stream new listings matching the listing search filters, as server-sent events")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Open a stream of listing events, kept alive by heartbeat comments"),
+            @ApiResponse(code = 400, message = "Invalid search filters provided"),
+            @ApiResponse(code = 500, message = "Server exception"),
+            @ApiResponse(code = 503, message = "Too many open streams"),
+    })
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamListings(
+
+            @Valid ListingSearchRequestDTO searchRequestDTO) {
+
+        log.info("Streaming new listings matching: {}", searchRequestDTO);
+
+        return listingStreamService.subscribe(searchRequestDTO);
+    }
+
+    @ApiOperation(value = "Find a listing by ID")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return the listing"),
+            @ApiResponse(code = 404, message = "Listing not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/{listingId}", produces = "application/json")
+    public ResponseEntity<ListingPublicResponseDTO> getListingById(
+
+            @PathVariable @Positive(message = "Listing ID must be a positive integer") Long listingId) {
+
+        log.info("Searching listing ID = {}", listingId);
+
+        var listingDTO = listingService.getListingPublicById(listingId);
+
+        log.info("Returning listing ID = {}", listingDTO.getListingId());
+
+        return ResponseEntity.ok().body(listingDTO);
+    }
+
+    @ApiOperation(value = "Find a listing by ID with its user display name and location names, as shown on its card")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return the listing card"),
+            @ApiResponse(code = 404, message = "Listing not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/{listingId}/view", produces = "application/json")
+    public ResponseEntity<ListingViewResponseDTO> getListingViewById(
+
+            @PathVariable @Positive(message = "Listing ID must be a positive integer") Long listingId) {
+
+        log.info("Searching listing view of listing ID = {}", listingId);
+
+        var listingViewDTO = ListingViewResponseDTO.toListingViewDTO(listingViewService.getListingView(listingId));
+
+        log.info("Returning listing view of listing ID = {}", listingViewDTO.getListingId());
+
+        return ResponseEntity.ok().body(listingViewDTO);
+    }
+
+    @ApiOperation(value = "Search listings by price, mileage, car and location, grouped in pages")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of matching listings"),
+            @ApiResponse(code = 400, message = "Invalid search filters provided"),
+            @ApiResponse(code = 404, message = "Page content not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/search", produces = "application/json")
+    public ResponseEntity<Page<ListingPublicResponseDTO>> searchListings(
+
+            @Valid ListingSearchRequestDTO searchRequestDTO,
+
+            @RequestParam(value = "page", required = false, defaultValue = LISTING_PAGE_DEFAULT_NUMBER)
+            @Min(value = LISTING_PAGE_MIN_NUMBER,
+                    message = "Page number must be greater than or equal to " + LISTING_PAGE_MIN_NUMBER) int page,
+
+            @RequestParam(value = "size", required = false, defaultValue = LISTING_PAGE_DEFAULT_SIZE)
+            @Min(value = LISTING_PAGE_MIN_SIZE,
+                    message = "Page size must be greater than or equal to " + LISTING_PAGE_MIN_SIZE)
+            @Max(value = LISTING_PAGE_MAX_SIZE,
+                    message = "Page size must be less than or equal to " + LISTING_PAGE_MAX_SIZE) int size,
+
+            @RequestParam(value = "sort", required = false)
+            @Pattern(regexp = "^-?(price|mileage|year)$",
+                    message = "Sort must be price, mileage or year, prefixed with - for descending order")
+                    String sort) {
+
+        log.info("Searching listings matching: {}", searchRequestDTO);
+
+        var listingsPageDTO = listingSearchService.searchListings(searchRequestDTO, page, size, sort);
+
+        log.info("Returning {} listings on page {}",
+                listingsPageDTO.getContent().size(), listingsPageDTO.getPageable().getPageNumber());
+
+        return ResponseEntity.ok().body(listingsPageDTO);
+    }
+
+    @ApiOperation(value = "Search listings in the in-memory listing index, returning matching IDs and facet counts")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return the matching listings IDs and facet counts"),
+            @ApiResponse(code = 400, message = "Invalid search filters provided"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/quick-search", produces = "application/json")
+    public ResponseEntity<ListingIndexSearchResponseDTO> quickSearchListings(
+
+            @Valid ListingSearchRequestDTO searchRequestDTO,
+
+            @RequestParam(value = "limit", required = false, defaultValue = LISTING_INDEX_DEFAULT_LIMIT)
+            @Min(value = LISTING_INDEX_MIN_LIMIT,
+                    message = "Limit must be greater than or equal to " + LISTING_INDEX_MIN_LIMIT)
+            @Max(value = LISTING_INDEX_MAX_LIMIT,
+                    message = "Limit must be less than or equal to " + LISTING_INDEX_MAX_LIMIT) int limit) {
+
+        log.info("Searching listing index for listings matching: {}", searchRequestDTO);
+
+        var searchResultDTO = listingIndexService.searchListings(searchRequestDTO, limit);
+
+        log.info("Returning {} of {} matching listings IDs", searchResultDTO.getListingsIds().size(),
+                searchResultDTO.getTotalMatches());
+
+        return ResponseEntity.ok().body(searchResultDTO);
+    }
+
+    @ApiOperation(value = "Search listing descriptions for a text, most relevant first, with the listing search filters")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a page of matching listings"),
+            @ApiResponse(code = 400, message = "Invalid search text or filters provided"),
+            @ApiResponse(code = 404, message = "Page content not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/text-search", produces = "application/json")
+    public ResponseEntity<Page<ListingPublicResponseDTO>> textSearchListings(
+
+            @RequestParam(value = "text")
+            @NotBlank(message = "Search text is mandatory")
+            @Size(max = LISTING_TEXT_MAX_LENGTH,
+                    message = "Search text must have " + LISTING_TEXT_MAX_LENGTH + " characters or less") String text,
+
+            @Valid ListingSearchRequestDTO searchRequestDTO,
+
+            @RequestParam(value = "page", required = false, defaultValue = LISTING_PAGE_DEFAULT_NUMBER)
+            @Min(value = LISTING_PAGE_MIN_NUMBER,
+                    message = "Page number must be greater than or equal to " + LISTING_PAGE_MIN_NUMBER)
+            @Max(value = LISTING_TEXT_MAX_PAGE,
+                    message = "Page number must be less than or equal to " + LISTING_TEXT_MAX_PAGE) int page,
+
+            @RequestParam(value = "size", required = false, defaultValue = LISTING_PAGE_DEFAULT_SIZE)
+            @Min(value = LISTING_PAGE_MIN_SIZE,
+                    message = "Page size must be greater than or equal to " + LISTING_PAGE_MIN_SIZE)
+            @Max(value = LISTING_PAGE_MAX_SIZE,
+                    message = "Page size must be less than or equal to " + LISTING_PAGE_MAX_SIZE) int size) {
+
+        log.info("Searching listings with descriptions matching \"{}\" and: {}", text, searchRequestDTO);
+
+        var listingsPageDTO = listingTextSearchService.searchListings(text, searchRequestDTO, page, size);
+
+        log.info("Returning {} listings on page {}",
+                listingsPageDTO.getContent().size(), listingsPageDTO.getPageable().getPageNumber());
+
+        return ResponseEntity.ok().body(listingsPageDTO);
+    }
+
+    @ApiOperation(value = "Find listings within a radius of a point, nearest first, in slices following an after cursor")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return a slice of listings with their distance in km"),
+            @ApiResponse(code = 400, message = "Invalid coordinates, radius or cursor provided"),
+            @ApiResponse(code = 404, message = "Slice content not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(value = "/near", produces = "application/json")
+    public ResponseEntity<CursorSliceResponseDTO<ListingNearbyResponseDTO>> getListingsNear(
+
+            @RequestParam(value = "latitude")
+            @DecimalMin(value = "-90", message = "Latitude must be greater than or equal to -90")
+            @DecimalMax(value = "90", message = "Latitude must be less than or equal to 90") double latitude,
+
+            @RequestParam(value = "longitude")
+            @DecimalMin(value = "-180", message = "Longitude must be greater than or equal to -180")
+            @DecimalMax(value = "180", message = "Longitude must be less than or equal to 180") double longitude,
+
+            @RequestParam(value = "radius", required = false, defaultValue = LISTING_NEAR_DEFAULT_RADIUS)
+            @DecimalMin(value = LISTING_NEAR_MIN_RADIUS, inclusive = false,
+                    message = "Radius must be greater than " + LISTING_NEAR_MIN_RADIUS + " km")
+            @DecimalMax(value = LISTING_NEAR_MAX_RADIUS,
+                    message = "Radius must be less than or equal to " + LISTING_NEAR_MAX_RADIUS + " km")
+                    double radius,
+
+            @RequestParam(value = "size", required = false, defaultValue = LISTING_PAGE_DEFAULT_SIZE)
+            @Min(value = LISTING_PAGE_MIN_SIZE,
+                    message = "Page size must be greater than or equal to " + LISTING_PAGE_MIN_SIZE)
+            @Max(value = LISTING_PAGE_MAX_SIZE,
+                    message = "Page size must be less than or equal to " + LISTING_PAGE_MAX_SIZE) int size,
+
+            @RequestParam(value = "after", required = false, defaultValue = "")
+            @Size(max = LISTING_CURSOR_MAX_LENGTH,
+                    message = "Cursor must have " + LISTING_CURSOR_MAX_LENGTH + " characters or less") String after) {
+
+        log.info("Finding listings within {} km of {}, {} after cursor {} with maximum size {}",
+                radius, latitude, longitude, after, size);
+
+        var listingsSliceDTO = listingGeoSearchService.getListingsNear(latitude, longitude, radius, after, size);
+
+        log.info("Returning {} listings within {} km of {}, {}", listingsSliceDTO.getNumberOfElements(), radius,
+                latitude, longitude);
+
+        return ResponseEntity.ok().body(listingsSliceDTO);
+    }
+
+    @ApiOperation(value = "Add a new listing of a car, located in a city")
+    @ApiResponses(value = {
+            @ApiResponse(code = 201, message = "New listing created"),
+            @ApiResponse(code = 400, message = "Invalid Listing data provided"),
+            @ApiResponse(code = 404, message = "Car or city not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @PostMapping(consumes = "application/json", produces = "application/json")
+    public ResponseEntity<ListingPublicResponseDTO> createListing(
+
+            @Valid @RequestBody ListingRequestDTO listingRequestDTO) {
+
+        log.info("Creating listing according to request: {}", listingRequestDTO);
+
+        var newListingDTO = listingService.createListing(listingRequestDTO.toListing(),
+                listingRequestDTO.getCarId(), listingRequestDTO.getCityId());
+        var uri = ServletUriComponentsBuilder.fromCurrentContextPath().path("/listings/{listingId}").
+                buildAndExpand(newListingDTO.getListingId()).toUri();
+
+        log.info("Returning created listing ID = {}", newListingDTO.getListingId());
+
+        return ResponseEntity.created(uri).body(newListingDTO);
+    }
+
+    @ApiOperation(value = "Update an existing listing")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Listing updated"),
+            @ApiResponse(code = 400, message = "Invalid Listing data provided"),
+            @ApiResponse(code = 404, message = "Listing, car or city not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @PutMapping(value = "/{listingId}", consumes = "application/json", produces = "application/json")
+    public ResponseEntity<ListingPublicResponseDTO> updateListing(
+
+            @PathVariable @Positive(message = "Listing ID must be a positive integer") Long listingId,
+
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
+            @Valid @RequestBody ListingRequestDTO listingRequestDTO) {
+
+        log.info("Updating listing ID = {} according to request: {}", listingId, listingRequestDTO);
+
+        conditionalRequestService.checkIfMatch(ifMatch, () -> listingService.getListingById(listingId).getVersion());
+
+        var updatedListingDTO = listingService.updateListing(listingRequestDTO.toListing(),
+                listingRequestDTO.getCarId(), listingRequestDTO.getCityId(), listingId);
+
+        log.info("Returning updated listing ID = {}", updatedListingDTO.getListingId());
+
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedListingDTO.getVersion()))
+                .body(updatedListingDTO);
+    }
+
+    @ApiOperation(value = "Delete a listing")
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "Listing deleted"),
+            @ApiResponse(code = 404, message = "Listing not found"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @DeleteMapping(value = "/{listingId}")
+    public ResponseEntity<Void> deleteListing(
+
+            @PathVariable @Positive(message = "Listing ID must be a positive integer") Long listingId) {
+
+        log.info("Deleting listing ID = {}", listingId);
+
+        listingService.deleteListing(listingId);
+
+        log.info("Deleted listing ID = {}", listingId);
+
+        return ResponseEntity.noContent().build();
+    }
+}
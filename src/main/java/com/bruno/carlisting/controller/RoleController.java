@@ -1,15 +1,16 @@
 package com.bruno.carlisting.controller;
 
-import com.bruno.carlisting.domain.Role;
 import com.bruno.carlisting.dtos.request.role.RoleRequestDTO;
 import com.bruno.carlisting.dtos.response.role.RolePrivateResponseDTO;
 import com.bruno.carlisting.dtos.response.role.RolePublicResponseDTO;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
 import com.bruno.carlisting.services.interfaces.RoleService;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -19,9 +20,11 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
@@ -44,9 +47,11 @@ public class RoleController {
     private static final int ROLE_PAGE_MAX_SIZE = 10;
 
     private final RoleService roleService;
+    private final ConditionalRequestService conditionalRequestService;
 
-    public RoleController(RoleService roleService) {
+    public RoleController(RoleService roleService, ConditionalRequestService conditionalRequestService) {
         this.roleService = roleService;
+        this.conditionalRequestService = conditionalRequestService;
     }
 
     @ApiOperation(value = "Return all roles grouped in pages")
@@ -71,8 +76,7 @@ public class RoleController {
 
         log.info("Finding all roles on page {} with maximum size {}", page, size);
 
-        var rolesPageDTO = RolePublicResponseDTO.toRolePublicResponseDTO(
-                roleService.getAllRoles(page, size));
+        var rolesPageDTO = roleService.getAllRolesPublic(page, size);
 
         log.info("Returning {} roles on page {}",
                 rolesPageDTO.getContent().size(), rolesPageDTO.getPageable().getPageNumber());
@@ -83,6 +87,7 @@ public class RoleController {
     @ApiOperation(value = "Find a role by ID")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return the role with corresponding ID"),
+            @ApiResponse(code = 304, message = "Role not modified since the ETag or date of the request"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "Role not found"),
             @ApiResponse(code = 500, message = "Server exception"),
@@ -90,15 +95,26 @@ public class RoleController {
     @GetMapping(value = "/{roleId}", produces = "application/json")
     public ResponseEntity<RolePublicResponseDTO> findRoleById(
 
-            @PathVariable @Positive(message = "Role ID must be a positive integer") Integer roleId) {
+            @PathVariable @Positive(message = "Role ID must be a positive integer") Integer roleId,
+
+            WebRequest request) {
 
         log.info("Finding role by ID = {}", roleId);
 
-        var role = roleService.getRoleById(roleId);
+        var roleVersion = roleService.getRoleVersion(roleId);
+        if (request.checkNotModified(conditionalRequestService.toETag(roleVersion.getVersion()),
+                conditionalRequestService.toLastModified(roleVersion.getUpdatedAt()))) {
+
+            log.info("Role of ID = {} not modified", roleId);
+
+            return null;
+        }
+
+        var role = roleService.getRolePublicById(roleId);
 
         log.info("Returning role of ID = {}", roleId);
 
-        return ResponseEntity.ok().body(RolePublicResponseDTO.toRolePublicResponseDTO(role));
+        return ResponseEntity.ok().body(role);
     }
 
     @ApiOperation(value = "Find all roles for a user ID")
@@ -115,11 +131,11 @@ public class RoleController {
 
         log.info("Finding all roles assigned to user ID = {}", userId);
 
-        List<Role> userRoles = roleService.getRolesByUserId(userId);
+        var userRoles = roleService.getRolesPublicByUserId(userId);
 
         log.info("Returning all roles assigned to user ID = {}", userId);
 
-        return ResponseEntity.ok().body(RolePublicResponseDTO.toRolePublicResponseDTO(userRoles));
+        return ResponseEntity.ok().body(userRoles);
     }
 
     @ApiOperation(value = "Add a new role")
@@ -149,6 +165,8 @@ public class RoleController {
             @ApiResponse(code = 201, message = "Role updated"),
             @ApiResponse(code = 400, message = "Invalid Role data provided"),
             @ApiResponse(code = 404, message = "Role not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception")
     })
     @PutMapping(value = "/{roleId}", consumes = "application/json", produces = "application/json")
@@ -156,15 +174,20 @@ public class RoleController {
 
             @PathVariable @Positive(message = "Role ID must be a positive integer") Integer roleId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody RoleRequestDTO roleRequestDTO) {
 
         log.info("Updating role according to request: {}", roleRequestDTO);
 
+        conditionalRequestService.checkIfMatch(ifMatch, () -> roleService.getRoleById(roleId).getVersion());
+
         var updatedRole = roleService.updateRole(roleRequestDTO.toRole(), roleId);
 
         log.info("Returning updated role: {}", updatedRole);
 
-        return ResponseEntity.ok().body(RolePrivateResponseDTO.toRolePrivateResponseDTO(updatedRole));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedRole.getVersion()))
+                .body(RolePrivateResponseDTO.toRolePrivateResponseDTO(updatedRole));
     }
 
     @ApiOperation(value = "Delete an existing role")
@@ -5,14 +5,17 @@ import com.bruno.carlisting.dtos.request.user.UserDisplayNameRequestDTO;
 import com.bruno.carlisting.dtos.request.user.UserPasswordRequestDTO;
 import com.bruno.carlisting.dtos.request.user.UserRequestDTO;
 import com.bruno.carlisting.dtos.request.user.UserRolesRequestDTO;
+import com.bruno.carlisting.dtos.response.BatchItemResponseDTO;
 import com.bruno.carlisting.dtos.response.user.UserPrivateResponseDTO;
 import com.bruno.carlisting.dtos.response.user.UserPublicResponseDTO;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
 import com.bruno.carlisting.services.interfaces.UserService;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -23,15 +26,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @CrossOrigin("*")
 @RestController
@@ -45,22 +52,28 @@ public class UserController {
     private static final int USER_PAGE_MIN_NUMBER = 0;
     private static final int USER_PAGE_MIN_SIZE = 1;
     private static final int USER_PAGE_MAX_SIZE = 10;
+    private static final int USER_CURSOR_MAX_LENGTH = 100;
+    private static final int USER_IDS_MIN_SIZE = 1;
+    private static final int USER_IDS_MAX_SIZE = 100;
 
     private final UserService userService;
+    private final ConditionalRequestService conditionalRequestService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ConditionalRequestService conditionalRequestService) {
         this.userService = userService;
+        this.conditionalRequestService = conditionalRequestService;
     }
 
-    @ApiOperation(value = "Return all users grouped in pages")
+    @ApiOperation(value = "Return all users grouped in pages, or in slices following an after cursor")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return a page of users"),
+            @ApiResponse(code = 400, message = "Invalid cursor provided"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "Page content not found"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @GetMapping(value = "/all", produces = "application/json")
-    public ResponseEntity<Page<UserPublicResponseDTO>> findAllUsers(
+    public ResponseEntity<Slice<UserPublicResponseDTO>> findAllUsers(
 
             @RequestParam(value = "page", required = false, defaultValue = USER_PAGE_DEFAULT_NUMBER)
             @Min(value = USER_PAGE_MIN_NUMBER,
@@ -70,12 +83,26 @@ public class UserController {
             @Min(value = USER_PAGE_MIN_SIZE,
                     message = "Page size must be greater than or equal to " + USER_PAGE_MIN_SIZE)
             @Max(value = USER_PAGE_MAX_SIZE,
-                    message = "Page size must be less than or equal to " + USER_PAGE_MAX_SIZE) int size) {
+                    message = "Page size must be less than or equal to " + USER_PAGE_MAX_SIZE) int size,
+
+            @RequestParam(value = "after", required = false)
+            @Size(max = USER_CURSOR_MAX_LENGTH,
+                    message = "Cursor must have " + USER_CURSOR_MAX_LENGTH + " characters or less") String after) {
+
+        if (after != null) {
+
+            log.info("Finding all users after cursor {} with maximum size {}", after, size);
+
+            var usersSliceDTO = userService.getAllUsersPublicAfter(after, size);
+
+            log.info("Returning {} users after cursor {}", usersSliceDTO.getNumberOfElements(), after);
+
+            return ResponseEntity.ok().body(usersSliceDTO);
+        }
 
         log.info("Finding all users on page {} with maximum size {}", page, size);
 
-        var usersPageDTO = UserPublicResponseDTO.toUsersPagePublicDTO(
-                userService.getAllUsers(page, size));
+        var usersPageDTO = userService.getAllUsersPublic(page, size);
 
         log.info("Returning {} users on page {}",
                 usersPageDTO.getContent().size(), usersPageDTO.getPageable().getPageNumber());
@@ -83,9 +110,36 @@ public class UserController {
         return ResponseEntity.ok().body(usersPageDTO);
     }
 
+    @ApiOperation(value = "Find users by a list of IDs, with a not found result for every missing ID")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Return one result per requested ID, in request order"),
+            @ApiResponse(code = 400, message = "Invalid list of IDs provided"),
+            @ApiResponse(code = 403, message = "Forbidden"),
+            @ApiResponse(code = 500, message = "Server exception"),
+    })
+    @GetMapping(params = "ids", produces = "application/json")
+    public ResponseEntity<List<BatchItemResponseDTO<UserPublicResponseDTO>>> findUsersByIds(
+
+            @RequestParam(value = "ids")
+            @Size(min = USER_IDS_MIN_SIZE, max = USER_IDS_MAX_SIZE,
+                    message = "IDs must have between " + USER_IDS_MIN_SIZE + " and " + USER_IDS_MAX_SIZE +
+                            " elements")
+                    List<@Positive(message = "User ID must be a positive integer") Long> usersIds) {
+
+        log.info("Finding users by IDs = {}", usersIds);
+
+        var usersDTO = userService.getUsersPublicByIds(usersIds);
+
+        log.info("Returning {} of {} requested users",
+                usersDTO.stream().filter(BatchItemResponseDTO::isFound).count(), usersIds.size());
+
+        return ResponseEntity.ok().body(usersDTO);
+    }
+
     @ApiOperation(value = "Find a user by ID")
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "Return the user with corresponding ID"),
+            @ApiResponse(code = 304, message = "User not modified since the ETag or date of the request"),
             @ApiResponse(code = 403, message = "Forbidden"),
             @ApiResponse(code = 404, message = "User not found"),
             @ApiResponse(code = 500, message = "Server exception"),
@@ -93,15 +147,26 @@ public class UserController {
     @GetMapping(value = "/{userId}", produces = "application/json")
     public ResponseEntity<UserPublicResponseDTO> findUserById(
 
-            @PathVariable @Positive(message = "User ID must be a positive integer") Long userId) {
+            @PathVariable @Positive(message = "User ID must be a positive integer") Long userId,
+
+            WebRequest request) {
 
         log.info("Finding user by ID = {}", userId);
 
-        var user = userService.getUserById(userId);
+        var userVersion = userService.getUserVersion(userId);
+        if (request.checkNotModified(conditionalRequestService.toETag(userVersion.getVersion()),
+                conditionalRequestService.toLastModified(userVersion.getUpdatedAt()))) {
+
+            log.info("User of ID = {} not modified", userId);
 
-        log.info("Returning user of ID = {}", user.getUserId());
+            return null;
+        }
 
-        return ResponseEntity.ok().body(UserPublicResponseDTO.toUserPublicDTO(user));
+        var user = userService.getUserPublicById(userId);
+
+        log.info("Returning user of ID = {}", userId);
+
+        return ResponseEntity.ok().body(user);
     }
 
     @ApiOperation(value = "Find a user by a car ID")
@@ -118,11 +183,11 @@ public class UserController {
 
         log.info("Finding user responsible for car ID = {}", carId);
 
-        var user = userService.getUserByCarId(carId);
+        var user = userService.getUserPublicByCarId(carId);
 
-        log.info("Returning user ID = {} who is responsible for car ID = {}", user.getUserId(), carId);
+        log.info("Returning user {} who is responsible for car ID = {}", user.getUsername(), carId);
 
-        return ResponseEntity.ok().body(UserPublicResponseDTO.toUserPublicDTO(user));
+        return ResponseEntity.ok().body(user);
     }
 
     @ApiOperation(value = "Add a new user")
@@ -152,6 +217,8 @@ public class UserController {
             @ApiResponse(code = 201, message = "User updated"),
             @ApiResponse(code = 400, message = "Invalid User data provided"),
             @ApiResponse(code = 404, message = "User not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PutMapping(value = "/{userId}", consumes = "application/json", produces = "application/json")
@@ -159,21 +226,28 @@ public class UserController {
 
             @PathVariable @Positive(message = "User ID must be a positive integer") Long userId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody UserRequestDTO userRequestDTO) {
 
         log.info("Updating user according to request: {}", userRequestDTO);
 
+        conditionalRequestService.checkIfMatch(ifMatch, () -> userService.getUserById(userId).getVersion());
+
         var updatedUser = userService.updateUser(userRequestDTO.toUser(), userRequestDTO.getRolesIds(), userId);
 
         log.info("Returning updated user: {}", updatedUser);
 
-        return ResponseEntity.ok().body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedUser.getVersion()))
+                .body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
     }
 
     @ApiOperation(value = "Update a user's password")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "User's password updated"),
             @ApiResponse(code = 404, message = "User not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PatchMapping(value = "/{userId}/password", consumes = "application/json", produces = "application/json")
@@ -181,21 +255,29 @@ public class UserController {
 
             @PathVariable @Positive(message = "User ID must be a positive integer") Long userId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody UserPasswordRequestDTO userPasswordRequestDTO) {
 
         log.info("Updating user ID = {} password", userId);
 
-        var updatedUser = userService.updateUserPassword(userPasswordRequestDTO.getPassword(), userId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> userService.getUserVersion(userId).getVersion());
+
+        var updatedUser = userService.updateUserPassword(userPasswordRequestDTO.getPassword(), userId, expectedVersion);
 
         log.info("Updated user ID = {} password", updatedUser.getUserId());
 
-        return ResponseEntity.ok().body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedUser.getVersion()))
+                .body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
     }
 
     @ApiOperation(value = "Update a user's display name")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "User's display name updated"),
             @ApiResponse(code = 404, message = "User not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PatchMapping(value = "/{userId}/displayName", consumes = "application/json", produces = "application/json")
@@ -203,21 +285,30 @@ public class UserController {
 
             @PathVariable @Positive(message = "User ID must be a positive integer") Long userId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody UserDisplayNameRequestDTO userDisplayNameRequestDTO) {
 
         log.info("Updating user ID = {} display name to {}", userId, userDisplayNameRequestDTO.getDisplayName());
 
-        var updatedUser = userService.updateUserDisplayName(userDisplayNameRequestDTO.getDisplayName(), userId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> userService.getUserVersion(userId).getVersion());
+
+        var updatedUser = userService.updateUserDisplayName(userDisplayNameRequestDTO.getDisplayName(), userId,
+                expectedVersion);
 
         log.info("Updated user ID = {} display name to {}", updatedUser.getUserId(), updatedUser.getDisplayName());
 
-        return ResponseEntity.ok().body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedUser.getVersion()))
+                .body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
     }
 
     @ApiOperation(value = "Update a user's contact")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "User's contact updated"),
             @ApiResponse(code = 404, message = "User not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PatchMapping(value = "/{userId}/contact", consumes = "application/json", produces = "application/json")
@@ -225,21 +316,29 @@ public class UserController {
 
             @PathVariable @Positive(message = "User ID must be a positive integer") Long userId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody UserContactRequestDTO userContactRequestDTO) {
 
         log.info("Updating user ID = {} contact to {}", userId, userContactRequestDTO.getContact());
 
-        var updatedUser = userService.updateUserContact(userContactRequestDTO.getContact(), userId);
+        var expectedVersion = conditionalRequestService.getExpectedVersion(ifMatch,
+                () -> userService.getUserVersion(userId).getVersion());
+
+        var updatedUser = userService.updateUserContact(userContactRequestDTO.getContact(), userId, expectedVersion);
 
         log.info("Updated user ID = {} contact to {}", updatedUser.getUserId(), updatedUser.getContact());
 
-        return ResponseEntity.ok().body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedUser.getVersion()))
+                .body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
     }
 
     @ApiOperation(value = "Update a user's roles")
     @ApiResponses(value = {
             @ApiResponse(code = 201, message = "User's roles updated"),
             @ApiResponse(code = 404, message = "User not found"),
+            @ApiResponse(code = 409, message = "Modified concurrently by another request"),
+            @ApiResponse(code = 412, message = "If-Match does not match the current version"),
             @ApiResponse(code = 500, message = "Server exception"),
     })
     @PatchMapping(value = "/{userId}/roles", consumes = "application/json", produces = "application/json")
@@ -247,15 +346,20 @@ public class UserController {
 
             @PathVariable @Positive(message = "User ID must be a positive integer") Long userId,
 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+
             @Valid @RequestBody UserRolesRequestDTO userRolesRequestDTO) {
 
         log.info("Updating user ID = {} user roles to {}", userId, userRolesRequestDTO.getRolesIds());
 
+        conditionalRequestService.checkIfMatch(ifMatch, () -> userService.getUserById(userId).getVersion());
+
         var updatedUser = userService.updateUserRoles(userRolesRequestDTO.getRolesIds(), userId);
 
         log.info("Updated user ID = {} user roles to {}", updatedUser.getUserId(), updatedUser.getRoles());
 
-        return ResponseEntity.ok().body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
+        return ResponseEntity.ok().eTag(conditionalRequestService.toETag(updatedUser.getVersion()))
+                .body(UserPrivateResponseDTO.toUserPrivateDTO(updatedUser));
     }
 
     @ApiOperation(value = "Delete an existing user")
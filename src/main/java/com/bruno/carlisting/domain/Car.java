@@ -7,28 +7,40 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+/* The unique constraint also backs make, make/model and make/model/year filters, make/car ID serves the keyset
+   pagination of cars by make */
 @Table(uniqueConstraints={
         @UniqueConstraint(columnNames = {"make", "model", "year", "trim"})
+}, indexes = {
+        @Index(name = "idx_car_fuel_transmission_year", columnList = "fuel, transmission, year"),
+        @Index(name = "idx_car_year", columnList = "year"),
+        @Index(name = "idx_car_make_car_id", columnList = "make, carId")
 })
 @Getter
 @Setter
@@ -80,6 +92,16 @@ public class Car {
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "car")
     private List<Listing> carListings = new ArrayList<>();
 
+    /* Incremented on every write, the version and update time back the ETag and Last-Modified of the car */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Column(columnDefinition = "timestamp default current_timestamp")
+    @Setter(AccessLevel.NONE)
+    private Instant updatedAt;
+
     public Car(String make, String model, Integer year, String trim, String color, String transmission,
                String fuel) {
         this.make = make;
@@ -91,6 +113,13 @@ public class Car {
         this.fuel = fuel;
     }
 
+    /* Also called when the listings of the car change, since they are part of its representation */
+    @PrePersist
+    @PreUpdate
+    public void markUpdated() {
+        this.updatedAt = Instant.now();
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -0,0 +1,67 @@
+package com.bruno.carlisting.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/* Outbox row of the change feed, inserted in the transaction of the write it records.
+   Rows are never updated, consumers read them in sequence order from the last sequence they saw.
+   Sequences are taken at insert and become visible at commit, so they are not committed in order */
+@Entity
+@Table(name = "change_event")
+@Getter
+@NoArgsConstructor
+public class ChangeEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum EntityType {
+        CAR,
+        USER,
+        ROLE,
+        LISTING
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    /* Identity rather than a pooled sequence, so the feed follows insert order */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long changeSeq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ChangeType changeType;
+
+    /* Set by the database on insert, to the start of the writing transaction. Informational only, the feed does not
+       compare it with the sequences other writers took */
+    @Column(nullable = false, insertable = false, updatable = false,
+            columnDefinition = "timestamp default current_timestamp")
+    private Instant changedAt;
+
+    public ChangeEvent(EntityType entityType, Long entityId, ChangeType changeType) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.changeType = changeType;
+    }
+}
@@ -4,22 +4,33 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+/* Radius searches narrow cities down to a bounding box of latitudes and longitudes first */
+@Table(indexes = @Index(name = "idx_city_latitude_longitude", columnList = "latitude, longitude"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,6 +45,15 @@ public class City {
     @Size(min = 2, max = 255, message = "City name must have between 2 and 255 characters")
     private String cityName;
 
+    /* Coordinates of the city center, in decimal degrees */
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90 degrees")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90 degrees")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180 degrees")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180 degrees")
+    private Double longitude;
+
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "city")
     private List<Location> cityLocations = new ArrayList<>();
 
@@ -45,4 +65,11 @@ public class City {
         this.cityName = cityName;
         this.stateOfCity = stateOfCity;
     }
+
+    public City(String cityName, State stateOfCity, Double latitude, Double longitude) {
+        this.cityName = cityName;
+        this.stateOfCity = stateOfCity;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
 }
@@ -6,19 +6,32 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 
 @Entity
+/* Composite indexes backing the price, mileage and car filters of listing searches */
+@Table(indexes = {
+        @Index(name = "idx_listing_price_mileage", columnList = "price, mileage"),
+        @Index(name = "idx_listing_mileage_price", columnList = "mileage, price"),
+        @Index(name = "idx_listing_car_price", columnList = "car_id, price")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -54,6 +67,16 @@ public class Listing {
     @JoinColumn(name = "car_id")
     private Car car;
 
+    /* Optimistic locking of listing updates */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Column(columnDefinition = "timestamp default current_timestamp")
+    @Setter(AccessLevel.NONE)
+    private Instant updatedAt;
+
     public Listing(Integer price, Integer mileage, String description, User user, Car car) {
         this.price = price;
         this.mileage = mileage;
@@ -61,4 +84,10 @@ public class Listing {
         this.user = user;
         this.car = car;
     }
+
+    @PrePersist
+    @PreUpdate
+    public void markUpdated() {
+        this.updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,51 @@
+package com.bruno.carlisting.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/* Listing flattened with its car, user and location names, so a listing card is read from a single row.
+   Rows are only written by the listing view refresh queries of ListingViewRepository */
+@Entity
+@Immutable
+@Table(name = "listing_view")
+@Getter
+@NoArgsConstructor
+public class ListingView {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    private Long listingId;
+
+    private Integer price;
+    private Integer mileage;
+
+    @Column(length = 1000)
+    private String description;
+
+    private Long carId;
+    private String make;
+    private String model;
+    private Integer year;
+    private String trim;
+    private String fuel;
+    private String transmission;
+
+    private Long userId;
+    private String userDisplayName;
+
+    private Integer countryId;
+    private String countryName;
+    private Integer stateId;
+    private String stateName;
+    private Long cityId;
+    private String cityName;
+    private Double latitude;
+    private Double longitude;
+}
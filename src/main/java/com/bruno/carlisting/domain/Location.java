@@ -12,12 +12,22 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
 import javax.persistence.OneToOne;
+import javax.persistence.Table;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
 
 @Entity
+/* Country, country/state and country/state/city filters share the composite index, city alone has its own.
+   Radius searches find the nearby cities first, then read the listings of each city in listing ID order */
+@Table(indexes = {
+        @Index(name = "idx_location_country_state_city", columnList = "country_id, state_id, city_id"),
+        @Index(name = "idx_location_city_listing", columnList = "city_id, listing_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -46,10 +56,21 @@ public class Location {
     @JoinColumn(name = "city_id")
     private City city;
 
+    /* Coordinates of the city center in decimal degrees, copied so listing views need no join with city */
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90 degrees")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90 degrees")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180 degrees")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180 degrees")
+    private Double longitude;
+
     public Location(Listing listing, Country country, State state, City city) {
         this.listing = listing;
         this.country = country;
         this.state = state;
         this.city = city;
+        this.latitude = city == null ? null : city.getLatitude();
+        this.longitude = city == null ? null : city.getLongitude();
     }
 }
@@ -5,22 +5,32 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.ManyToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(uniqueConstraints= {
         @UniqueConstraint(columnNames = {"type"})
 })
@@ -45,10 +55,26 @@ public class Role {
     @OnDelete(action = OnDeleteAction.CASCADE)
     private List<User> users = new ArrayList<>();
 
+    /* Version and update time of the role, checked by conditional requests */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Column(columnDefinition = "timestamp default current_timestamp")
+    @Setter(AccessLevel.NONE)
+    private Instant updatedAt;
+
     public Role(String type) {
         this.type = type;
     }
 
+    @PrePersist
+    @PreUpdate
+    public void markUpdated() {
+        this.updatedAt = Instant.now();
+    }
+
     @Override
     public String toString() {
         return String.format(
@@ -18,10 +18,14 @@ import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
 import javax.persistence.OneToMany;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -72,6 +76,16 @@ public class User {
     inverseJoinColumns = @JoinColumn(name = "role_id"))
     private List<Role> roles = new ArrayList<>();
 
+    /* Version and update time of the user, checked by conditional requests */
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @Setter(AccessLevel.NONE)
+    private Long version;
+
+    @Column(columnDefinition = "timestamp default current_timestamp")
+    @Setter(AccessLevel.NONE)
+    private Instant updatedAt;
+
     public User(String username, String password, String displayName, String contact) {
         this.username = username;
         this.password = password;
@@ -79,6 +93,13 @@ public class User {
         this.contact = contact;
     }
 
+    /* Also called when the listings of the user change */
+    @PrePersist
+    @PreUpdate
+    public void markUpdated() {
+        this.updatedAt = Instant.now();
+    }
+
     @Override
     public String toString() {
         return String.format(
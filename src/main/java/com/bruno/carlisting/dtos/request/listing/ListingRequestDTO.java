@@ -0,0 +1,51 @@
+package com.bruno.carlisting.dtos.request.listing;
+
+import com.bruno.carlisting.domain.Listing;
+import lombok.Getter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+
+@Getter
+public class ListingRequestDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull(message = "Price is mandatory")
+    @Positive(message = "Price must be a positive integer")
+    private Integer price;
+
+    @NotNull(message = "Mileage is mandatory")
+    @Positive(message = "Mileage must be a positive integer")
+    private Integer mileage;
+
+    @NotBlank(message = "Description is mandatory")
+    @Size(min = 10, max = 1000, message = "Description must have between 10 and 1000 characters")
+    private String description;
+
+    @NotNull(message = "Car ID is mandatory")
+    @Positive(message = "Car ID must be a positive integer")
+    private Long carId;
+
+    /* The state and country of the listing location are the ones the city belongs to */
+    @NotNull(message = "City ID is mandatory")
+    @Positive(message = "City ID must be a positive integer")
+    private Long cityId;
+
+    public Listing toListing() {
+        return new Listing(price, mileage, description, null, null);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "\nprice = %s\n" +
+                "mileage = %s\n" +
+                "description = %s\n" +
+                "carId = %s\n" +
+                "cityId = %s\n",
+                this.getPrice(), this.getMileage(), this.getDescription(), this.getCarId(), this.getCityId());
+    }
+}
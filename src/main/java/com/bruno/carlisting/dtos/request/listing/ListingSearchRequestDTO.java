@@ -0,0 +1,95 @@
+package com.bruno.carlisting.dtos.request.listing;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+/* Listing search filters bound from query parameters, every filter is optional */
+@Getter
+@Setter
+public class ListingSearchRequestDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    @PositiveOrZero(message = "Minimum price must be a positive integer or zero")
+    private Integer minPrice;
+
+    @PositiveOrZero(message = "Maximum price must be a positive integer or zero")
+    private Integer maxPrice;
+
+    @PositiveOrZero(message = "Minimum mileage must be a positive integer or zero")
+    private Integer minMileage;
+
+    @PositiveOrZero(message = "Maximum mileage must be a positive integer or zero")
+    private Integer maxMileage;
+
+    @Size(max = 30, message = "Make must have 30 characters or less")
+    private String make;
+
+    @Size(max = 30, message = "Model must have 30 characters or less")
+    private String model;
+
+    @Min(value = 1900, message = "Minimum year must be greater than or equal to 1900")
+    @Max(value = 9999, message = "Minimum year must have 4 digits")
+    private Integer minYear;
+
+    @Min(value = 1900, message = "Maximum year must be greater than or equal to 1900")
+    @Max(value = 9999, message = "Maximum year must have 4 digits")
+    private Integer maxYear;
+
+    @Pattern(regexp = "^(Gasoline|Ethanol|Flex-Fuel|Electricity|Hybrid)$",
+            message = "Fuel must be one of the following: Gasoline, Ethanol, Flex-Fuel, Electricity or Hybrid")
+    private String fuel;
+
+    @Pattern(regexp = "^(AT|MT)$",
+            message = "Transmission must be either AT for automatic transmission or MT for manual transmission")
+    private String transmission;
+
+    @Positive(message = "Country ID must be a positive integer")
+    private Integer countryId;
+
+    @Positive(message = "State ID must be a positive integer")
+    private Integer stateId;
+
+    @Positive(message = "City ID must be a positive integer")
+    private Long cityId;
+
+    @AssertTrue(message = "Minimum price must be less than or equal to maximum price")
+    public boolean isPriceRangeValid() {
+        return minPrice == null || maxPrice == null || minPrice <= maxPrice;
+    }
+
+    @AssertTrue(message = "Minimum mileage must be less than or equal to maximum mileage")
+    public boolean isMileageRangeValid() {
+        return minMileage == null || maxMileage == null || minMileage <= maxMileage;
+    }
+
+    @AssertTrue(message = "Minimum year must be less than or equal to maximum year")
+    public boolean isYearRangeValid() {
+        return minYear == null || maxYear == null || minYear <= maxYear;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "\nprice = %s - %s\n" +
+                "mileage = %s - %s\n" +
+                "make = %s\n" +
+                "model = %s\n" +
+                "year = %s - %s\n" +
+                "fuel = %s\n" +
+                "transmission = %s\n" +
+                "countryId = %s\n" +
+                "stateId = %s\n" +
+                "cityId = %s\n",
+                minPrice, maxPrice, minMileage, maxMileage, make, model, minYear, maxYear, fuel, transmission,
+                countryId, stateId, cityId);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bruno.carlisting.dtos.response;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/* Result for one requested ID of a batch lookup, either the item found or the reason it was not */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class BatchItemResponseDTO<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private boolean found;
+    private T item;
+    private String message;
+
+    public static <T> BatchItemResponseDTO<T> found(Long id, T item) {
+        return new BatchItemResponseDTO<>(id, true, item, null);
+    }
+
+    public static <T> BatchItemResponseDTO<T> notFound(Long id, String message) {
+        return new BatchItemResponseDTO<>(id, false, null, message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.bruno.carlisting.dtos.response;
+
+import lombok.Getter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/* Slice of results in cursor mode, carrying the opaque token to request the following slice */
+@Getter
+public class CursorSliceResponseDTO<T> extends SliceImpl<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String nextCursor;
+
+    public CursorSliceResponseDTO(List<T> content, Pageable pageable, boolean hasNext, String nextCursor) {
+        super(content, pageable, hasNext);
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.bruno.carlisting.dtos.response;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    /* One JSON object per line */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /* A header line with the column names, then one line per row */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    ExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    public static ExportFormat fromParameter(String format) {
+        return valueOf(format.toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,17 @@
+package com.bruno.carlisting.dtos.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+/* Number of entries per value of each facet, with the total number of entries counted */
+@AllArgsConstructor
+@Getter
+public class FacetsResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+    private Map<String, Map<String, Long>> facets;
+}
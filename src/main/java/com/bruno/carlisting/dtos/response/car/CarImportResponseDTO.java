@@ -0,0 +1,46 @@
+package com.bruno.carlisting.dtos.response.car;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/* Counts every row by status, only failed rows are listed and at most maxFailedRows of them */
+@Getter
+public class CarImportResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private long totalRows;
+    private long createdRows;
+    private long failedRows;
+
+    private final Map<CarImportStatus, Long> rowsByStatus = new EnumMap<>(CarImportStatus.class);
+    private final List<CarImportRowResponseDTO> failures = new ArrayList<>();
+    private boolean failuresTruncated;
+
+    @JsonIgnore
+    private final int maxFailedRows;
+
+    public CarImportResponseDTO(int maxFailedRows) {
+        this.maxFailedRows = maxFailedRows;
+    }
+
+    public void addRow(CarImportRowResponseDTO row) {
+        totalRows++;
+        rowsByStatus.merge(row.getStatus(), 1L, Long::sum);
+        if (row.getStatus() == CarImportStatus.CREATED) {
+            createdRows++;
+            return;
+        }
+        failedRows++;
+        if (failures.size() < maxFailedRows) {
+            failures.add(row);
+        } else {
+            failuresTruncated = true;
+        }
+    }
+}
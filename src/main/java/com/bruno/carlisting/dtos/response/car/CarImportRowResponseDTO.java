@@ -0,0 +1,16 @@
+package com.bruno.carlisting.dtos.response.car;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class CarImportRowResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    /* Position of the car in the imported body, starting at 1 */
+    private long row;
+    private CarImportStatus status;
+    private String message;
+}
@@ -0,0 +1,9 @@
+package com.bruno.carlisting.dtos.response.car;
+
+public enum CarImportStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    USER_NOT_FOUND,
+    MALFORMED
+}
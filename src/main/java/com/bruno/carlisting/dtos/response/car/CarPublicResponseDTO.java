@@ -1,14 +1,18 @@
 package com.bruno.carlisting.dtos.response.car;
 
 import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.repositories.projections.CarProjection;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 @Getter
@@ -44,6 +48,28 @@ public class CarPublicResponseDTO {
         return new PageImpl<>(carsListDTO, carsPage.getPageable(), carsPage.getTotalElements());
     }
 
+    public static CarPublicResponseDTO fromProjection(CarProjection car, List<Long> carListingsIds) {
+        return new CarPublicResponseDTO(car.getCarId(), car.getMake(), car.getModel(), car.getYear(),
+                car.getTrim(), car.getColor(), car.getTransmission(), car.getFuel(), carListingsIds);
+    }
+
+    public static Page<CarPublicResponseDTO> fromProjection(Page<CarProjection> carsPage,
+                                                            Map<Long, List<Long>> carsListingsIds) {
+        List<CarPublicResponseDTO> carsListDTO = new ArrayList<>();
+        carsPage.forEach(car -> carsListDTO.add(
+                fromProjection(car, carsListingsIds.getOrDefault(car.getCarId(), new ArrayList<>()))));
+        return new PageImpl<>(carsListDTO, carsPage.getPageable(), carsPage.getTotalElements());
+    }
+
+    public static CursorSliceResponseDTO<CarPublicResponseDTO> fromProjection(Slice<CarProjection> carsSlice,
+                                                                              Map<Long, List<Long>> carsListingsIds,
+                                                                              String nextCursor) {
+        List<CarPublicResponseDTO> carsListDTO = new ArrayList<>();
+        carsSlice.forEach(car -> carsListDTO.add(
+                fromProjection(car, carsListingsIds.getOrDefault(car.getCarId(), new ArrayList<>()))));
+        return new CursorSliceResponseDTO<>(carsListDTO, carsSlice.getPageable(), carsSlice.hasNext(), nextCursor);
+    }
+
     protected static List<Long> getCarListingsIds(Car car) {
         List<Long> carListingsIds = new ArrayList<>();
         car.getCarListings().forEach(listing -> carListingsIds.add(listing.getListingId()));
@@ -0,0 +1,26 @@
+package com.bruno.carlisting.dtos.response.change;
+
+import com.bruno.carlisting.domain.ChangeEvent;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class ChangeEventResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long changeSeq;
+    private ChangeEvent.EntityType entityType;
+    private Long entityId;
+    private ChangeEvent.ChangeType changeType;
+    private Instant changedAt;
+
+    public static ChangeEventResponseDTO toChangeEventResponseDTO(ChangeEvent changeEvent) {
+        return new ChangeEventResponseDTO(changeEvent.getChangeSeq(), changeEvent.getEntityType(),
+                changeEvent.getEntityId(), changeEvent.getChangeType(), changeEvent.getChangedAt());
+    }
+}
@@ -0,0 +1,31 @@
+package com.bruno.carlisting.dtos.response.change;
+
+import com.bruno.carlisting.domain.ChangeEvent;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/* Changes after a sequence, with the sequence to ask for next. It stays the requested one when nothing can be served */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Getter
+public class ChangeFeedResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<ChangeEventResponseDTO> changes;
+    private Long nextSince;
+    private boolean hasMore;
+
+    public static ChangeFeedResponseDTO fromChanges(List<ChangeEvent> changeEvents, Long since, boolean hasMore) {
+
+        var changes = changeEvents.stream()
+                .map(ChangeEventResponseDTO::toChangeEventResponseDTO)
+                .collect(Collectors.toList());
+        var nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getChangeSeq();
+
+        return new ChangeFeedResponseDTO(changes, nextSince, hasMore);
+    }
+}
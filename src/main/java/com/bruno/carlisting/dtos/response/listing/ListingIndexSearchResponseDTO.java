@@ -0,0 +1,19 @@
+package com.bruno.carlisting.dtos.response.listing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/* Listing IDs matching a search of the listing index, with the number of matches per value of every facet */
+@AllArgsConstructor
+@Getter
+public class ListingIndexSearchResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private long totalMatches;
+    private List<Long> listingsIds;
+    private Map<String, Map<String, Integer>> facets;
+}
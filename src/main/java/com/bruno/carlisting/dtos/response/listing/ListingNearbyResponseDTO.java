@@ -0,0 +1,15 @@
+package com.bruno.carlisting.dtos.response.listing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/* Listing found by a radius search, with its great-circle distance from the search center */
+@AllArgsConstructor
+@Getter
+public class ListingNearbyResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private double distanceKm;
+    private ListingPublicResponseDTO listing;
+}
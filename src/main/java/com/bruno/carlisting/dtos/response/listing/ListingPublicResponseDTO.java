@@ -0,0 +1,78 @@
+package com.bruno.carlisting.dtos.response.listing;
+
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.domain.ListingView;
+import com.bruno.carlisting.domain.Location;
+import com.bruno.carlisting.repositories.projections.LocationIdsProjection;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+public class ListingPublicResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long listingId;
+    private Integer price;
+    private Integer mileage;
+    private String description;
+
+    private Long carId;
+    private String make;
+    private String model;
+    private Integer year;
+    private String trim;
+    private String fuel;
+    private String transmission;
+
+    private Integer countryId;
+    private Integer stateId;
+    private Long cityId;
+
+    /* Sent as the ETag header, not in the body. Listing view rows carry no version */
+    @JsonIgnore
+    private Long version;
+
+    public static ListingPublicResponseDTO toListingPublicDTO(Listing listing, LocationIdsProjection location) {
+        var car = listing.getCar();
+        return new ListingPublicResponseDTO(listing.getListingId(), listing.getPrice(), listing.getMileage(),
+                listing.getDescription(), car.getCarId(), car.getMake(), car.getModel(), car.getYear(), car.getTrim(),
+                car.getFuel(), car.getTransmission(), location == null ? null : location.getCountryId(),
+                location == null ? null : location.getStateId(), location == null ? null : location.getCityId(),
+                listing.getVersion());
+    }
+
+    public static ListingPublicResponseDTO toListingPublicDTO(Listing listing, Location location) {
+        var car = listing.getCar();
+        return new ListingPublicResponseDTO(listing.getListingId(), listing.getPrice(), listing.getMileage(),
+                listing.getDescription(), car.getCarId(), car.getMake(), car.getModel(), car.getYear(), car.getTrim(),
+                car.getFuel(), car.getTransmission(), location == null ? null : location.getCountry().getCountryId(),
+                location == null ? null : location.getState().getStateId(),
+                location == null ? null : location.getCity().getCityId(), listing.getVersion());
+    }
+
+    public static ListingPublicResponseDTO toListingPublicDTO(ListingView listingView) {
+        return new ListingPublicResponseDTO(listingView.getListingId(), listingView.getPrice(),
+                listingView.getMileage(), listingView.getDescription(), listingView.getCarId(), listingView.getMake(),
+                listingView.getModel(), listingView.getYear(), listingView.getTrim(), listingView.getFuel(),
+                listingView.getTransmission(), listingView.getCountryId(), listingView.getStateId(),
+                listingView.getCityId(), null);
+    }
+
+    public static Page<ListingPublicResponseDTO> toListingPublicDTO(Page<Listing> listingsPage,
+                                                                    Map<Long, LocationIdsProjection> locations) {
+        List<ListingPublicResponseDTO> listingsListDTO = new ArrayList<>();
+        listingsPage.forEach(listing -> listingsListDTO.add(
+                toListingPublicDTO(listing, locations.get(listing.getListingId()))));
+        return new PageImpl<>(listingsListDTO, listingsPage.getPageable(), listingsPage.getTotalElements());
+    }
+}
@@ -0,0 +1,49 @@
+package com.bruno.carlisting.dtos.response.listing;
+
+import com.bruno.carlisting.domain.ListingView;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/* Everything a listing card shows, read from a single listing view row */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@Getter
+public class ListingViewResponseDTO {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long listingId;
+    private Integer price;
+    private Integer mileage;
+    private String description;
+
+    private Long carId;
+    private String make;
+    private String model;
+    private Integer year;
+    private String trim;
+    private String fuel;
+    private String transmission;
+
+    private Long userId;
+    private String userDisplayName;
+
+    private Integer countryId;
+    private String countryName;
+    private Integer stateId;
+    private String stateName;
+    private Long cityId;
+    private String cityName;
+    private Double latitude;
+    private Double longitude;
+
+    public static ListingViewResponseDTO toListingViewDTO(ListingView listingView) {
+        return new ListingViewResponseDTO(listingView.getListingId(), listingView.getPrice(),
+                listingView.getMileage(), listingView.getDescription(), listingView.getCarId(), listingView.getMake(),
+                listingView.getModel(), listingView.getYear(), listingView.getTrim(), listingView.getFuel(),
+                listingView.getTransmission(), listingView.getUserId(), listingView.getUserDisplayName(),
+                listingView.getCountryId(), listingView.getCountryName(), listingView.getStateId(),
+                listingView.getStateName(), listingView.getCityId(), listingView.getCityName(),
+                listingView.getLatitude(), listingView.getLongitude());
+    }
+}
@@ -1,6 +1,7 @@
 package com.bruno.carlisting.dtos.response.role;
 
 import com.bruno.carlisting.domain.Role;
+import com.bruno.carlisting.repositories.projections.RoleProjection;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -39,4 +40,20 @@ public class RolePublicResponseDTO {
         });
         return rolesListDTO;
     }
+
+    public static RolePublicResponseDTO fromProjection(RoleProjection role) {
+        return new RolePublicResponseDTO(role.getType());
+    }
+
+    public static Page<RolePublicResponseDTO> fromProjection(Page<RoleProjection> rolesPage) {
+        List<RolePublicResponseDTO> rolesListDTO = new ArrayList<>();
+        rolesPage.forEach(role -> rolesListDTO.add(fromProjection(role)));
+        return new PageImpl<>(rolesListDTO, rolesPage.getPageable(), rolesPage.getTotalElements());
+    }
+
+    public static List<RolePublicResponseDTO> fromProjection(List<RoleProjection> rolesList) {
+        List<RolePublicResponseDTO> rolesListDTO = new ArrayList<>();
+        rolesList.forEach(role -> rolesListDTO.add(fromProjection(role)));
+        return rolesListDTO;
+    }
 }
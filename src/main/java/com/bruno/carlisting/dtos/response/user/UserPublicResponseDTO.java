@@ -1,14 +1,18 @@
 package com.bruno.carlisting.dtos.response.user;
 
 import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.repositories.projections.UserProjection;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @AllArgsConstructor(access = AccessLevel.PACKAGE)
 @Getter
@@ -39,6 +43,33 @@ public class UserPublicResponseDTO {
         return new PageImpl<>(usersListDTO, usersPage.getPageable(), usersPage.getTotalElements());
     }
 
+    public static UserPublicResponseDTO fromProjection(UserProjection user, List<Long> userListingsIds,
+                                                       List<Integer> rolesIds) {
+        return new UserPublicResponseDTO(user.getUsername(), user.getDisplayName(), user.getContact(),
+                userListingsIds, rolesIds);
+    }
+
+    public static Page<UserPublicResponseDTO> fromProjection(Page<UserProjection> usersPage,
+                                                             Map<Long, List<Long>> usersListingsIds,
+                                                             Map<Long, List<Integer>> usersRolesIds) {
+        List<UserPublicResponseDTO> usersListDTO = new ArrayList<>();
+        usersPage.forEach(user -> usersListDTO.add(fromProjection(user,
+                usersListingsIds.getOrDefault(user.getUserId(), new ArrayList<>()),
+                usersRolesIds.getOrDefault(user.getUserId(), new ArrayList<>()))));
+        return new PageImpl<>(usersListDTO, usersPage.getPageable(), usersPage.getTotalElements());
+    }
+
+    public static CursorSliceResponseDTO<UserPublicResponseDTO> fromProjection(Slice<UserProjection> usersSlice,
+                                                                               Map<Long, List<Long>> usersListingsIds,
+                                                                               Map<Long, List<Integer>> usersRolesIds,
+                                                                               String nextCursor) {
+        List<UserPublicResponseDTO> usersListDTO = new ArrayList<>();
+        usersSlice.forEach(user -> usersListDTO.add(fromProjection(user,
+                usersListingsIds.getOrDefault(user.getUserId(), new ArrayList<>()),
+                usersRolesIds.getOrDefault(user.getUserId(), new ArrayList<>()))));
+        return new CursorSliceResponseDTO<>(usersListDTO, usersSlice.getPageable(), usersSlice.hasNext(), nextCursor);
+    }
+
     protected static List<Long> getUserListingsIds(User user) {
         List<Long> userListingsIds = new ArrayList<>();
         user.getUserListings().forEach(userListing -> userListingsIds.add(userListing.getListingId()));
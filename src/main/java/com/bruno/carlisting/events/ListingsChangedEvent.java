@@ -0,0 +1,26 @@
+package com.bruno.carlisting.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/* Published by the services after listings, or the cars and users they belong to, are written */
+@AllArgsConstructor
+@Getter
+public class ListingsChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final List<Long> listingsIds;
+    private final ChangeType changeType;
+
+    @Override
+    public String toString() {
+        return String.format("changeType = %s, listingsIds = %s", changeType, listingsIds);
+    }
+}
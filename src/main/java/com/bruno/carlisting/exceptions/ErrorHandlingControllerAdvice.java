@@ -2,7 +2,10 @@ package com.bruno.carlisting.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -49,6 +52,22 @@ public class ErrorHandlingControllerAdvice {
         return error;
     }
 
+    @ExceptionHandler(BindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    ValidationErrorResponse onBindException(BindException e) {
+        var error = new ValidationErrorResponse();
+        for (ObjectError objectError : e.getBindingResult().getAllErrors()) {
+            var fieldError = objectError instanceof FieldError ? (FieldError) objectError : null;
+            error.getViolations().add(new Violation(formatter.format(LocalDateTime.now()),
+                    HttpStatus.BAD_REQUEST.value(), objectError.getClass().getName(), objectError.getObjectName(),
+                    fieldError == null ? null : fieldError.getField(),
+                    fieldError == null ? null : fieldError.getRejectedValue(), objectError.getDefaultMessage()));
+        }
+        log.warn("Bind exception occurred:", e);
+        return error;
+    }
+
     @ExceptionHandler(ObjectNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ResponseBody
@@ -66,4 +85,41 @@ public class ErrorHandlingControllerAdvice {
         return new StandardErrorResponse(formatter.format(LocalDateTime.now()),
                 HttpStatus.BAD_REQUEST.value(), e.getClass().getName(), e.getMessage());
     }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    @ResponseBody
+    StandardErrorResponse onPreconditionFailedException(PreconditionFailedException e) {
+        log.warn("Precondition failed exception occurred:", e);
+        return new StandardErrorResponse(formatter.format(LocalDateTime.now()),
+                HttpStatus.PRECONDITION_FAILED.value(), e.getClass().getName(), e.getMessage());
+    }
+
+    /* Another request wrote the same entity between this one reading and writing it */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ResponseBody
+    StandardErrorResponse onObjectOptimisticLockingFailureException(ObjectOptimisticLockingFailureException e) {
+        log.warn("Optimistic locking failure exception occurred:", e);
+        return new StandardErrorResponse(formatter.format(LocalDateTime.now()),
+                HttpStatus.CONFLICT.value(), e.getClass().getName(), e.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    StandardErrorResponse onInvalidCursorException(InvalidCursorException e) {
+        log.warn("Invalid cursor exception occurred:", e);
+        return new StandardErrorResponse(formatter.format(LocalDateTime.now()),
+                HttpStatus.BAD_REQUEST.value(), e.getClass().getName(), e.getMessage());
+    }
+
+    @ExceptionHandler(SubscriptionLimitException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    StandardErrorResponse onSubscriptionLimitException(SubscriptionLimitException e) {
+        log.warn("Subscription limit exception occurred:", e);
+        return new StandardErrorResponse(formatter.format(LocalDateTime.now()),
+                HttpStatus.SERVICE_UNAVAILABLE.value(), e.getClass().getName(), e.getMessage());
+    }
 }
@@ -0,0 +1,18 @@
+package com.bruno.carlisting.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.bruno.carlisting.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class SubscriptionLimitException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public SubscriptionLimitException(String message) {
+        super(message);
+    }
+}
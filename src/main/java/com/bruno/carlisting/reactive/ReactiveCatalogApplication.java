@@ -0,0 +1,66 @@
+package com.bruno.carlisting.reactive;
+
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.exceptions.StandardErrorResponse;
+import com.bruno.carlisting.reactive.handlers.CarHandler;
+import com.bruno.carlisting.reactive.handlers.RoleHandler;
+import com.bruno.carlisting.reactive.handlers.UserHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/* Reactive read API for cars, users and roles, run on Netty by ReactiveCatalogConfig in a context of its own.
+   It has no stereotype, so the component scan of CarlistingApplication passes it by */
+@EnableAutoConfiguration(exclude = {DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@Import({CarHandler.class, UserHandler.class, RoleHandler.class})
+@Slf4j
+public class ReactiveCatalogApplication {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+
+    /* Tomcat is on the classpath for the servlet API and would otherwise be picked */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> catalogRoutes(CarHandler carHandler, UserHandler userHandler,
+                                                        RoleHandler roleHandler) {
+        return RouterFunctions.route()
+                .GET("/cars/all", carHandler::findAllCars)
+                .GET("/cars/make/{make}", carHandler::findCarsByMake)
+                .GET("/cars/users/{userId}", carHandler::findCarsByUserId)
+                .GET("/cars/{carId}", carHandler::findCarById)
+                .GET("/users/all", userHandler::findAllUsers)
+                .GET("/users/{userId}", userHandler::findUserById)
+                .GET("/roles/all", roleHandler::findAllRoles)
+                .GET("/roles/users/{userId}", roleHandler::findRolesByUserId)
+                .GET("/roles/{roleId}", roleHandler::findRoleById)
+                .onError(ObjectNotFoundException.class, (e, request) -> errorResponse(HttpStatus.NOT_FOUND, e))
+                .onError(NumberFormatException.class, (e, request) -> errorResponse(HttpStatus.BAD_REQUEST, e))
+                .build();
+    }
+
+    private static Mono<ServerResponse> errorResponse(HttpStatus status, Throwable e) {
+
+        log.warn("{} occurred:", e.getClass().getSimpleName(), e);
+
+        return ServerResponse.status(status).bodyValue(new StandardErrorResponse(
+                FORMATTER.format(LocalDateTime.now()), status.value(), e.getClass().getName(), e.getMessage()));
+    }
+}
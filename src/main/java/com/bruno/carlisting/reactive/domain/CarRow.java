@@ -0,0 +1,33 @@
+package com.bruno.carlisting.reactive.domain;
+
+import com.bruno.carlisting.repositories.projections.CarProjection;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/* Read-only R2DBC mapping of the car table, the servlet API owns the writes */
+@Table("car")
+@Getter
+@NoArgsConstructor
+public class CarRow implements CarProjection {
+
+    @Id
+    private Long carId;
+
+    private String make;
+
+    private String model;
+
+    private Integer year;
+
+    private String trim;
+
+    private String color;
+
+    private String transmission;
+
+    private String fuel;
+
+    private Long userId;
+}
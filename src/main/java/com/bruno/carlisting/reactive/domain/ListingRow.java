@@ -0,0 +1,20 @@
+package com.bruno.carlisting.reactive.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/* Only the keys of a listing, which car and user responses list */
+@Table("listing")
+@Getter
+@NoArgsConstructor
+public class ListingRow {
+
+    @Id
+    private Long listingId;
+
+    private Long carId;
+
+    private Long userId;
+}
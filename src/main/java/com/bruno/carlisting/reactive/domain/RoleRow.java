@@ -0,0 +1,18 @@
+package com.bruno.carlisting.reactive.domain;
+
+import com.bruno.carlisting.repositories.projections.RoleProjection;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("role")
+@Getter
+@NoArgsConstructor
+public class RoleRow implements RoleProjection {
+
+    @Id
+    private Integer roleId;
+
+    private String type;
+}
@@ -0,0 +1,15 @@
+package com.bruno.carlisting.reactive.domain;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("user_roles")
+@Getter
+@NoArgsConstructor
+public class UserRoleRow {
+
+    private Long userId;
+
+    private Integer roleId;
+}
@@ -0,0 +1,23 @@
+package com.bruno.carlisting.reactive.domain;
+
+import com.bruno.carlisting.repositories.projections.UserProjection;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/* Read-only R2DBC mapping of the users table, the password is left unmapped */
+@Table("users")
+@Getter
+@NoArgsConstructor
+public class UserRow implements UserProjection {
+
+    @Id
+    private Long userId;
+
+    private String username;
+
+    private String displayName;
+
+    private String contact;
+}
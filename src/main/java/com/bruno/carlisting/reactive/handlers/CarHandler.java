@@ -0,0 +1,93 @@
+package com.bruno.carlisting.reactive.handlers;
+
+import com.bruno.carlisting.dtos.response.car.CarPublicResponseDTO;
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.reactive.domain.CarRow;
+import com.bruno.carlisting.reactive.domain.ListingRow;
+import com.bruno.carlisting.reactive.repositories.ReactiveCarRepository;
+import com.bruno.carlisting.reactive.repositories.ReactiveListingRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.services.implementations.CarServiceImpl.CAR_ID_NOT_FOUND;
+
+/* Streams cars as the driver reads them, the listing IDs of each batch of cars come from a single query */
+@Slf4j
+public class CarHandler {
+
+    private static final String CAR_ID_PROPERTY = "carId";
+
+    private final ReactiveCarRepository carRepository;
+    private final ReactiveListingRepository listingRepository;
+    private final int batchSize;
+
+    public CarHandler(ReactiveCarRepository carRepository, ReactiveListingRepository listingRepository,
+                      @Value("${reactive-catalog.batch-size}") int batchSize) {
+        this.carRepository = carRepository;
+        this.listingRepository = listingRepository;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<ServerResponse> findAllCars(ServerRequest request) {
+
+        log.info("Streaming all cars");
+
+        return streamCars(request, carRepository.findAll(Sort.by(CAR_ID_PROPERTY)));
+    }
+
+    public Mono<ServerResponse> findCarsByMake(ServerRequest request) {
+
+        var make = request.pathVariable("make");
+
+        log.info("Streaming cars of make {}", make);
+
+        return streamCars(request, carRepository.findByMakeOrderByCarIdAsc(make));
+    }
+
+    public Mono<ServerResponse> findCarsByUserId(ServerRequest request) {
+
+        var userId = Long.valueOf(request.pathVariable("userId"));
+
+        log.info("Streaming cars of user ID {}", userId);
+
+        return streamCars(request, carRepository.findByUserIdOrderByCarIdAsc(userId));
+    }
+
+    public Mono<ServerResponse> findCarById(ServerRequest request) {
+
+        var carId = Long.valueOf(request.pathVariable("carId"));
+
+        log.info("Finding car by ID {}", carId);
+
+        return carRepository.findById(carId)
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException(String.format(CAR_ID_NOT_FOUND, carId))))
+                .flatMapMany(car -> withListingsIds(List.of(car)))
+                .single()
+                .flatMap(carDTO -> ServerResponse.ok().bodyValue(carDTO));
+    }
+
+    private Mono<ServerResponse> streamCars(ServerRequest request, Flux<CarRow> cars) {
+        return StreamingResponses.stream(request,
+                cars.buffer(batchSize).concatMap(this::withListingsIds), CarPublicResponseDTO.class);
+    }
+
+    private Flux<CarPublicResponseDTO> withListingsIds(List<CarRow> cars) {
+
+        var carsIds = cars.stream().map(CarRow::getCarId).collect(Collectors.toList());
+
+        return listingRepository.findByCarIdInOrderByListingIdAsc(carsIds)
+                .collect(Collectors.groupingBy(ListingRow::getCarId,
+                        Collectors.mapping(ListingRow::getListingId, Collectors.toList())))
+                .flatMapMany(carsListingsIds -> Flux.fromIterable(cars).map(car -> CarPublicResponseDTO.fromProjection(
+                        car, carsListingsIds.getOrDefault(car.getCarId(), new ArrayList<>()))));
+    }
+}
@@ -0,0 +1,55 @@
+package com.bruno.carlisting.reactive.handlers;
+
+import com.bruno.carlisting.dtos.response.role.RolePublicResponseDTO;
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.reactive.repositories.ReactiveRoleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.bruno.carlisting.services.implementations.RoleServiceImpl.ROLE_ID_NOT_FOUND;
+
+@Slf4j
+public class RoleHandler {
+
+    private static final String ROLE_ID_PROPERTY = "roleId";
+
+    private final ReactiveRoleRepository roleRepository;
+
+    public RoleHandler(ReactiveRoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    public Mono<ServerResponse> findAllRoles(ServerRequest request) {
+
+        log.info("Streaming all roles");
+
+        return StreamingResponses.stream(request,
+                roleRepository.findAll(Sort.by(ROLE_ID_PROPERTY)).map(RolePublicResponseDTO::fromProjection),
+                RolePublicResponseDTO.class);
+    }
+
+    public Mono<ServerResponse> findRoleById(ServerRequest request) {
+
+        var roleId = Integer.valueOf(request.pathVariable("roleId"));
+
+        log.info("Finding role by ID {}", roleId);
+
+        return roleRepository.findById(roleId)
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException(String.format(ROLE_ID_NOT_FOUND, roleId))))
+                .flatMap(role -> ServerResponse.ok().bodyValue(RolePublicResponseDTO.fromProjection(role)));
+    }
+
+    public Mono<ServerResponse> findRolesByUserId(ServerRequest request) {
+
+        var userId = Long.valueOf(request.pathVariable("userId"));
+
+        log.info("Streaming roles of user ID {}", userId);
+
+        return StreamingResponses.stream(request,
+                roleRepository.findByUserId(userId).map(RolePublicResponseDTO::fromProjection),
+                RolePublicResponseDTO.class);
+    }
+}
@@ -0,0 +1,25 @@
+package com.bruno.carlisting.reactive.handlers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+final class StreamingResponses {
+
+    private StreamingResponses() {
+    }
+
+    /* Newline delimited JSON is written and flushed element by element as demand allows, a plain JSON array only
+       when the client asks for application/json and not for application/x-ndjson */
+    static <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> body, Class<T> elementClass) {
+
+        var accept = request.headers().accept();
+        var contentType = accept.contains(MediaType.APPLICATION_JSON) && !accept.contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_JSON
+                : MediaType.APPLICATION_NDJSON;
+
+        return ServerResponse.ok().contentType(contentType).body(body, elementClass);
+    }
+}
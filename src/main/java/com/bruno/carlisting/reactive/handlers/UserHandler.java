@@ -0,0 +1,79 @@
+package com.bruno.carlisting.reactive.handlers;
+
+import com.bruno.carlisting.dtos.response.user.UserPublicResponseDTO;
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.reactive.domain.ListingRow;
+import com.bruno.carlisting.reactive.domain.UserRoleRow;
+import com.bruno.carlisting.reactive.domain.UserRow;
+import com.bruno.carlisting.reactive.repositories.ReactiveListingRepository;
+import com.bruno.carlisting.reactive.repositories.ReactiveUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.services.implementations.UserServiceImpl.USER_ID_NOT_FOUND;
+
+/* Streams users as the driver reads them, the listing and role IDs of each batch of users come from one query each */
+@Slf4j
+public class UserHandler {
+
+    private static final String USER_ID_PROPERTY = "userId";
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveListingRepository listingRepository;
+    private final int batchSize;
+
+    public UserHandler(ReactiveUserRepository userRepository, ReactiveListingRepository listingRepository,
+                       @Value("${reactive-catalog.batch-size}") int batchSize) {
+        this.userRepository = userRepository;
+        this.listingRepository = listingRepository;
+        this.batchSize = batchSize;
+    }
+
+    public Mono<ServerResponse> findAllUsers(ServerRequest request) {
+
+        log.info("Streaming all users");
+
+        return StreamingResponses.stream(request,
+                userRepository.findAll(Sort.by(USER_ID_PROPERTY)).buffer(batchSize).concatMap(this::withRelatedIds),
+                UserPublicResponseDTO.class);
+    }
+
+    public Mono<ServerResponse> findUserById(ServerRequest request) {
+
+        var userId = Long.valueOf(request.pathVariable("userId"));
+
+        log.info("Finding user by ID {}", userId);
+
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException(String.format(USER_ID_NOT_FOUND, userId))))
+                .flatMapMany(user -> withRelatedIds(List.of(user)))
+                .single()
+                .flatMap(userDTO -> ServerResponse.ok().bodyValue(userDTO));
+    }
+
+    private Flux<UserPublicResponseDTO> withRelatedIds(List<UserRow> users) {
+
+        var usersIds = users.stream().map(UserRow::getUserId).collect(Collectors.toList());
+
+        var usersListingsIds = listingRepository.findByUserIdInOrderByListingIdAsc(usersIds)
+                .collect(Collectors.groupingBy(ListingRow::getUserId,
+                        Collectors.mapping(ListingRow::getListingId, Collectors.toList())));
+        var usersRolesIds = userRepository.findRolesIdsByUserIds(usersIds)
+                .collect(Collectors.groupingBy(UserRoleRow::getUserId,
+                        Collectors.mapping(UserRoleRow::getRoleId, Collectors.toList())));
+
+        return Mono.zip(usersListingsIds, usersRolesIds)
+                .flatMapMany(ids -> Flux.fromIterable(users).map(user -> UserPublicResponseDTO.fromProjection(user,
+                        ids.getT1().getOrDefault(user.getUserId(), new ArrayList<>()),
+                        ids.getT2().getOrDefault(user.getUserId(), new ArrayList<>()))));
+    }
+}
@@ -0,0 +1,15 @@
+package com.bruno.carlisting.reactive.repositories;
+
+import com.bruno.carlisting.reactive.domain.CarRow;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/* Reactive counterpart of the car reads of CarRepository, rows are emitted as the driver fetches them */
+@Repository
+public interface ReactiveCarRepository extends ReactiveSortingRepository<CarRow, Long> {
+
+    Flux<CarRow> findByMakeOrderByCarIdAsc(String make);
+
+    Flux<CarRow> findByUserIdOrderByCarIdAsc(Long userId);
+}
@@ -0,0 +1,16 @@
+package com.bruno.carlisting.reactive.repositories;
+
+import com.bruno.carlisting.reactive.domain.ListingRow;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveListingRepository extends ReactiveCrudRepository<ListingRow, Long> {
+
+    Flux<ListingRow> findByCarIdInOrderByListingIdAsc(Collection<Long> carIds);
+
+    Flux<ListingRow> findByUserIdInOrderByListingIdAsc(Collection<Long> userIds);
+}
@@ -0,0 +1,16 @@
+package com.bruno.carlisting.reactive.repositories;
+
+import com.bruno.carlisting.reactive.domain.RoleRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveRoleRepository extends ReactiveSortingRepository<RoleRow, Integer> {
+
+    @Query("SELECT r.role_id, r.type FROM role r JOIN user_roles ur ON ur.role_id = r.role_id " +
+            "WHERE ur.user_id = :userId ORDER BY r.role_id")
+    Flux<RoleRow> findByUserId(@Param("userId") Long userId);
+}
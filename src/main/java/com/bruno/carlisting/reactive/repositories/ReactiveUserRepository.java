@@ -0,0 +1,18 @@
+package com.bruno.carlisting.reactive.repositories;
+
+import com.bruno.carlisting.reactive.domain.UserRoleRow;
+import com.bruno.carlisting.reactive.domain.UserRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveSortingRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveUserRepository extends ReactiveSortingRepository<UserRow, Long> {
+
+    @Query("SELECT user_id, role_id FROM user_roles WHERE user_id IN (:userIds) ORDER BY role_id")
+    Flux<UserRoleRow> findRolesIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+}
@@ -1,15 +1,148 @@
 package com.bruno.carlisting.repositories;
 
 import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.repositories.projections.CarExportProjection;
+import com.bruno.carlisting.repositories.projections.CarProjection;
+import com.bruno.carlisting.repositories.projections.FacetCountProjection;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface CarRepository extends JpaRepository<Car, Long> {
 
+    /* Single column updates bump the version themselves, a null version updates whatever version the car is at */
+    String CAR_VERSION_UPDATE = "c.version = c.version + 1, c.updatedAt = :updatedAt " +
+            "WHERE c.carId = :carId AND (:version IS NULL OR c.version = :version)";
+
     Page<Car> findByMake(String make, Pageable pageRequest);
 
     Page<Car> findByUser_UserId(Long userId, Pageable pageRequest);
+
+    Slice<CarProjection> findAllProjectedBy(Pageable pageRequest);
+
+    Slice<CarProjection> findProjectedByMake(String make, Pageable pageRequest);
+
+    Slice<CarProjection> findProjectedByUser_UserId(Long userId, Pageable pageRequest);
+
+    long countByMake(String make);
+
+    long countByUser_UserId(Long userId);
+
+    Optional<CarProjection> findProjectedByCarId(Long carId);
+
+    Optional<VersionProjection> findVersionByCarId(Long carId);
+
+    List<CarProjection> findProjectedByCarIdIn(Collection<Long> carIds);
+
+    List<CarProjection> findProjectedByMakeInAndModelIn(Collection<String> makes, Collection<String> models);
+
+    Slice<CarProjection> findProjectedByCarIdGreaterThanOrderByCarIdAsc(Long carId, Pageable pageRequest);
+
+    Slice<CarProjection> findProjectedByMakeAndCarIdGreaterThanOrderByCarIdAsc(String make, Long carId,
+                                                                              Pageable pageRequest);
+
+    /* A single grouped pass over the table, every facet is summed up from these combinations */
+    @Query("SELECT c.make AS make, c.fuel AS fuel, c.transmission AS transmission, c.year AS year, " +
+            "COUNT(c) AS count FROM Car c GROUP BY c.make, c.fuel, c.transmission, c.year")
+    List<FacetCountProjection> countCarsByFacets();
+
+    /* Must be consumed inside a transaction, rows are fetched from the cursor in chunks instead of all at once */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.carId AS carId, c.make AS make, c.model AS model, c.year AS year, c.trim AS trim, " +
+            "c.color AS color, c.transmission AS transmission, c.fuel AS fuel, c.user.userId AS userId, " +
+            "c.updatedAt AS updatedAt FROM Car c ORDER BY c.carId")
+    Stream<CarExportProjection> streamCarsForExport();
+
+    /* Initializes the listings of cars already loaded in the current persistence context with a single query */
+    @Query("SELECT DISTINCT c FROM Car c LEFT JOIN FETCH c.carListings WHERE c IN :cars")
+    List<Car> fetchCarListings(@Param("cars") List<Car> cars);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.make = :make, " + CAR_VERSION_UPDATE)
+    int updateMakeByCarId(@Param("carId") Long carId, @Param("make") String make, @Param("version") Long version,
+                          @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.model = :model, " + CAR_VERSION_UPDATE)
+    int updateModelByCarId(@Param("carId") Long carId, @Param("model") String model, @Param("version") Long version,
+                           @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.year = :year, " + CAR_VERSION_UPDATE)
+    int updateYearByCarId(@Param("carId") Long carId, @Param("year") Integer year, @Param("version") Long version,
+                          @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.trim = :trim, " + CAR_VERSION_UPDATE)
+    int updateTrimByCarId(@Param("carId") Long carId, @Param("trim") String trim, @Param("version") Long version,
+                          @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.color = :color, " + CAR_VERSION_UPDATE)
+    int updateColorByCarId(@Param("carId") Long carId, @Param("color") String color, @Param("version") Long version,
+                           @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.transmission = :transmission, " + CAR_VERSION_UPDATE)
+    int updateTransmissionByCarId(@Param("carId") Long carId, @Param("transmission") String transmission,
+                                  @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.fuel = :fuel, " + CAR_VERSION_UPDATE)
+    int updateFuelByCarId(@Param("carId") Long carId, @Param("fuel") String fuel, @Param("version") Long version,
+                          @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Car c SET c.user = :user, " + CAR_VERSION_UPDATE)
+    int updateUserByCarId(@Param("carId") Long carId, @Param("user") User user, @Param("version") Long version,
+                          @Param("updatedAt") Instant updatedAt);
+
+    @Transactional(readOnly = true)
+    default Page<Car> findAllWithListings(Pageable pageRequest) {
+        return withCarListings(findAll(pageRequest));
+    }
+
+    @Transactional(readOnly = true)
+    default Page<Car> findByMakeWithListings(String make, Pageable pageRequest) {
+        return withCarListings(findByMake(make, pageRequest));
+    }
+
+    @Transactional(readOnly = true)
+    default Page<Car> findByUserIdWithListings(Long userId, Pageable pageRequest) {
+        return withCarListings(findByUser_UserId(userId, pageRequest));
+    }
+
+    default Page<Car> withCarListings(Page<Car> carsPage) {
+        if (carsPage.hasContent()) {
+            fetchCarListings(carsPage.getContent());
+        }
+        return carsPage;
+    }
 }
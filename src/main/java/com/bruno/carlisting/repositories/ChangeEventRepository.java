@@ -0,0 +1,14 @@
+package com.bruno.carlisting.repositories;
+
+import com.bruno.carlisting.domain.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long> {
+
+    List<ChangeEvent> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageRequest);
+}
@@ -1,11 +1,72 @@
 package com.bruno.carlisting.repositories;
 
 import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.repositories.projections.FacetCountProjection;
+import com.bruno.carlisting.repositories.projections.ListingExportProjection;
+import com.bruno.carlisting.repositories.projections.ListingIdProjection;
+import com.bruno.carlisting.repositories.projections.ListingIndexProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
 @Repository
-public interface ListingRepository extends JpaRepository<Listing, Long> {
+public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpecificationExecutor<Listing> {
+
+    String SELECT_LISTINGS_FOR_INDEX = "SELECT l.listingId AS listingId, l.price AS price, l.mileage AS mileage, " +
+            "l.description AS description, c.make AS make, c.model AS model, c.year AS year, c.fuel AS fuel, " +
+            "c.transmission AS transmission, " +
+            "loc.country.countryId AS countryId, loc.state.stateId AS stateId, loc.city.cityId AS cityId " +
+            "FROM Listing l JOIN l.car c LEFT JOIN Location loc ON loc.listing = l ";
+
+    /* Must be consumed inside a transaction, rows are fetched from the cursor in chunks instead of all at once */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query(SELECT_LISTINGS_FOR_INDEX + "ORDER BY l.listingId")
+    Stream<ListingIndexProjection> streamListingsForIndex();
+
+    /* Same cursor reads as streamListingsForIndex, a row is written out before the next one is fetched */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT l.listingId AS listingId, l.price AS price, l.mileage AS mileage, l.description AS description, " +
+            "l.car.carId AS carId, l.user.userId AS userId, l.updatedAt AS updatedAt FROM Listing l " +
+            "ORDER BY l.listingId")
+    Stream<ListingExportProjection> streamListingsForExport();
+
+    @Query(SELECT_LISTINGS_FOR_INDEX + "WHERE l.listingId IN :listingIds")
+    List<ListingIndexProjection> findListingsForIndexByIds(@Param("listingIds") Collection<Long> listingIds);
+
+    @Query("SELECT l.car.carId AS ownerId, l.listingId AS listingId FROM Listing l " +
+            "WHERE l.car.carId IN :carIds ORDER BY l.listingId")
+    List<ListingIdProjection> findListingsIdsByCarIds(@Param("carIds") Collection<Long> carIds);
+
+    @Query("SELECT l.user.userId AS ownerId, l.listingId AS listingId FROM Listing l " +
+            "WHERE l.user.userId IN :userIds ORDER BY l.listingId")
+    List<ListingIdProjection> findListingsIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    /* A single grouped pass over listings and their cars, every facet is summed up from these combinations */
+    @Query("SELECT c.make AS make, c.fuel AS fuel, c.transmission AS transmission, c.year AS year, " +
+            "COUNT(l) AS count FROM Listing l JOIN l.car c GROUP BY c.make, c.fuel, c.transmission, c.year")
+    List<FacetCountProjection> countListingsByFacets();
 
+    default Map<Long, List<Long>> findListingsIdsGroupedByCarId(Collection<Long> carIds) {
+        return findListingsIdsByCarIds(carIds).stream().collect(Collectors.groupingBy(
+                ListingIdProjection::getOwnerId,
+                Collectors.mapping(ListingIdProjection::getListingId, Collectors.toList())));
+    }
 
+    default Map<Long, List<Long>> findListingsIdsGroupedByUserId(Collection<Long> userIds) {
+        return findListingsIdsByUserIds(userIds).stream().collect(Collectors.groupingBy(
+                ListingIdProjection::getOwnerId,
+                Collectors.mapping(ListingIdProjection::getListingId, Collectors.toList())));
+    }
 }
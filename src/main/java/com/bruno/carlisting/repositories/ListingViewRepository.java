@@ -0,0 +1,58 @@
+package com.bruno.carlisting.repositories;
+
+import com.bruno.carlisting.domain.ListingView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ListingViewRepository extends JpaRepository<ListingView, Long> {
+
+    String LISTING_VIEW_COLUMNS = "listing_id, price, mileage, description, " +
+            "car_id, make, model, year, trim, fuel, transmission, user_id, user_display_name, " +
+            "country_id, country_name, state_id, state_name, city_id, city_name, latitude, longitude";
+
+    /* The joins the listing view saves its readers from, computed once per change of a listing */
+    String SELECT_LISTING_VIEW_ROWS = "SELECT l.listing_id, l.price, l.mileage, l.description, " +
+            "c.car_id, c.make, c.model, c.year, c.trim, c.fuel, c.transmission, u.user_id, " +
+            "u.display_name AS user_display_name, co.country_id, co.country_name, s.state_id, s.state_name, " +
+            "ci.city_id, ci.city_name, loc.latitude, loc.longitude " +
+            "FROM listing l JOIN car c ON c.car_id = l.car_id LEFT JOIN users u ON u.user_id = l.user_id " +
+            "LEFT JOIN location loc ON loc.listing_id = l.listing_id " +
+            "LEFT JOIN country co ON co.country_id = loc.country_id " +
+            "LEFT JOIN state s ON s.state_id = loc.state_id " +
+            "LEFT JOIN city ci ON ci.city_id = loc.city_id ";
+
+    /* A row outliving its listing, until the refresh of its deletion, is not returned */
+    @Query(value = "SELECT v.* FROM listing_view v WHERE v.listing_id = :listingId " +
+            "AND EXISTS (SELECT 1 FROM listing l WHERE l.listing_id = v.listing_id)", nativeQuery = true)
+    Optional<ListingView> findByListingIdIfListed(@Param("listingId") Long listingId);
+
+    /* Read-only fallback for listings whose view row is not written yet */
+    @Query(value = SELECT_LISTING_VIEW_ROWS + "WHERE l.listing_id = :listingId", nativeQuery = true)
+    Optional<ListingView> computeListingViewByListingId(@Param("listingId") Long listingId);
+
+    @Modifying
+    @Query(value = "DELETE FROM listing_view WHERE listing_id IN :listingIds", nativeQuery = true)
+    int deleteListingViewsByListingIds(@Param("listingIds") Collection<Long> listingIds);
+
+    /* Listings deleted since the event find no row to copy, which leaves them out of the view */
+    @Modifying
+    @Query(value = "INSERT INTO listing_view (" + LISTING_VIEW_COLUMNS + ") " + SELECT_LISTING_VIEW_ROWS +
+            "WHERE l.listing_id IN :listingIds", nativeQuery = true)
+    int insertListingViewsByListingIds(@Param("listingIds") Collection<Long> listingIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM listing_view", nativeQuery = true)
+    int deleteAllListingViews();
+
+    @Modifying
+    @Query(value = "INSERT INTO listing_view (" + LISTING_VIEW_COLUMNS + ") " + SELECT_LISTING_VIEW_ROWS,
+            nativeQuery = true)
+    int insertAllListingViews();
+}
@@ -1,11 +1,20 @@
 package com.bruno.carlisting.repositories;
 
 import com.bruno.carlisting.domain.Location;
+import com.bruno.carlisting.repositories.projections.LocationIdsProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
 
-
+    @Query("SELECT l.listing.listingId AS listingId, l.country.countryId AS countryId, " +
+            "l.state.stateId AS stateId, l.city.cityId AS cityId FROM Location l " +
+            "WHERE l.listing.listingId IN :listingIds")
+    List<LocationIdsProjection> findLocationsIdsByListingIds(@Param("listingIds") Collection<Long> listingIds);
 }
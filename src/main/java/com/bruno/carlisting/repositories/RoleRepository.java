@@ -1,14 +1,26 @@
 package com.bruno.carlisting.repositories;
 
 import com.bruno.carlisting.domain.Role;
+import com.bruno.carlisting.repositories.projections.RoleProjection;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Integer> {
 
     List<Role> findByUsers_UserId(Long userId);
 
+    Slice<RoleProjection> findAllProjectedBy(Pageable pageRequest);
+
+    Optional<RoleProjection> findProjectedByRoleId(Integer roleId);
+
+    Optional<VersionProjection> findVersionByRoleId(Integer roleId);
+
+    List<RoleProjection> findProjectedByUsers_UserId(Long userId);
 }
@@ -1,16 +1,77 @@
 package com.bruno.carlisting.repositories;
 
 import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.repositories.projections.RoleIdProjection;
+import com.bruno.carlisting.repositories.projections.UserProjection;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /* Same version handling as the single column updates of cars */
+    String USER_VERSION_UPDATE = "u.version = u.version + 1, u.updatedAt = :updatedAt " +
+            "WHERE u.userId = :userId AND (:version IS NULL OR u.version = :version)";
+
     @Query(value = "SELECT user_id FROM car WHERE car_id = :searchCarId", nativeQuery = true)
     Optional<Long> searchUserByCarId(@Param("searchCarId") Long searchCarId);
+
+    Slice<UserProjection> findAllProjectedBy(Pageable pageRequest);
+
+    Optional<UserProjection> findProjectedByUserId(Long userId);
+
+    Optional<VersionProjection> findVersionByUserId(Long userId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.password = :password, " + USER_VERSION_UPDATE)
+    int updatePasswordByUserId(@Param("userId") Long userId, @Param("password") String password,
+                               @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.displayName = :displayName, " + USER_VERSION_UPDATE)
+    int updateDisplayNameByUserId(@Param("userId") Long userId, @Param("displayName") String displayName,
+                                  @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.contact = :contact, " + USER_VERSION_UPDATE)
+    int updateContactByUserId(@Param("userId") Long userId, @Param("contact") String contact,
+                              @Param("version") Long version, @Param("updatedAt") Instant updatedAt);
+
+    /* Deleting the listings of a car is a new version of each of their users, bumped without loading them */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.version = u.version + 1, u.updatedAt = :updatedAt " +
+            "WHERE u.userId IN (SELECT l.user.userId FROM Listing l WHERE l.car.carId = :carId)")
+    int markUpdatedByListingsCarId(@Param("carId") Long carId, @Param("updatedAt") Instant updatedAt);
+
+    List<UserProjection> findProjectedByUserIdIn(Collection<Long> userIds);
+
+    Slice<UserProjection> findProjectedByUserIdGreaterThanOrderByUserIdAsc(Long userId, Pageable pageRequest);
+
+    @Query("SELECT u.userId AS userId, r.roleId AS roleId FROM User u JOIN u.roles r " +
+            "WHERE u.userId IN :userIds ORDER BY r.roleId")
+    List<RoleIdProjection> findRolesIdsByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    default Map<Long, List<Integer>> findRolesIdsGroupedByUserId(Collection<Long> userIds) {
+        return findRolesIdsByUserIds(userIds).stream().collect(Collectors.groupingBy(
+                RoleIdProjection::getUserId,
+                Collectors.mapping(RoleIdProjection::getRoleId, Collectors.toList())));
+    }
 }
@@ -0,0 +1,27 @@
+package com.bruno.carlisting.repositories.projections;
+
+import java.time.Instant;
+
+/* A car as written by catalog exports, its listings are exported separately and refer to it by car ID */
+public interface CarExportProjection {
+
+    Long getCarId();
+
+    String getMake();
+
+    String getModel();
+
+    Integer getYear();
+
+    String getTrim();
+
+    String getColor();
+
+    String getTransmission();
+
+    String getFuel();
+
+    Long getUserId();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,20 @@
+package com.bruno.carlisting.repositories.projections;
+
+public interface CarProjection {
+
+    Long getCarId();
+
+    String getMake();
+
+    String getModel();
+
+    Integer getYear();
+
+    String getTrim();
+
+    String getColor();
+
+    String getTransmission();
+
+    String getFuel();
+}
@@ -0,0 +1,15 @@
+package com.bruno.carlisting.repositories.projections;
+
+/* Number of rows sharing one combination of the faceted car attributes */
+public interface FacetCountProjection {
+
+    String getMake();
+
+    String getFuel();
+
+    String getTransmission();
+
+    Integer getYear();
+
+    Long getCount();
+}
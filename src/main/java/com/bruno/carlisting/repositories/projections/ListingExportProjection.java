@@ -0,0 +1,20 @@
+package com.bruno.carlisting.repositories.projections;
+
+import java.time.Instant;
+
+public interface ListingExportProjection {
+
+    Long getListingId();
+
+    Integer getPrice();
+
+    Integer getMileage();
+
+    String getDescription();
+
+    Long getCarId();
+
+    Long getUserId();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,9 @@
+package com.bruno.carlisting.repositories.projections;
+
+/* Listing ID paired with the ID of the car or user that owns it */
+public interface ListingIdProjection {
+
+    Long getOwnerId();
+
+    Long getListingId();
+}
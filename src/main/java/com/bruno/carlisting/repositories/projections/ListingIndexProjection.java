@@ -0,0 +1,29 @@
+package com.bruno.carlisting.repositories.projections;
+
+/* Listing attributes copied into the listing search indexes, location IDs are null for listings without location */
+public interface ListingIndexProjection {
+
+    Long getListingId();
+
+    Integer getPrice();
+
+    Integer getMileage();
+
+    String getDescription();
+
+    String getMake();
+
+    String getModel();
+
+    Integer getYear();
+
+    String getFuel();
+
+    String getTransmission();
+
+    Integer getCountryId();
+
+    Integer getStateId();
+
+    Long getCityId();
+}
@@ -0,0 +1,13 @@
+package com.bruno.carlisting.repositories.projections;
+
+/* Country, state and city IDs of the location of a listing */
+public interface LocationIdsProjection {
+
+    Long getListingId();
+
+    Integer getCountryId();
+
+    Integer getStateId();
+
+    Long getCityId();
+}
@@ -0,0 +1,8 @@
+package com.bruno.carlisting.repositories.projections;
+
+public interface RoleIdProjection {
+
+    Long getUserId();
+
+    Integer getRoleId();
+}
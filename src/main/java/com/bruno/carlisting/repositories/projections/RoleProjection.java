@@ -0,0 +1,8 @@
+package com.bruno.carlisting.repositories.projections;
+
+public interface RoleProjection {
+
+    Integer getRoleId();
+
+    String getType();
+}
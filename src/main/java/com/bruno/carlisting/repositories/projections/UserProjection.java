@@ -0,0 +1,12 @@
+package com.bruno.carlisting.repositories.projections;
+
+public interface UserProjection {
+
+    Long getUserId();
+
+    String getUsername();
+
+    String getDisplayName();
+
+    String getContact();
+}
@@ -0,0 +1,10 @@
+package com.bruno.carlisting.repositories.projections;
+
+import java.time.Instant;
+
+public interface VersionProjection {
+
+    Long getVersion();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,85 @@
+package com.bruno.carlisting.repositories.specifications;
+
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.domain.Location;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import java.util.Collection;
+
+/* Listing filters, a null argument leaves the filter out of the query */
+public final class ListingSpecifications {
+
+    private ListingSpecifications() {
+    }
+
+    /* Fetches the car of every listing with the listing itself, except in count queries */
+    public static Specification<Listing> fetchCar() {
+        return (root, query, builder) -> {
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("car");
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Listing> listingIdIn(Collection<Long> listingsIds) {
+        return (root, query, builder) -> root.get("listingId").in(listingsIds);
+    }
+
+    public static Specification<Listing> priceBetween(Integer minPrice, Integer maxPrice) {
+        return (root, query, builder) -> between(builder, root.get("price"), minPrice, maxPrice);
+    }
+
+    public static Specification<Listing> mileageBetween(Integer minMileage, Integer maxMileage) {
+        return (root, query, builder) -> between(builder, root.get("mileage"), minMileage, maxMileage);
+    }
+
+    public static Specification<Listing> carAttributeEquals(String attribute, Object value) {
+        return (root, query, builder) -> value == null ? null : builder.equal(root.get("car").get(attribute), value);
+    }
+
+    public static Specification<Listing> carYearBetween(Integer minYear, Integer maxYear) {
+        return (root, query, builder) -> between(builder, root.get("car").get("year"), minYear, maxYear);
+    }
+
+    /* Location maps to its listing, so the listing side filters through a subquery on the location key */
+    public static Specification<Listing> locatedIn(Integer countryId, Integer stateId, Long cityId) {
+        return (root, query, builder) -> {
+            if (countryId == null && stateId == null && cityId == null) {
+                return null;
+            }
+            var subquery = query.subquery(Long.class);
+            var location = subquery.from(Location.class);
+            subquery.select(location.get("listing").get("listingId"));
+            var predicate = builder.conjunction();
+            if (countryId != null) {
+                predicate = builder.and(predicate, builder.equal(location.get("country").get("countryId"), countryId));
+            }
+            if (stateId != null) {
+                predicate = builder.and(predicate, builder.equal(location.get("state").get("stateId"), stateId));
+            }
+            if (cityId != null) {
+                predicate = builder.and(predicate, builder.equal(location.get("city").get("cityId"), cityId));
+            }
+            subquery.where(predicate);
+            return root.get("listingId").in(subquery);
+        };
+    }
+
+    private static Predicate between(CriteriaBuilder builder, Expression<Integer> attribute, Integer min,
+                                     Integer max) {
+        if (min != null && max != null) {
+            return builder.between(attribute, min, max);
+        }
+        if (min != null) {
+            return builder.greaterThanOrEqualTo(attribute, min);
+        }
+        if (max != null) {
+            return builder.lessThanOrEqualTo(attribute, max);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,233 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.CarImportProperties;
+import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.dtos.request.car.CarRequestDTO;
+import com.bruno.carlisting.dtos.response.car.CarImportResponseDTO;
+import com.bruno.carlisting.dtos.response.car.CarImportRowResponseDTO;
+import com.bruno.carlisting.dtos.response.car.CarImportStatus;
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.exceptions.entityRelationshipIntegrityException;
+import com.bruno.carlisting.repositories.CarRepository;
+import com.bruno.carlisting.services.interfaces.CarImportService;
+import com.bruno.carlisting.services.interfaces.CarService;
+import com.bruno.carlisting.services.interfaces.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.services.implementations.CarServiceImpl.CAR_ALREADY_EXISTS;
+import static com.bruno.carlisting.services.implementations.UserServiceImpl.USER_ID_NOT_FOUND;
+
+@Service
+@Slf4j
+public class CarImportServiceImpl implements CarImportService {
+
+    public static final String MALFORMED_CARS_JSON =
+            "Import stopped, body must be a JSON array of cars or one JSON car per line: %s";
+    public static final String CAR_NOT_READABLE = "Car could not be read: %s";
+    public static final String CAR_REPEATED_IN_IMPORT = "This car was already imported from an earlier row:" +
+            " Make = %s -" +
+            " Model = %s -" +
+            " Year = %s -" +
+            " Trim = %s";
+    private static final String CAR_KEY_SEPARATOR = "\u001F";
+
+    private final CarService carService;
+    private final UserService userService;
+    private final CarRepository carRepository;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final CarImportProperties carImportProperties;
+
+    public CarImportServiceImpl(CarService carService, UserService userService, CarRepository carRepository,
+                                ObjectMapper objectMapper, Validator validator, EntityManager entityManager,
+                                CarImportProperties carImportProperties) {
+        this.carService = carService;
+        this.userService = userService;
+        this.carRepository = carRepository;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.carImportProperties = carImportProperties;
+    }
+
+    /* Reads one car at a time from a JSON array or from root-level JSON objects (NDJSON), committing every chunk */
+    @Override
+    public CarImportResponseDTO importCars(InputStream carsJson) throws IOException {
+
+        var importSummary = new CarImportResponseDTO(carImportProperties.getMaxFailedRows());
+        Set<String> importedCarsKeys = new HashSet<>();
+        List<ImportRow> chunk = new ArrayList<>();
+        long row = 0;
+
+        try (var parser = objectMapper.getFactory().createParser(carsJson)) {
+
+            var token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+
+                row++;
+                var carNode = objectMapper.readTree(parser);
+                try {
+                    var carRequestDTO = objectMapper.treeToValue(carNode, CarRequestDTO.class);
+                    var violations = validator.validate(carRequestDTO);
+                    chunk.add(violations.isEmpty() ? new ImportRow(row, carRequestDTO, null) :
+                            new ImportRow(row, null, new CarImportRowResponseDTO(row, CarImportStatus.INVALID,
+                                    violations.stream().map(ConstraintViolation::getMessage).sorted()
+                                            .collect(Collectors.joining("; ")))));
+                } catch (JsonProcessingException e) {
+                    chunk.add(new ImportRow(row, null, new CarImportRowResponseDTO(row, CarImportStatus.INVALID,
+                            String.format(CAR_NOT_READABLE, e.getOriginalMessage()))));
+                }
+
+                if (chunk.size() >= carImportProperties.getChunkSize()) {
+                    importChunk(chunk, importedCarsKeys, importSummary);
+                    chunk.clear();
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+
+            log.warn("Malformed cars JSON at row {}:", row, e);
+
+            importChunk(chunk, importedCarsKeys, importSummary);
+            importSummary.addRow(new CarImportRowResponseDTO(row, CarImportStatus.MALFORMED,
+                    String.format(MALFORMED_CARS_JSON, e.getOriginalMessage())));
+            return importSummary;
+        }
+        importChunk(chunk, importedCarsKeys, importSummary);
+
+        log.debug("method = importCars, total rows = {}, created rows = {}, failed rows = {}",
+                importSummary.getTotalRows(), importSummary.getCreatedRows(), importSummary.getFailedRows());
+
+        return importSummary;
+    }
+
+    private void importChunk(List<ImportRow> chunk, Set<String> importedCarsKeys,
+                             CarImportResponseDTO importSummary) {
+
+        List<ImportRow> validRows = chunk.stream().filter(importRow -> importRow.result == null)
+                .collect(Collectors.toList());
+
+        if (!validRows.isEmpty()) {
+
+            var existingCarsKeys = findExistingCarsKeys(validRows);
+            var usersById = findUsers(validRows);
+
+            List<ImportRow> newRows = new ArrayList<>();
+            for (var importRow : validRows) {
+                var car = importRow.carRequestDTO;
+                var carKey = carKey(car.getMake(), car.getModel(), car.getYear(), car.getTrim());
+                if (existingCarsKeys.contains(carKey)) {
+                    importRow.result = duplicate(importRow, CAR_ALREADY_EXISTS);
+                } else if (car.getUserId() == null || !usersById.containsKey(car.getUserId())) {
+                    importRow.result = new CarImportRowResponseDTO(importRow.row, CarImportStatus.USER_NOT_FOUND,
+                            String.format(USER_ID_NOT_FOUND, car.getUserId()));
+                } else if (!importedCarsKeys.add(carKey)) {
+                    importRow.result = duplicate(importRow, CAR_REPEATED_IN_IMPORT);
+                } else {
+                    newRows.add(importRow);
+                }
+            }
+            createCars(newRows, usersById);
+        }
+
+        log.debug("method = importChunk, chunk size = {}, valid rows = {}", chunk.size(), validRows.size());
+
+        chunk.forEach(importRow -> importSummary.addRow(importRow.result));
+        entityManager.clear();
+    }
+
+    /* The users found for the chunk are handed over, createCars does not load them again */
+    private void createCars(List<ImportRow> newRows, Map<Long, User> usersById) {
+
+        if (newRows.isEmpty()) {
+            return;
+        }
+        try {
+            carService.createCarsForUsers(
+                    newRows.stream().map(importRow -> importRow.carRequestDTO.toCar()).collect(Collectors.toList()),
+                    newRows.stream().map(importRow -> usersById.get(importRow.carRequestDTO.getUserId()))
+                            .collect(Collectors.toList()));
+            newRows.forEach(importRow -> importRow.result = new CarImportRowResponseDTO(importRow.row,
+                    CarImportStatus.CREATED, null));
+        } catch (entityRelationshipIntegrityException | ObjectNotFoundException e) {
+
+            /* The chunk was rolled back because of a concurrent write, retry it one car at a time */
+            log.warn("Chunk import failed, retrying row by row:", e);
+
+            newRows.forEach(this::createCar);
+        }
+    }
+
+    private void createCar(ImportRow importRow) {
+        try {
+            carService.createCar(importRow.carRequestDTO.toCar(), importRow.carRequestDTO.getUserId());
+            importRow.result = new CarImportRowResponseDTO(importRow.row, CarImportStatus.CREATED, null);
+        } catch (entityRelationshipIntegrityException e) {
+            importRow.result = new CarImportRowResponseDTO(importRow.row, CarImportStatus.DUPLICATE,
+                    e.getMessage());
+        } catch (ObjectNotFoundException e) {
+            importRow.result = new CarImportRowResponseDTO(importRow.row, CarImportStatus.USER_NOT_FOUND,
+                    e.getMessage());
+        }
+    }
+
+    private Set<String> findExistingCarsKeys(List<ImportRow> importRows) {
+
+        Set<String> makes = new HashSet<>();
+        Set<String> models = new HashSet<>();
+        importRows.forEach(importRow -> {
+            makes.add(importRow.carRequestDTO.getMake());
+            models.add(importRow.carRequestDTO.getModel());
+        });
+
+        return carRepository.findProjectedByMakeInAndModelIn(makes, models).stream()
+                .map(car -> carKey(car.getMake(), car.getModel(), car.getYear(), car.getTrim()))
+                .collect(Collectors.toSet());
+    }
+
+    /* One query for the users of the whole chunk */
+    private Map<Long, User> findUsers(List<ImportRow> importRows) {
+        return userService.getUsersByIds(importRows.stream().map(importRow -> importRow.carRequestDTO.getUserId())
+                .filter(Objects::nonNull).collect(Collectors.toSet()));
+    }
+
+    private static CarImportRowResponseDTO duplicate(ImportRow importRow, String message) {
+        var car = importRow.carRequestDTO;
+        return new CarImportRowResponseDTO(importRow.row, CarImportStatus.DUPLICATE,
+                String.format(message, car.getMake(), car.getModel(), car.getYear(), car.getTrim()));
+    }
+
+    private static String carKey(String make, String model, Integer year, String trim) {
+        return String.join(CAR_KEY_SEPARATOR, make, model, String.valueOf(year), trim);
+    }
+
+    @AllArgsConstructor
+    private static class ImportRow {
+
+        private final long row;
+        private final CarRequestDTO carRequestDTO;
+        private CarImportRowResponseDTO result;
+    }
+}
@@ -1,17 +1,50 @@
 package com.bruno.carlisting.services.implementations;
 
 import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.domain.ChangeEvent;
+import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.dtos.response.BatchItemResponseDTO;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.car.CarPublicResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.exceptions.InvalidCursorException;
 import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.exceptions.PreconditionFailedException;
 import com.bruno.carlisting.exceptions.entityRelationshipIntegrityException;
 import com.bruno.carlisting.repositories.CarRepository;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.projections.CarProjection;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
 import com.bruno.carlisting.services.interfaces.CarService;
+import com.bruno.carlisting.services.interfaces.ChangeFeedService;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import com.bruno.carlisting.services.interfaces.CountService;
+import com.bruno.carlisting.services.interfaces.FacetService;
+import com.bruno.carlisting.services.interfaces.OptimisticLockRetryService;
 import com.bruno.carlisting.services.interfaces.PagingService;
 import com.bruno.carlisting.services.interfaces.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.services.implementations.ConditionalRequestServiceImpl.IF_MATCH_FAILED;
+import static com.bruno.carlisting.services.implementations.UserServiceImpl.USER_ID_NOT_FOUND;
 
 @Service
 @Slf4j
@@ -21,29 +54,59 @@ public class CarServiceImpl implements CarService {
     public static final String PAGE_HAS_NO_CARS = "Page %s has no cars";
     public static final String CARS_OF_MAKE_NOT_FOUND = "No cars of make %s were found on page %s";
     public static final String CARS_NOT_FOUND_FOR_USER_ID = "Cars not found for user ID = %s on page %s";
+    public static final String NO_CARS_AFTER_CURSOR = "No cars were found after cursor %s";
+    public static final String NO_CARS_OF_MAKE_AFTER_CURSOR = "No cars of make %s were found after cursor %s";
+    public static final String CURSOR_NOT_ISSUED_FOR_MAKE = "Cursor %s was not issued for make %s";
+    public static final String CAR_TABLE = "car";
+    public static final String CARS_ALL_ENDPOINT = "cars-all";
+    public static final String CARS_MAKE_ENDPOINT = "cars-make";
+    public static final String CARS_USER_ENDPOINT = "cars-user";
     public static final String ER_INTEGRITY_EXCEPTION_MSG = "Entity relationship integrity exception occurred:";
     public static final String CAR_ALREADY_EXISTS = "This car already exists:" +
             " Make = %s -" +
             " Model = %s -" +
             " Year = %s -" +
             " Trim = %s";
+    public static final String CARS_ALREADY_EXIST = "One or more cars of this batch already exist, " +
+            "make, model, year and trim must be unique";
 
     private final CarRepository carRepository;
+    private final ListingRepository listingRepository;
     private final UserService userService;
     private final PagingService pagingService;
-
-    public CarServiceImpl(CarRepository carRepository, UserService userService, PagingService pagingService) {
+    private final CountService countService;
+    private final FacetService facetService;
+    private final OptimisticLockRetryService optimisticLockRetryService;
+    private final ConditionalRequestService conditionalRequestService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+
+    public CarServiceImpl(CarRepository carRepository, ListingRepository listingRepository, UserService userService,
+                          PagingService pagingService, CountService countService, FacetService facetService,
+                          OptimisticLockRetryService optimisticLockRetryService,
+                          ConditionalRequestService conditionalRequestService,
+                          ApplicationEventPublisher eventPublisher, ChangeFeedService changeFeedService,
+                          PlatformTransactionManager transactionManager) {
 
         this.carRepository = carRepository;
+        this.listingRepository = listingRepository;
         this.userService = userService;
         this.pagingService = pagingService;
+        this.countService = countService;
+        this.facetService = facetService;
+        this.optimisticLockRetryService = optimisticLockRetryService;
+        this.conditionalRequestService = conditionalRequestService;
+        this.eventPublisher = eventPublisher;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
     public Page<Car> getAllCars(int page, int size) {
 
         var pageRequest = PageRequest.of(page, size);
-        var carsPage = carRepository.findAll(pageRequest);
+        var carsPage = carRepository.findAllWithListings(pageRequest);
 
         log.debug("method = getAllCars, page number = {}, page size = {}, carsPage = {}",
                 carsPage.getPageable().getPageNumber(), carsPage.getPageable().getPageSize(), carsPage.getContent());
@@ -63,11 +126,22 @@ public class CarServiceImpl implements CarService {
         return car.orElseThrow(() -> new ObjectNotFoundException(String.format(CAR_ID_NOT_FOUND, carId)));
     }
 
+    /* Reads the version columns only, enough to answer conditional requests without loading the car */
+    @Override
+    public VersionProjection getCarVersion(Long carId) {
+
+        var carVersion = carRepository.findVersionByCarId(carId);
+
+        log.debug("method = getCarVersion, carId = {}, found = {}", carId, carVersion.isPresent());
+
+        return carVersion.orElseThrow(() -> new ObjectNotFoundException(String.format(CAR_ID_NOT_FOUND, carId)));
+    }
+
     @Override
     public Page<Car> getCarsByMake(String searchMake, int page, int size) {
 
         var pageRequest = PageRequest.of(page, size);
-        var carsPage = carRepository.findByMake(searchMake, pageRequest);
+        var carsPage = carRepository.findByMakeWithListings(searchMake, pageRequest);
 
         log.debug("method = getCarsByMake, make = {}, page number = {}, page size = {}, carsPage = {}",
                 searchMake, carsPage.getPageable().getPageNumber(),
@@ -82,7 +156,7 @@ public class CarServiceImpl implements CarService {
     public Page<Car> getCarsByUserId(Long userId, int page, int size) {
 
         var pageRequest = PageRequest.of(page, size);
-        var carsPage = carRepository.findByUser_UserId(userId, pageRequest);
+        var carsPage = carRepository.findByUserIdWithListings(userId, pageRequest);
 
         log.debug("method = getCarsByUserId, userId = {}, page number = {}, page size = {}, carsPage = {}",
                 userId, carsPage.getPageable().getPageNumber(),
@@ -94,6 +168,140 @@ public class CarServiceImpl implements CarService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<CarPublicResponseDTO> getAllCarsPublic(int page, int size) {
+
+        var pageRequest = PageRequest.of(page, size);
+        var carsPage = pagingService.toPage(carRepository.findAllProjectedBy(pageRequest),
+                () -> countService.count(CARS_ALL_ENDPOINT, CAR_TABLE, null, carRepository::count));
+
+        log.debug("method = getAllCarsPublic, page number = {}, page size = {}, number of cars = {}",
+                carsPage.getPageable().getPageNumber(), carsPage.getPageable().getPageSize(),
+                carsPage.getNumberOfElements());
+
+        pagingService.validatePage(carsPage, String.format(PAGE_HAS_NO_CARS, page));
+
+        return toCarPublicDTO(carsPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CarPublicResponseDTO getCarPublicById(Long carId) {
+
+        var car = carRepository.findProjectedByCarId(carId).orElseThrow(
+                () -> new ObjectNotFoundException(String.format(CAR_ID_NOT_FOUND, carId)));
+
+        log.debug("method = getCarPublicById, carId = {}", carId);
+
+        var carListingsIds = listingRepository.findListingsIdsGroupedByCarId(List.of(carId));
+
+        return CarPublicResponseDTO.fromProjection(car, carListingsIds.getOrDefault(carId, new ArrayList<>()));
+    }
+
+    /* A query for the cars and another for their listings, however many IDs are requested */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BatchItemResponseDTO<CarPublicResponseDTO>> getCarsPublicByIds(List<Long> carsIds) {
+
+        var cars = carRepository.findProjectedByCarIdIn(carsIds).stream()
+                .collect(Collectors.toMap(CarProjection::getCarId, Function.identity()));
+        var carsListingsIds = cars.isEmpty() ? Map.<Long, List<Long>>of() :
+                listingRepository.findListingsIdsGroupedByCarId(cars.keySet());
+
+        log.debug("method = getCarsPublicByIds, carsIds = {}, cars found = {}", carsIds, cars.size());
+
+        List<BatchItemResponseDTO<CarPublicResponseDTO>> carsDTO = new ArrayList<>();
+        carsIds.forEach(carId -> carsDTO.add(cars.containsKey(carId) ?
+                BatchItemResponseDTO.found(carId, CarPublicResponseDTO.fromProjection(cars.get(carId),
+                        carsListingsIds.getOrDefault(carId, new ArrayList<>()))) :
+                BatchItemResponseDTO.notFound(carId, String.format(CAR_ID_NOT_FOUND, carId))));
+        return carsDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CarPublicResponseDTO> getCarsPublicByMake(String searchMake, int page, int size) {
+
+        var pageRequest = PageRequest.of(page, size);
+        var carsPage = pagingService.toPage(carRepository.findProjectedByMake(searchMake, pageRequest),
+                () -> countService.count(CARS_MAKE_ENDPOINT, CAR_TABLE, searchMake,
+                        () -> carRepository.countByMake(searchMake)));
+
+        log.debug("method = getCarsPublicByMake, make = {}, page number = {}, page size = {}, number of cars = {}",
+                searchMake, carsPage.getPageable().getPageNumber(), carsPage.getPageable().getPageSize(),
+                carsPage.getNumberOfElements());
+
+        pagingService.validatePage(carsPage, String.format(CARS_OF_MAKE_NOT_FOUND, searchMake, page));
+
+        return toCarPublicDTO(carsPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<CarPublicResponseDTO> getCarsPublicByUserId(Long userId, int page, int size) {
+
+        var pageRequest = PageRequest.of(page, size);
+        var carsPage = pagingService.toPage(carRepository.findProjectedByUser_UserId(userId, pageRequest),
+                () -> countService.count(CARS_USER_ENDPOINT, CAR_TABLE, String.valueOf(userId),
+                        () -> carRepository.countByUser_UserId(userId)));
+
+        log.debug("method = getCarsPublicByUserId, userId = {}, page number = {}, page size = {}, number of cars = {}",
+                userId, carsPage.getPageable().getPageNumber(), carsPage.getPageable().getPageSize(),
+                carsPage.getNumberOfElements());
+
+        pagingService.validatePage(carsPage, String.format(CARS_NOT_FOUND_FOR_USER_ID, userId, page));
+
+        return toCarPublicDTO(carsPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceResponseDTO<CarPublicResponseDTO> getAllCarsPublicAfter(String after, int size) {
+
+        var lastCarId = after.isBlank() ? 0L : pagingService.decodeCursorId(after,
+                pagingService.decodeCursor(after, 1).get(0));
+        var carsSlice = carRepository.findProjectedByCarIdGreaterThanOrderByCarIdAsc(
+                lastCarId, PageRequest.of(0, size));
+
+        log.debug("method = getAllCarsPublicAfter, after carId = {}, page size = {}, number of cars = {}",
+                lastCarId, size, carsSlice.getNumberOfElements());
+
+        pagingService.validateSlice(carsSlice, String.format(NO_CARS_AFTER_CURSOR, after));
+
+        var nextCursor = carsSlice.hasNext() ? pagingService.encodeCursor(getLastCarId(carsSlice)) : null;
+
+        return toCarPublicDTO(carsSlice, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceResponseDTO<CarPublicResponseDTO> getCarsPublicByMakeAfter(String searchMake, String after,
+                                                                                 int size) {
+
+        var lastCarId = 0L;
+        if (!after.isBlank()) {
+            var sortKeys = pagingService.decodeCursor(after, 2);
+            if (!sortKeys.get(0).equals(searchMake)) {
+                throw new InvalidCursorException(String.format(CURSOR_NOT_ISSUED_FOR_MAKE, after, searchMake));
+            }
+            lastCarId = pagingService.decodeCursorId(after, sortKeys.get(1));
+        }
+        var carsSlice = carRepository.findProjectedByMakeAndCarIdGreaterThanOrderByCarIdAsc(
+                searchMake, lastCarId, PageRequest.of(0, size));
+
+        log.debug("method = getCarsPublicByMakeAfter, make = {}, after carId = {}, page size = {}, number of cars = {}",
+                searchMake, lastCarId, size, carsSlice.getNumberOfElements());
+
+        pagingService.validateSlice(carsSlice, String.format(NO_CARS_OF_MAKE_AFTER_CURSOR, searchMake, after));
+
+        var nextCursor = carsSlice.hasNext() ?
+                pagingService.encodeCursor(searchMake, getLastCarId(carsSlice)) : null;
+
+        return toCarPublicDTO(carsSlice, nextCursor);
+    }
+
+    @Override
+    @Transactional
     public Car createCar(Car newCar, Long userId) {
 
         var user = userService.getUserById(userId);
@@ -102,7 +310,13 @@ public class CarServiceImpl implements CarService {
 
             log.debug("method = createCar, newCar = {}, userId = {}", newCar, userId);
 
-            return carRepository.save(newCar);
+            var createdCar = carRepository.save(newCar);
+            carRepository.flush();
+            changeFeedService.recordChange(ChangeEvent.EntityType.CAR, createdCar.getCarId(),
+                    ChangeEvent.ChangeType.CREATED);
+            countService.evict(CAR_TABLE);
+            facetService.evictCarFacets();
+            return createdCar;
         } catch (DataIntegrityViolationException e) {
 
             log.warn("Data integrity violation exception occurred:", e);
@@ -112,190 +326,297 @@ public class CarServiceImpl implements CarService {
         }
     }
 
+    /* The users of the whole batch are loaded with a single query */
     @Override
-    public Car updateCar(Car updatedCar, Long userId, Long carId) {
+    @Transactional
+    public List<Car> createCars(List<Car> newCars, List<Long> usersIds) {
 
-        var optionalCar = carRepository.findById(carId);
-        var currentCar = optionalCar.orElseThrow(() -> new ObjectNotFoundException(
-                String.format(CAR_ID_NOT_FOUND, carId)));
-
-        log.debug("method = updateCar, currentCar = {}", currentCar);
+        var usersById = userService.getUsersByIds(usersIds);
+        usersIds.stream().filter(userId -> !usersById.containsKey(userId)).findFirst().ifPresent(userId -> {
+            throw new ObjectNotFoundException(String.format(USER_ID_NOT_FOUND, userId));
+        });
 
-        currentCar.setMake(updatedCar.getMake());
-        currentCar.setModel(updatedCar.getModel());
-        currentCar.setYear(updatedCar.getYear());
-        currentCar.setTrim(updatedCar.getTrim());
-        currentCar.setColor(updatedCar.getColor());
-        currentCar.setTransmission(updatedCar.getTransmission());
-        currentCar.setFuel(updatedCar.getFuel());
-        currentCar.setUser(userService.getUserById(userId));
+        return createCarsForUsers(newCars, usersIds.stream().map(usersById::get).collect(Collectors.toList()));
+    }
 
-        log.debug("method = updateCar, updatedCar = {}", currentCar);
+    @Override
+    @Transactional
+    public List<Car> createCarsForUsers(List<Car> newCars, List<User> users) {
 
+        for (int i = 0; i < newCars.size(); i++) {
+            newCars.get(i).setUser(users.get(i));
+        }
         try {
-            return carRepository.save(currentCar);
+
+            log.debug("method = createCarsForUsers, number of cars = {}, usersIds = {}", newCars.size(),
+                    users.stream().map(User::getUserId).distinct().collect(Collectors.toList()));
+
+            var createdCars = carRepository.saveAll(newCars);
+            carRepository.flush();
+            changeFeedService.recordChanges(ChangeEvent.EntityType.CAR,
+                    createdCars.stream().map(Car::getCarId).collect(Collectors.toList()),
+                    ChangeEvent.ChangeType.CREATED);
+            countService.evict(CAR_TABLE);
+            facetService.evictCarFacets();
+            return createdCars;
         } catch (DataIntegrityViolationException e) {
 
-            log.warn(ER_INTEGRITY_EXCEPTION_MSG, e);
+            log.warn("Data integrity violation exception occurred:", e);
 
-            throw new entityRelationshipIntegrityException(String.format(
-                    CAR_ALREADY_EXISTS, currentCar.getMake(), currentCar.getModel(),
-                    currentCar.getYear(), currentCar.getTrim()));
+            throw new entityRelationshipIntegrityException(CARS_ALREADY_EXIST);
         }
     }
 
     @Override
-    public Car updateCarMake(String make, Long carId) {
-
-        var currentCar = getCarById(carId);
-
-        log.debug("method = updateCarMake, currentCar: {}", currentCar);
+    public Car updateCar(Car updatedCar, Long userId, Long carId) {
+        return retryInTransaction("updateCar", () -> {
+
+            var optionalCar = carRepository.findById(carId);
+            var currentCar = optionalCar.orElseThrow(() -> new ObjectNotFoundException(
+                    String.format(CAR_ID_NOT_FOUND, carId)));
+
+            log.debug("method = updateCar, currentCar = {}", currentCar);
+
+            currentCar.setMake(updatedCar.getMake());
+            currentCar.setModel(updatedCar.getModel());
+            currentCar.setYear(updatedCar.getYear());
+            currentCar.setTrim(updatedCar.getTrim());
+            currentCar.setColor(updatedCar.getColor());
+            currentCar.setTransmission(updatedCar.getTransmission());
+            currentCar.setFuel(updatedCar.getFuel());
+            currentCar.setUser(userService.getUserById(userId));
+
+            log.debug("method = updateCar, updatedCar = {}", currentCar);
+
+            try {
+                var savedCar = carRepository.save(currentCar);
+                carRepository.flush();
+                changeFeedService.recordChange(ChangeEvent.EntityType.CAR, carId, ChangeEvent.ChangeType.UPDATED);
+                countService.evict(CAR_TABLE);
+                facetService.evictCarFacets();
+                publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+                return savedCar;
+            } catch (DataIntegrityViolationException e) {
+
+                log.warn(ER_INTEGRITY_EXCEPTION_MSG, e);
+
+                throw new entityRelationshipIntegrityException(String.format(
+                        CAR_ALREADY_EXISTS, currentCar.getMake(), currentCar.getModel(),
+                        currentCar.getYear(), currentCar.getTrim()));
+            }
+        });
+    }
 
-        currentCar.setMake(make);
+    @Override
+    public Car updateCarMake(String make, Long carId, Long expectedVersion) {
 
-        log.debug("method = updateCarMake, currentCar: {}", currentCar);
+        log.debug("method = updateCarMake, carId = {}, make = {}", carId, make);
 
         try {
-            return carRepository.save(currentCar);
+            var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                    carRepository.updateMakeByCarId(carId, make, version, updatedAt));
+            countService.evict(CAR_TABLE);
+            facetService.evictCarFacets();
+            publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+            return savedCar;
         } catch (DataIntegrityViolationException e) {
 
             log.warn(ER_INTEGRITY_EXCEPTION_MSG, e);
 
-            throw new entityRelationshipIntegrityException(String.format(CAR_ALREADY_EXISTS, currentCar.getMake(),
+            var currentCar = getCarById(carId);
+            throw new entityRelationshipIntegrityException(String.format(CAR_ALREADY_EXISTS, make,
                     currentCar.getModel(), currentCar.getYear(), currentCar.getTrim()));
         }
     }
 
     @Override
-    public Car updateCarModel(String model, Long carId) {
-
-        var currentCar = getCarById(carId);
-
-        log.debug("method = updateCarModel, currentCar: {}", currentCar);
+    public Car updateCarModel(String model, Long carId, Long expectedVersion) {
 
-        currentCar.setModel(model);
-
-        log.debug("method = updateCarModel, currentCar: {}", currentCar);
+        log.debug("method = updateCarModel, carId = {}, model = {}", carId, model);
 
         try {
-            return carRepository.save(currentCar);
+            var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                    carRepository.updateModelByCarId(carId, model, version, updatedAt));
+            publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+            return savedCar;
         } catch (DataIntegrityViolationException e) {
 
             log.warn(ER_INTEGRITY_EXCEPTION_MSG, e);
 
+            var currentCar = getCarById(carId);
             throw new entityRelationshipIntegrityException(String.format(CAR_ALREADY_EXISTS, currentCar.getMake(),
-                    currentCar.getModel(), currentCar.getYear(), currentCar.getTrim()));
+                    model, currentCar.getYear(), currentCar.getTrim()));
         }
     }
 
     @Override
-    public Car updateCarYear(Integer year, Long carId) {
-
-        var currentCar = getCarById(carId);
+    public Car updateCarYear(Integer year, Long carId, Long expectedVersion) {
 
-        log.debug("method = updateCarYear, currentCar: {}", currentCar);
-
-        currentCar.setYear(year);
-
-        log.debug("method = updateCarYear, currentCar: {}", currentCar);
+        log.debug("method = updateCarYear, carId = {}, year = {}", carId, year);
 
         try {
-            return carRepository.save(currentCar);
+            var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                    carRepository.updateYearByCarId(carId, year, version, updatedAt));
+            facetService.evictCarFacets();
+            publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+            return savedCar;
         } catch (DataIntegrityViolationException e) {
 
             log.warn(ER_INTEGRITY_EXCEPTION_MSG, e);
 
+            var currentCar = getCarById(carId);
             throw new entityRelationshipIntegrityException(String.format(CAR_ALREADY_EXISTS, currentCar.getMake(),
-                    currentCar.getModel(), currentCar.getYear(), currentCar.getTrim()));
+                    currentCar.getModel(), year, currentCar.getTrim()));
         }
     }
 
     @Override
-    public Car updateCarTrim(String trim, Long carId) {
-
-        var currentCar = getCarById(carId);
+    public Car updateCarTrim(String trim, Long carId, Long expectedVersion) {
 
-        log.debug("method = updateCarTrim, currentCar: {}", currentCar);
-
-        currentCar.setTrim(trim);
-
-        log.debug("method = updateCarTrim, currentCar: {}", currentCar);
+        log.debug("method = updateCarTrim, carId = {}, trim = {}", carId, trim);
 
         try {
-            return carRepository.save(currentCar);
+            var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                    carRepository.updateTrimByCarId(carId, trim, version, updatedAt));
+            publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+            return savedCar;
         } catch (DataIntegrityViolationException e) {
 
             log.warn(ER_INTEGRITY_EXCEPTION_MSG, e);
 
+            var currentCar = getCarById(carId);
             throw new entityRelationshipIntegrityException(String.format(CAR_ALREADY_EXISTS, currentCar.getMake(),
-                    currentCar.getModel(), currentCar.getYear(), currentCar.getTrim()));
+                    currentCar.getModel(), currentCar.getYear(), trim));
         }
     }
 
     @Override
-    public Car updateCarColor(String color, Long carId) {
+    public Car updateCarColor(String color, Long carId, Long expectedVersion) {
 
-        var currentCar = getCarById(carId);
+        log.debug("method = updateCarColor, carId = {}, color = {}", carId, color);
 
-        log.debug("method = updateCarColor, currentCar: {}", currentCar);
+        var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                carRepository.updateColorByCarId(carId, color, version, updatedAt));
+        publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+        return savedCar;
+    }
 
-        currentCar.setColor(color);
+    @Override
+    public Car updateCarTransmission(String transmission, Long carId, Long expectedVersion) {
 
-        log.debug("method = updateCarColor, currentCar: {}", currentCar);
+        log.debug("method = updateCarTransmission, carId = {}, transmission = {}", carId, transmission);
 
-        return carRepository.save(currentCar);
+        var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                carRepository.updateTransmissionByCarId(carId, transmission, version, updatedAt));
+        facetService.evictCarFacets();
+        publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+        return savedCar;
     }
 
     @Override
-    public Car updateCarTransmission(String transmission, Long carId) {
+    public Car updateCarFuel(String fuel, Long carId, Long expectedVersion) {
 
-        var currentCar = getCarById(carId);
+        log.debug("method = updateCarFuel, carId = {}, fuel = {}", carId, fuel);
 
-        log.debug("method = updateCarTransmission, currentCar: {}", currentCar);
+        var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                carRepository.updateFuelByCarId(carId, fuel, version, updatedAt));
+        facetService.evictCarFacets();
+        publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+        return savedCar;
+    }
 
-        currentCar.setTransmission(transmission);
+    @Override
+    public Car updateCarUser(Long userId, Long carId, Long expectedVersion) {
 
-        log.debug("method = updateCarTransmission, currentCar: {}", currentCar);
+        log.debug("method = updateCarUser, carId = {}, userId = {}", carId, userId);
 
-        return carRepository.save(currentCar);
+        var user = userService.getUserById(userId);
+        var savedCar = updateCarColumn(carId, expectedVersion, (version, updatedAt) ->
+                carRepository.updateUserByCarId(carId, user, version, updatedAt));
+        countService.evict(CAR_TABLE);
+        publishListingsChanged(findListingsIds(carId), ListingsChangedEvent.ChangeType.UPDATED);
+        return savedCar;
     }
 
-    @Override
-    public Car updateCarFuel(String fuel, Long carId) {
-
-        var currentCar = getCarById(carId);
+    /* A single UPDATE of the column, checked against the version If-Match named if any, then the car is read back.
+       No update means the car is gone or at another version, only then is the version looked up to tell which.
+       The change is recorded in the transaction of the UPDATE, which has ended when a failed UPDATE is handled */
+    private Car updateCarColumn(Long carId, Long expectedVersion, ToIntBiFunction<Long, Instant> columnUpdate) {
+
+        int updatedRows = transactionTemplate.execute(status -> {
+            var rows = columnUpdate.applyAsInt(expectedVersion, Instant.now());
+            if (rows > 0) {
+                changeFeedService.recordChange(ChangeEvent.EntityType.CAR, carId, ChangeEvent.ChangeType.UPDATED);
+            }
+            return rows;
+        });
+
+        log.debug("method = updateCarColumn, carId = {}, expectedVersion = {}, updatedRows = {}",
+                carId, expectedVersion, updatedRows);
+
+        if (updatedRows == 0) {
+            var carVersion = getCarVersion(carId);
+            throw new PreconditionFailedException(String.format(IF_MATCH_FAILED, carVersion.getVersion(),
+                    conditionalRequestService.toETag(expectedVersion)));
+        }
+        return getCarById(carId);
+    }
 
-        log.debug("method = updateCarFuel, currentCar: {}", currentCar);
+    /* The listings of the car are deleted with it, which is a new version of the users they belong to */
+    @Override
+    @Transactional
+    public void deleteCar(Long carId) {
 
-        currentCar.setFuel(fuel);
+        /* Runs before the car is loaded, the bulk update clears the persistence context */
+        var updatedUsers = userService.markUpdatedByListingsCarId(carId);
+        var carToDelete = carRepository.findById(carId).orElseThrow(() -> new ObjectNotFoundException(
+                String.format(CAR_ID_NOT_FOUND, carId)));
 
-        log.debug("method = updateCarFuel, currentCar: {}", currentCar);
+        log.debug("method = deleteCar, currentCar: {}, updated users = {}", carToDelete, updatedUsers);
 
-        return carRepository.save(currentCar);
+        var carListingsIds = findListingsIds(carId);
+        carRepository.delete(carToDelete);
+        changeFeedService.recordChange(ChangeEvent.EntityType.CAR, carId, ChangeEvent.ChangeType.DELETED);
+        countService.evict(CAR_TABLE);
+        facetService.evictCarFacets();
+        publishListingsChanged(carListingsIds, ListingsChangedEvent.ChangeType.DELETED);
     }
 
-    @Override
-    public Car updateCarUser(Long userId, Long carId) {
+    /* Each attempt runs in a transaction of its own, with the change it records */
+    private Car retryInTransaction(String operation, Supplier<Car> attempt) {
+        return optimisticLockRetryService.retryOnConflict(operation,
+                () -> transactionTemplate.execute(status -> attempt.get()));
+    }
 
-        var currentCar = getCarById(carId);
+    private List<Long> findListingsIds(Long carId) {
+        return listingRepository.findListingsIdsGroupedByCarId(List.of(carId)).getOrDefault(carId, List.of());
+    }
 
-        log.debug("method = updateCarUser, currentCar: {}", currentCar);
+    /* Listings show the attributes of their car, so car writes are published as changes of its listings */
+    private void publishListingsChanged(List<Long> listingsIds, ListingsChangedEvent.ChangeType changeType) {
+        if (!listingsIds.isEmpty()) {
+            eventPublisher.publishEvent(new ListingsChangedEvent(listingsIds, changeType));
+        }
+    }
 
-        currentCar.setUser(userService.getUserById(userId));
+    private Page<CarPublicResponseDTO> toCarPublicDTO(Page<CarProjection> carsPage) {
 
-        log.debug("method = updateCarUser, currentCar: {}", currentCar);
+        var carsIds = carsPage.map(CarProjection::getCarId).getContent();
 
-        return carRepository.save(currentCar);
+        return CarPublicResponseDTO.fromProjection(carsPage,
+                listingRepository.findListingsIdsGroupedByCarId(carsIds));
     }
 
-    @Override
-    public void deleteCar(Long carId) {
+    private CursorSliceResponseDTO<CarPublicResponseDTO> toCarPublicDTO(Slice<CarProjection> carsSlice,
+                                                                        String nextCursor) {
 
-        var carToDelete = carRepository.findById(carId);
+        var carsIds = carsSlice.map(CarProjection::getCarId).getContent();
 
-        log.debug("method = deleteCar, currentCar: {}", carToDelete);
+        return CarPublicResponseDTO.fromProjection(carsSlice,
+                listingRepository.findListingsIdsGroupedByCarId(carsIds), nextCursor);
+    }
 
-        carRepository.delete(carToDelete.orElseThrow(() -> new ObjectNotFoundException(
-                String.format(CAR_ID_NOT_FOUND, carId))));
+    private Long getLastCarId(Slice<CarProjection> carsSlice) {
+        return carsSlice.getContent().get(carsSlice.getNumberOfElements() - 1).getCarId();
     }
 }
@@ -0,0 +1,199 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.dtos.response.ExportFormat;
+import com.bruno.carlisting.repositories.CarRepository;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.projections.CarExportProjection;
+import com.bruno.carlisting.repositories.projections.ListingExportProjection;
+import com.bruno.carlisting.services.interfaces.CatalogExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/* Writes the whole catalog from one forward-only query, each row is written out and dropped before the next is
+   fetched, so memory stays flat whatever the size of the catalog */
+@Service
+@Slf4j
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final String[] CAR_COLUMNS = {"carId", "make", "model", "year", "trim", "color", "transmission",
+            "fuel", "userId", "updatedAt"};
+    private static final String[] LISTING_COLUMNS = {"listingId", "price", "mileage", "description", "carId",
+            "userId", "updatedAt"};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_ENCODING = "gzip";
+    private static final String ANY_ENCODING = "*";
+
+    private final CarRepository carRepository;
+    private final ListingRepository listingRepository;
+    private final ObjectMapper objectMapper;
+
+    public CatalogExportServiceImpl(CarRepository carRepository, ListingRepository listingRepository,
+                                    ObjectMapper objectMapper) {
+        this.carRepository = carRepository;
+        this.listingRepository = listingRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCars(ExportFormat format, boolean gzip, OutputStream output) throws IOException {
+
+        try (var cars = carRepository.streamCarsForExport()) {
+
+            var exportedRows = export(cars, CarExportProjection.class, CAR_COLUMNS, car -> new Object[]{
+                    car.getCarId(), car.getMake(), car.getModel(), car.getYear(), car.getTrim(), car.getColor(),
+                    car.getTransmission(), car.getFuel(), car.getUserId(), car.getUpdatedAt()}, format, gzip, output);
+
+            log.debug("method = exportCars, format = {}, gzip = {}, rows = {}", format, gzip, exportedRows);
+
+            return exportedRows;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportListings(ExportFormat format, boolean gzip, OutputStream output) throws IOException {
+
+        try (var listings = listingRepository.streamListingsForExport()) {
+
+            var exportedRows = export(listings, ListingExportProjection.class, LISTING_COLUMNS,
+                    listing -> new Object[]{listing.getListingId(), listing.getPrice(), listing.getMileage(),
+                            listing.getDescription(), listing.getCarId(), listing.getUserId(),
+                            listing.getUpdatedAt()}, format, gzip, output);
+
+            log.debug("method = exportListings, format = {}, gzip = {}, rows = {}", format, gzip, exportedRows);
+
+            return exportedRows;
+        }
+    }
+
+    @Override
+    public boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (var coding : acceptEncoding.split(",")) {
+            var parameters = coding.split(";");
+            var name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals(GZIP_ENCODING) || name.equals("x-" + GZIP_ENCODING)) {
+                gzipQuality = quality(parameters);
+            } else if (name.equals(ANY_ENCODING)) {
+                anyQuality = quality(parameters);
+            }
+        }
+        var quality = gzipQuality != null ? gzipQuality : anyQuality;
+        return quality != null && quality > 0;
+    }
+
+    /* The export runs after the handler returns, on an async request thread, so export must be called through the
+       service proxy to hold its own read-only transaction */
+    @Override
+    public ResponseEntity<StreamingResponseBody> toExportResponse(String rowsName, String format,
+                                                                  String acceptEncoding, Export export) {
+
+        var exportFormat = ExportFormat.fromParameter(format);
+        var gzip = acceptsGzip(acceptEncoding);
+
+        log.info("Exporting all {} as {}, gzip = {}", rowsName, exportFormat, gzip);
+
+        StreamingResponseBody rowsExport = output -> {
+            var exportedRows = export.write(exportFormat, gzip, output);
+
+            log.info("Exported {} {} as {}", exportedRows, rowsName, exportFormat);
+        };
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + rowsName + "." + exportFormat.getFileExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP_ENCODING);
+        }
+        return response.body(rowsExport);
+    }
+
+    private <T> long export(Stream<T> rows, Class<T> rowClass, String[] columns, Function<T, Object[]> values,
+                            ExportFormat format, boolean gzip, OutputStream output) throws IOException {
+
+        var gzipOutput = gzip ? new GZIPOutputStream(output, BUFFER_SIZE) : null;
+        var writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipOutput : output, StandardCharsets.UTF_8),
+                BUFFER_SIZE);
+        var rowWriter = objectMapper.writerFor(rowClass);
+        long exportedRows = 0;
+
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, columns);
+        }
+        for (var iterator = rows.iterator(); iterator.hasNext(); exportedRows++) {
+            var row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, values.apply(row));
+            } else {
+                writer.write(rowWriter.writeValueAsString(row));
+                writer.write('\n');
+            }
+        }
+
+        writer.flush();
+        if (gzipOutput != null) {
+            gzipOutput.finish();
+        }
+        return exportedRows;
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /* RFC 4180 quoting, only for values holding a separator, a quote or a line break */
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /* A missing or unreadable q parameter counts as the default quality of 1 and 0 respectively */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            var parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.ChangeFeedProperties;
+import com.bruno.carlisting.domain.ChangeEvent;
+import com.bruno.carlisting.dtos.response.change.ChangeFeedResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.repositories.ChangeEventRepository;
+import com.bruno.carlisting.services.interfaces.ChangeFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/* Transactional outbox of car, user, role and listing writes, a change is committed or rolled back with its write */
+@Service
+@Slf4j
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final String INSERT_CHANGE_EVENT =
+            "INSERT INTO change_event (entity_type, entity_id, change_type) VALUES (?, ?, ?)";
+
+    private final ChangeEventRepository changeEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChangeFeedProperties changeFeedProperties;
+    /* System.nanoTime at which each missing sequence was first seen, by the first sequence of its gap.
+       The clock of the reader, a writer's timestamps say nothing about when its sequence becomes visible */
+    private final Map<Long, Long> gapsFirstSeenAt = new ConcurrentHashMap<>();
+
+    public ChangeFeedServiceImpl(ChangeEventRepository changeEventRepository, JdbcTemplate jdbcTemplate,
+                                 ChangeFeedProperties changeFeedProperties) {
+        this.changeEventRepository = changeEventRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeFeedProperties = changeFeedProperties;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(ChangeEvent.EntityType entityType, Long entityId, ChangeEvent.ChangeType changeType) {
+
+        var changeEvent = changeEventRepository.save(new ChangeEvent(entityType, entityId, changeType));
+
+        log.debug("method = recordChange, changeSeq = {}, entityType = {}, entityId = {}, changeType = {}",
+                changeEvent.getChangeSeq(), entityType, entityId, changeType);
+    }
+
+    /* Hibernate inserts IDENTITY rows one statement at a time, a JDBC batch sends the rows of a whole batch or import
+       chunk at once. The sequence stays an identity, a pooled one would hand out sequences ahead of their inserts */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChanges(ChangeEvent.EntityType entityType, Collection<Long> entitiesIds,
+                              ChangeEvent.ChangeType changeType) {
+
+        log.debug("method = recordChanges, entityType = {}, number of entities = {}, changeType = {}",
+                entityType, entitiesIds.size(), changeType);
+
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_EVENT, entitiesIds.stream()
+                .map(entityId -> new Object[]{entityType.name(), entityId, changeType.name()})
+                .collect(Collectors.toList()));
+    }
+
+    /* Listing writes already announce themselves, including those made through their car or user.
+       Some of them are published after the write committed, those are recorded in a transaction of their own */
+    @EventListener
+    @Transactional
+    public void onListingsChanged(ListingsChangedEvent event) {
+        recordChanges(ChangeEvent.EntityType.LISTING, event.getListingsIds(),
+                ChangeEvent.ChangeType.valueOf(event.getChangeType().name()));
+    }
+
+    /* Serves the longest run of changes that can no longer be preceded by another one. A missing sequence is a write
+       still committing or one rolled back, changes after it are held back until the gap has been seen for the settle
+       time, then the missing sequence is taken as rolled back. A write committing later than that is never served */
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeedResponseDTO getChangesSince(Long since, int size) {
+
+        var now = System.nanoTime();
+        var settleNanos = changeFeedProperties.getSettleTime().toNanos();
+        gapsFirstSeenAt.values().removeIf(firstSeenAt -> now - firstSeenAt > 2 * settleNanos);
+
+        var candidates = changeEventRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(
+                since, PageRequest.of(0, size + 1));
+
+        List<ChangeEvent> changes = new ArrayList<>();
+        var expectedSeq = since + 1;
+        for (var candidate : candidates) {
+            if (changes.size() == size) {
+                break;
+            }
+            if (candidate.getChangeSeq() != expectedSeq &&
+                    now - gapsFirstSeenAt.computeIfAbsent(expectedSeq, missingSeq -> now) < settleNanos) {
+                break;
+            }
+            changes.add(candidate);
+            expectedSeq = candidate.getChangeSeq() + 1;
+        }
+        var hasMore = changes.size() == size && candidates.size() > size;
+
+        log.debug("method = getChangesSince, since = {}, size = {}, candidates = {}, number of changes = {}",
+                since, size, candidates.size(), changes.size());
+
+        return ChangeFeedResponseDTO.fromChanges(changes, since, hasMore);
+    }
+}
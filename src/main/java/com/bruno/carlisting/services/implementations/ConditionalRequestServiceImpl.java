@@ -0,0 +1,107 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.exceptions.PreconditionFailedException;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+@Service
+@Slf4j
+public class ConditionalRequestServiceImpl implements ConditionalRequestService {
+
+    public static final String IF_MATCH_FAILED = "Resource is at version %s, which does not match If-Match %s";
+
+    private static final String ANY_ETAG = "*";
+    private static final String ETAG_QUOTE = "\"";
+    private static final String ETAGS_SEPARATOR = ",";
+    private static final String MATCHED_VERSION_ATTRIBUTE = ConditionalRequestServiceImpl.class.getName() +
+            ".matchedVersion";
+
+    /* Versions only change with the representation, so they make strong ETags */
+    @Override
+    public String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /* HTTP dates have second precision, -1 leaves Last-Modified out */
+    @Override
+    public long toLastModified(Instant updatedAt) {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli() / 1000 * 1000;
+    }
+
+    /* Without If-Match the write is unconditional and the current version is not even looked up.
+       Whole entity updates read the version from the entity they are about to save: open session in view keeps
+       that entity for the update, whose version check then also rejects writes made after this one.
+       Weak ETags never match, If-Match uses the strong comparison */
+    @Override
+    public void checkIfMatch(String ifMatch, LongSupplier currentVersion) {
+
+        if (isUnconditional(ifMatch)) {
+            return;
+        }
+
+        var version = matchCurrentVersion(ifMatch, currentVersion);
+
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(MATCHED_VERSION_ATTRIBUTE, version, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /* The version single column updates put in the WHERE clause of their UPDATE, null for unconditional writes.
+       A single strong ETag is the expected version as it is, the UPDATE itself checks it against the current one.
+       Only lists of ETags, weak or malformed ones need the current version, which is then the expected one */
+    @Override
+    public Long getExpectedVersion(String ifMatch, LongSupplier currentVersion) {
+
+        if (isUnconditional(ifMatch)) {
+            return null;
+        }
+
+        var eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith(ETAG_QUOTE) && eTag.endsWith(ETAG_QUOTE)) {
+            try {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+
+                /* Not a version this service issued, it fails the comparison below */
+                log.debug("method = getExpectedVersion, ifMatch = {} is not a version", ifMatch);
+            }
+        }
+        return matchCurrentVersion(ifMatch, currentVersion);
+    }
+
+    /* Whether the current request checked If-Match against a version, outside requests nothing is conditional */
+    @Override
+    public boolean isConditionalWrite() {
+
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        return requestAttributes != null &&
+                requestAttributes.getAttribute(MATCHED_VERSION_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static boolean isUnconditional(String ifMatch) {
+        return ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals(ANY_ETAG);
+    }
+
+    private long matchCurrentVersion(String ifMatch, LongSupplier currentVersion) {
+
+        var version = currentVersion.getAsLong();
+        var eTag = toETag(version);
+        var matches = Arrays.stream(ifMatch.split(ETAGS_SEPARATOR)).map(String::trim).anyMatch(eTag::equals);
+
+        log.debug("method = matchCurrentVersion, ifMatch = {}, current eTag = {}, matches = {}",
+                ifMatch, eTag, matches);
+
+        if (!matches) {
+            throw new PreconditionFailedException(String.format(IF_MATCH_FAILED, version, ifMatch));
+        }
+        return version;
+    }
+}
@@ -0,0 +1,132 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.CountStrategy;
+import com.bruno.carlisting.config.PagingProperties;
+import com.bruno.carlisting.services.interfaces.CountService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Service
+@Slf4j
+public class CountServiceImpl implements CountService {
+
+    private static final String POSTGRES_ESTIMATE_QUERY =
+            "SELECT reltuples::bigint FROM pg_class WHERE relname = ?";
+    private static final String H2_ESTIMATE_QUERY =
+            "SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = ?";
+    private static final String CACHE_KEY_SEPARATOR = ":";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PagingProperties pagingProperties;
+    private final Map<String, CachedCount> cachedCounts = new ConcurrentHashMap<>();
+    /* Incremented on every eviction, counts computed while it changed are not cached */
+    private final AtomicLong evictions = new AtomicLong();
+
+    private String databaseProductName;
+
+    public CountServiceImpl(JdbcTemplate jdbcTemplate, PagingProperties pagingProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pagingProperties = pagingProperties;
+    }
+
+    @Override
+    public long count(String endpoint, String tableName, String filterKey, LongSupplier exactCount) {
+
+        var strategy = pagingProperties.getCountStrategy(endpoint);
+
+        log.debug("method = count, endpoint = {}, table = {}, filterKey = {}, strategy = {}",
+                endpoint, tableName, filterKey, strategy);
+
+        if (strategy == CountStrategy.APPROXIMATE && filterKey == null) {
+            var estimate = estimateRowCount(tableName);
+            if (estimate >= 0) {
+                return estimate;
+            }
+            return exactCount.getAsLong();
+        }
+        /* A filtered request of an approximate endpoint has no table estimate, it is counted exactly */
+        if (strategy != CountStrategy.CACHED) {
+            return exactCount.getAsLong();
+        }
+        return cachedCount(endpoint, tableName, filterKey, exactCount);
+    }
+
+    /* Called inside the writing transaction, the counts are dropped once it commits */
+    @Override
+    public void evict(String tableName) {
+        TransactionCallbacks.runAfterCommit(() -> {
+
+            log.debug("method = evict, table = {}", tableName);
+
+            evictions.incrementAndGet();
+            cachedCounts.keySet().removeIf(key -> key.startsWith(tableName + CACHE_KEY_SEPARATOR));
+        });
+    }
+
+    private long cachedCount(String endpoint, String tableName, String filterKey, LongSupplier exactCount) {
+
+        var key = String.join(CACHE_KEY_SEPARATOR, tableName, endpoint, String.valueOf(filterKey));
+        var now = System.nanoTime();
+        var cachedCount = cachedCounts.get(key);
+        if (cachedCount != null && cachedCount.expiresAt - now > 0) {
+            return cachedCount.count;
+        }
+
+        if (cachedCounts.size() >= pagingProperties.getCountCacheMaxEntries()) {
+            cachedCounts.values().removeIf(entry -> entry.expiresAt - now <= 0);
+            if (cachedCounts.size() >= pagingProperties.getCountCacheMaxEntries()) {
+                cachedCounts.clear();
+            }
+        }
+
+        var evictionsBefore = evictions.get();
+        var count = exactCount.getAsLong();
+        if (evictions.get() == evictionsBefore) {
+            cachedCounts.put(key, new CachedCount(count, now + pagingProperties.getCountCacheTtl().toNanos()));
+        }
+        return count;
+    }
+
+    /* Returns -1 when the database keeps no usable estimate for the table */
+    private long estimateRowCount(String tableName) {
+        try {
+            var productName = getDatabaseProductName();
+            Long estimate = null;
+            if ("PostgreSQL".equals(productName)) {
+                estimate = jdbcTemplate.queryForObject(POSTGRES_ESTIMATE_QUERY, Long.class, tableName);
+            } else if ("H2".equals(productName)) {
+                estimate = jdbcTemplate.queryForObject(H2_ESTIMATE_QUERY, Long.class, tableName.toUpperCase());
+            }
+            return estimate == null ? -1 : estimate;
+        } catch (DataAccessException | MetaDataAccessException e) {
+            log.warn("Could not estimate row count of table {}:", tableName, e);
+            return -1;
+        }
+    }
+
+    private String getDatabaseProductName() throws MetaDataAccessException {
+        if (databaseProductName == null) {
+            databaseProductName = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+        }
+        return databaseProductName;
+    }
+
+    @AllArgsConstructor
+    private static class CachedCount {
+
+        private final long count;
+        private final long expiresAt;
+    }
+}
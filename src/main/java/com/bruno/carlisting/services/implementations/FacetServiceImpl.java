@@ -0,0 +1,162 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.FacetProperties;
+import com.bruno.carlisting.dtos.response.FacetsResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.repositories.CarRepository;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.projections.FacetCountProjection;
+import com.bruno.carlisting.services.interfaces.FacetService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class FacetServiceImpl implements FacetService {
+
+    public static final String CAR_FACETS = "cars";
+    public static final String LISTING_FACETS = "listings";
+    public static final String UNKNOWN_FACET_VALUE = "Unknown";
+
+    private final CarRepository carRepository;
+    private final ListingRepository listingRepository;
+    private final FacetProperties facetProperties;
+    private final Map<String, CachedFacets> cachedFacets = new ConcurrentHashMap<>();
+    /* Incremented on every eviction, counts computed while it changed are not cached */
+    private final AtomicLong evictions = new AtomicLong();
+
+    public FacetServiceImpl(CarRepository carRepository, ListingRepository listingRepository,
+                            FacetProperties facetProperties) {
+        this.carRepository = carRepository;
+        this.listingRepository = listingRepository;
+        this.facetProperties = facetProperties;
+    }
+
+    @Override
+    public FacetsResponseDTO getCarFacets() {
+        return getFacets(CAR_FACETS, carRepository::countCarsByFacets);
+    }
+
+    @Override
+    public FacetsResponseDTO getListingFacets() {
+        return getFacets(LISTING_FACETS, listingRepository::countListingsByFacets);
+    }
+
+    @Override
+    public void evictCarFacets() {
+        TransactionCallbacks.runAfterCommit(() -> {
+
+            log.debug("method = evictCarFacets");
+
+            evictions.incrementAndGet();
+            cachedFacets.remove(CAR_FACETS);
+            cachedFacets.remove(LISTING_FACETS);
+        });
+    }
+
+    @Override
+    public void evictListingFacets() {
+
+        log.debug("method = evictListingFacets");
+
+        evictions.incrementAndGet();
+        cachedFacets.remove(LISTING_FACETS);
+    }
+
+    /* Covers listing writes, car updates and the listings deleted along with their user */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsChanged(ListingsChangedEvent event) {
+        evictListingFacets();
+    }
+
+    private FacetsResponseDTO getFacets(String cacheKey, Supplier<List<FacetCountProjection>> facetCounts) {
+
+        var now = System.nanoTime();
+        var cached = cachedFacets.get(cacheKey);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached.facets;
+        }
+
+        var evictionsBefore = evictions.get();
+        var facets = toFacets(facetCounts.get());
+        if (evictions.get() == evictionsBefore) {
+            cachedFacets.put(cacheKey, new CachedFacets(facets, now + facetProperties.getCacheTtl().toNanos()));
+        }
+
+        log.debug("method = getFacets, cacheKey = {}, total = {}", cacheKey, facets.getTotal());
+
+        return facets;
+    }
+
+    private FacetsResponseDTO toFacets(List<FacetCountProjection> facetCounts) {
+
+        Map<String, Long> makes = new HashMap<>();
+        Map<String, Long> fuels = new HashMap<>();
+        Map<String, Long> transmissions = new HashMap<>();
+        Map<Integer, Long> yearBuckets = new TreeMap<>(Comparator.reverseOrder());
+        long total = 0;
+
+        for (var facetCount : facetCounts) {
+            var count = facetCount.getCount();
+            total += count;
+            makes.merge(valueOrUnknown(facetCount.getMake()), count, Long::sum);
+            fuels.merge(valueOrUnknown(facetCount.getFuel()), count, Long::sum);
+            transmissions.merge(valueOrUnknown(facetCount.getTransmission()), count, Long::sum);
+            if (facetCount.getYear() != null) {
+                yearBuckets.merge(yearBucketStart(facetCount.getYear()), count, Long::sum);
+            }
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("make", byCountDescending(makes));
+        facets.put("fuel", byCountDescending(fuels));
+        facets.put("transmission", byCountDescending(transmissions));
+        Map<String, Long> years = new LinkedHashMap<>();
+        yearBuckets.forEach((bucketStart, count) -> years.put(yearBucketLabel(bucketStart), count));
+        facets.put("year", years);
+
+        return new FacetsResponseDTO(total, facets);
+    }
+
+    private int yearBucketStart(int year) {
+        return year - Math.floorMod(year, Math.max(1, facetProperties.getYearBucketSize()));
+    }
+
+    private String yearBucketLabel(int bucketStart) {
+        var bucketSize = facetProperties.getYearBucketSize();
+        return bucketSize <= 1 ? String.valueOf(bucketStart) : bucketStart + "-" + (bucketStart + bucketSize - 1);
+    }
+
+    private static String valueOrUnknown(String value) {
+        return value == null ? UNKNOWN_FACET_VALUE : value;
+    }
+
+    private static Map<String, Long> byCountDescending(Map<String, Long> counts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Long> sortedCounts = new LinkedHashMap<>();
+        entries.forEach(entry -> sortedCounts.put(entry.getKey(), entry.getValue()));
+        return sortedCounts;
+    }
+
+    @AllArgsConstructor
+    private static class CachedFacets {
+
+        private final FacetsResponseDTO facets;
+        private final long expiresAt;
+    }
+}
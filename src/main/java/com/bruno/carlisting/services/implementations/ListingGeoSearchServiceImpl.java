@@ -0,0 +1,229 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingNearbyResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import com.bruno.carlisting.exceptions.InvalidCursorException;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.LocationRepository;
+import com.bruno.carlisting.repositories.projections.LocationIdsProjection;
+import com.bruno.carlisting.services.interfaces.ListingGeoSearchService;
+import com.bruno.carlisting.services.interfaces.PagingService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.fetchCar;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.listingIdIn;
+import static com.bruno.carlisting.services.implementations.PagingServiceImpl.INVALID_CURSOR;
+
+@Service
+@Slf4j
+public class ListingGeoSearchServiceImpl implements ListingGeoSearchService {
+
+    public static final String NO_LISTINGS_NEAR = "No listings were found within %s km of %s, %s";
+    public static final String NO_LISTINGS_NEAR_AFTER_CURSOR =
+            "No listings were found within %s km of %s, %s after cursor %s";
+    public static final String CURSOR_NOT_ISSUED_FOR_POINT = "Cursor %s was not issued for a search around %s, %s";
+    /* Mean Earth radius */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double MAX_LATITUDE = 90;
+    private static final double MAX_LONGITUDE = 180;
+
+    /* Listings sit on their city center, so distances are computed per city: the bounding box is an index range scan
+       on city, haversine then drops the corners outside the radius and cities without listings. Every city left has
+       at least one listing, so the page and the next listing are found within two more cities than the page size, one
+       being the cursor city whose listings may all have been served.
+       LEAST keeps rounding errors from taking ASIN out of its domain */
+    private static final String NEARBY_CITIES_QUERY = "SELECT city_id, distance_km FROM (" +
+            "SELECT city_id, 2 * :earthRadius * ASIN(LEAST(1, SQRT(" +
+            "POWER(SIN(RADIANS(latitude - :latitude) / 2), 2) + " +
+            "COS(RADIANS(:latitude)) * COS(RADIANS(latitude)) * POWER(SIN(RADIANS(longitude - :longitude) / 2), 2)" +
+            "))) AS distance_km FROM city " +
+            "WHERE latitude BETWEEN :minLatitude AND :maxLatitude " +
+            "AND longitude BETWEEN :minLongitude AND :maxLongitude) nearby " +
+            "WHERE distance_km <= :radius AND (distance_km > :afterDistance " +
+            "OR (distance_km = :afterDistance AND city_id >= :afterCityId)) " +
+            "AND EXISTS (SELECT 1 FROM location WHERE location.city_id = nearby.city_id) " +
+            "ORDER BY distance_km, city_id LIMIT :limit";
+
+    /* Index range scan on (city ID, listing ID) */
+    private static final String CITY_LISTINGS_QUERY = "SELECT listing_id FROM location " +
+            "WHERE city_id = :cityId AND listing_id > :afterListingId ORDER BY listing_id LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ListingRepository listingRepository;
+    private final LocationRepository locationRepository;
+    private final PagingService pagingService;
+
+    public ListingGeoSearchServiceImpl(NamedParameterJdbcTemplate jdbcTemplate, ListingRepository listingRepository,
+                                       LocationRepository locationRepository, PagingService pagingService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.listingRepository = listingRepository;
+        this.locationRepository = locationRepository;
+        this.pagingService = pagingService;
+    }
+
+    /* Keyset pagination on (distance, city ID, listing ID), the cursor also carries the search center it was issued
+       for */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceResponseDTO<ListingNearbyResponseDTO> getListingsNear(double latitude, double longitude,
+                                                                            double radiusKm, String after,
+                                                                            int size) {
+
+        var afterDistance = -1.0;
+        var afterCityId = 0L;
+        var afterListingId = 0L;
+        if (!after.isBlank()) {
+            var sortKeys = pagingService.decodeCursor(after, 5);
+            if (!sortKeys.get(0).equals(String.valueOf(latitude)) ||
+                    !sortKeys.get(1).equals(String.valueOf(longitude))) {
+                throw new InvalidCursorException(String.format(CURSOR_NOT_ISSUED_FOR_POINT, after,
+                        latitude, longitude));
+            }
+            afterDistance = decodeCursorDistance(after, sortKeys.get(2));
+            afterCityId = pagingService.decodeCursorId(after, sortKeys.get(3));
+            afterListingId = pagingService.decodeCursorId(after, sortKeys.get(4));
+        }
+
+        var box = BoundingBox.around(latitude, longitude, radiusKm);
+        var parameters = new MapSqlParameterSource()
+                .addValue("earthRadius", EARTH_RADIUS_KM)
+                .addValue("latitude", latitude)
+                .addValue("longitude", longitude)
+                .addValue("minLatitude", box.minLatitude)
+                .addValue("maxLatitude", box.maxLatitude)
+                .addValue("minLongitude", box.minLongitude)
+                .addValue("maxLongitude", box.maxLongitude)
+                .addValue("radius", radiusKm)
+                .addValue("afterDistance", afterDistance)
+                .addValue("afterCityId", afterCityId)
+                .addValue("limit", size + 2);
+        var nearbyCities = jdbcTemplate.query(NEARBY_CITIES_QUERY, parameters,
+                (resultSet, rowNum) -> new NearbyCity(resultSet.getLong("city_id"),
+                        resultSet.getDouble("distance_km")));
+
+        List<NearbyListing> nearbyListings = new ArrayList<>();
+        for (var nearbyCity : nearbyCities) {
+            var cityParameters = new MapSqlParameterSource()
+                    .addValue("cityId", nearbyCity.cityId)
+                    .addValue("afterListingId", nearbyCity.cityId == afterCityId ? afterListingId : 0L)
+                    .addValue("limit", size + 1 - nearbyListings.size());
+            jdbcTemplate.query(CITY_LISTINGS_QUERY, cityParameters, (resultSet, rowNum) ->
+                    new NearbyListing(resultSet.getLong("listing_id"), nearbyCity.cityId, nearbyCity.distanceKm))
+                    .forEach(nearbyListings::add);
+            if (nearbyListings.size() > size) {
+                break;
+            }
+        }
+
+        var hasNext = nearbyListings.size() > size;
+        if (hasNext) {
+            nearbyListings = nearbyListings.subList(0, size);
+        }
+
+        log.debug("method = getListingsNear, latitude = {}, longitude = {}, radiusKm = {}, after = {}, " +
+                "page size = {}, number of listings = {}", latitude, longitude, radiusKm, after, size,
+                nearbyListings.size());
+
+        var nearbySlice = new SliceImpl<>(nearbyListings, PageRequest.of(0, size), hasNext);
+        pagingService.validateSlice(nearbySlice, after.isBlank() ?
+                String.format(NO_LISTINGS_NEAR, radiusKm, latitude, longitude) :
+                String.format(NO_LISTINGS_NEAR_AFTER_CURSOR, radiusKm, latitude, longitude, after));
+
+        var lastListing = nearbyListings.get(nearbyListings.size() - 1);
+        var nextCursor = hasNext ?
+                pagingService.encodeCursor(latitude, longitude, lastListing.distanceKm, lastListing.cityId,
+                        lastListing.listingId) : null;
+
+        return new CursorSliceResponseDTO<>(toNearbyDTO(nearbyListings), nearbySlice.getPageable(), hasNext,
+                nextCursor);
+    }
+
+    private List<ListingNearbyResponseDTO> toNearbyDTO(List<NearbyListing> nearbyListings) {
+
+        var listingsIds = nearbyListings.stream().map(nearbyListing -> nearbyListing.listingId)
+                .collect(Collectors.toList());
+        var listings = listingRepository.findAll(Specification.where(fetchCar()).and(listingIdIn(listingsIds)))
+                .stream().collect(Collectors.toMap(Listing::getListingId, Function.identity()));
+        var locations = locationRepository.findLocationsIdsByListingIds(listingsIds).stream()
+                .collect(Collectors.toMap(LocationIdsProjection::getListingId, Function.identity()));
+
+        List<ListingNearbyResponseDTO> nearbyListingsDTO = new ArrayList<>();
+        nearbyListings.forEach(nearbyListing -> {
+            var listing = listings.get(nearbyListing.listingId);
+            if (listing != null) {
+                nearbyListingsDTO.add(new ListingNearbyResponseDTO(nearbyListing.distanceKm,
+                        ListingPublicResponseDTO.toListingPublicDTO(listing, locations.get(listing.getListingId()))));
+            }
+        });
+        return nearbyListingsDTO;
+    }
+
+    private static double decodeCursorDistance(String cursor, String sortKey) {
+        try {
+            return Double.parseDouble(sortKey);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid cursor exception occurred:", e);
+            throw new InvalidCursorException(String.format(INVALID_CURSOR, cursor), e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class NearbyCity {
+
+        private final long cityId;
+        private final double distanceKm;
+    }
+
+    @AllArgsConstructor
+    private static class NearbyListing {
+
+        private final long listingId;
+        private final long cityId;
+        private final double distanceKm;
+    }
+
+    @AllArgsConstructor
+    private static class BoundingBox {
+
+        private final double minLatitude;
+        private final double maxLatitude;
+        private final double minLongitude;
+        private final double maxLongitude;
+
+        /* Boxes reaching a pole or crossing the antimeridian span every longitude */
+        private static BoundingBox around(double latitude, double longitude, double radiusKm) {
+
+            var angularRadius = radiusKm / EARTH_RADIUS_KM;
+            var minLatitude = latitude - Math.toDegrees(angularRadius);
+            var maxLatitude = latitude + Math.toDegrees(angularRadius);
+            if (minLatitude <= -MAX_LATITUDE || maxLatitude >= MAX_LATITUDE) {
+                return new BoundingBox(Math.max(minLatitude, -MAX_LATITUDE), Math.min(maxLatitude, MAX_LATITUDE),
+                        -MAX_LONGITUDE, MAX_LONGITUDE);
+            }
+
+            var longitudeDelta = Math.toDegrees(Math.asin(Math.sin(angularRadius) /
+                    Math.cos(Math.toRadians(latitude))));
+            var minLongitude = longitude - longitudeDelta;
+            var maxLongitude = longitude + longitudeDelta;
+            if (minLongitude < -MAX_LONGITUDE || maxLongitude > MAX_LONGITUDE) {
+                return new BoundingBox(minLatitude, maxLatitude, -MAX_LONGITUDE, MAX_LONGITUDE);
+            }
+            return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+        }
+    }
+}
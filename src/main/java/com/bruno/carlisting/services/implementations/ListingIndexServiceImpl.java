@@ -0,0 +1,368 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingIndexSearchResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.projections.ListingIndexProjection;
+import com.bruno.carlisting.services.interfaces.ListingIndexService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/* In-memory inverted index over listings and their car and location, searched without querying the database */
+@Service
+@Slf4j
+public class ListingIndexServiceImpl implements ListingIndexService {
+
+    private static final int INITIAL_RANGE_CAPACITY = 1024;
+
+    /* Attributes indexed with a bitmap of documents per value, named as the facets in search responses */
+    @AllArgsConstructor
+    private enum IndexedAttribute {
+
+        MAKE("make", ListingIndexProjection::getMake),
+        MODEL("model", ListingIndexProjection::getModel),
+        YEAR("year", ListingIndexProjection::getYear),
+        FUEL("fuel", ListingIndexProjection::getFuel),
+        TRANSMISSION("transmission", ListingIndexProjection::getTransmission),
+        COUNTRY("countryId", ListingIndexProjection::getCountryId),
+        STATE("stateId", ListingIndexProjection::getStateId),
+        CITY("cityId", ListingIndexProjection::getCityId);
+
+        private final String facetName;
+        private final Function<ListingIndexProjection, Object> extractor;
+    }
+
+    private final ListingRepository listingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /* Taken by the build and by each update from before it reads its listings until they are applied, so an older
+       read of a listing is never applied after a newer one. Searches only wait for the apply */
+    private final Lock updateLock = new ReentrantLock();
+
+    /* Listings are indexed by document number, numbers of removed listings are reused by the next ones added */
+    private final Map<Long, Integer> docsByListingId = new HashMap<>();
+    private final List<IndexedListing> docs = new ArrayList<>();
+    private final Deque<Integer> freeDocs = new ArrayDeque<>();
+    private final RoaringBitmap liveDocs = new RoaringBitmap();
+    private final Map<IndexedAttribute, Map<Object, RoaringBitmap>> attributeBitmaps =
+            new EnumMap<>(IndexedAttribute.class);
+    private final RangeIndex prices = new RangeIndex();
+    private final RangeIndex mileages = new RangeIndex();
+
+    public ListingIndexServiceImpl(ListingRepository listingRepository) {
+        this.listingRepository = listingRepository;
+        for (var attribute : IndexedAttribute.values()) {
+            attributeBitmaps.put(attribute, new HashMap<>());
+        }
+    }
+
+    /* Writes wait for the build to finish, so no listing change is lost between the load and the first search */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+
+        var start = System.currentTimeMillis();
+
+        updateLock.lock();
+        lock.writeLock().lock();
+        try {
+            docsByListingId.clear();
+            docs.clear();
+            freeDocs.clear();
+            liveDocs.clear();
+            attributeBitmaps.values().forEach(Map::clear);
+            prices.clear();
+            mileages.clear();
+
+            try (var listings = listingRepository.streamListingsForIndex()) {
+                listings.forEach(listing -> addListing(listing, false));
+            }
+            prices.sort();
+            mileages.sort();
+        } finally {
+            lock.writeLock().unlock();
+            updateLock.unlock();
+        }
+
+        log.info("Listing index built with {} listings in {} ms", docsByListingId.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    /* Runs after the write is committed, reading the changed listings in a transaction of its own */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onListingsChanged(ListingsChangedEvent event) {
+
+        List<ListingIndexProjection> listings;
+        updateLock.lock();
+        try {
+            listings = event.getChangeType() == ListingsChangedEvent.ChangeType.DELETED ? List.of() :
+                    listingRepository.findListingsForIndexByIds(event.getListingsIds());
+
+            lock.writeLock().lock();
+            try {
+                event.getListingsIds().forEach(this::removeListing);
+                listings.forEach(listing -> addListing(listing, true));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            updateLock.unlock();
+        }
+
+        log.debug("method = onListingsChanged, event = {}, indexed listings = {}", event, listings.size());
+    }
+
+    @Override
+    public ListingIndexSearchResponseDTO searchListings(ListingSearchRequestDTO searchRequestDTO, int limit) {
+
+        lock.readLock().lock();
+        try {
+            var matches = liveDocs.clone();
+            filter(matches, IndexedAttribute.MAKE, searchRequestDTO.getMake());
+            filter(matches, IndexedAttribute.MODEL, searchRequestDTO.getModel());
+            filter(matches, IndexedAttribute.FUEL, searchRequestDTO.getFuel());
+            filter(matches, IndexedAttribute.TRANSMISSION, searchRequestDTO.getTransmission());
+            filter(matches, IndexedAttribute.COUNTRY, searchRequestDTO.getCountryId());
+            filter(matches, IndexedAttribute.STATE, searchRequestDTO.getStateId());
+            filter(matches, IndexedAttribute.CITY, searchRequestDTO.getCityId());
+            filterYears(matches, searchRequestDTO.getMinYear(), searchRequestDTO.getMaxYear());
+            prices.filter(matches, searchRequestDTO.getMinPrice(), searchRequestDTO.getMaxPrice());
+            mileages.filter(matches, searchRequestDTO.getMinMileage(), searchRequestDTO.getMaxMileage());
+
+            List<Long> listingsIds = new ArrayList<>();
+            var docsIterator = matches.getIntIterator();
+            while (docsIterator.hasNext() && listingsIds.size() < limit) {
+                listingsIds.add(docs.get(docsIterator.next()).listingId);
+            }
+
+            log.debug("method = searchListings, searchRequestDTO = {}, limit = {}, matches = {}",
+                    searchRequestDTO, limit, matches.getLongCardinality());
+
+            return new ListingIndexSearchResponseDTO(matches.getLongCardinality(), listingsIds, countFacets(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addListing(ListingIndexProjection listing, boolean keepRangesSorted) {
+
+        var doc = freeDocs.isEmpty() ? docs.size() : freeDocs.pop();
+        var values = new Object[IndexedAttribute.values().length];
+        for (var attribute : IndexedAttribute.values()) {
+            var value = attribute.extractor.apply(listing);
+            values[attribute.ordinal()] = value;
+            if (value != null) {
+                attributeBitmaps.get(attribute).computeIfAbsent(value, key -> new RoaringBitmap()).add(doc);
+            }
+        }
+
+        var indexedListing = new IndexedListing(listing.getListingId(), listing.getPrice(), listing.getMileage(),
+                values);
+        if (doc == docs.size()) {
+            docs.add(indexedListing);
+        } else {
+            docs.set(doc, indexedListing);
+        }
+        docsByListingId.put(listing.getListingId(), doc);
+        liveDocs.add(doc);
+
+        if (keepRangesSorted) {
+            prices.insert(indexedListing.price, doc);
+            mileages.insert(indexedListing.mileage, doc);
+        } else {
+            prices.append(indexedListing.price, doc);
+            mileages.append(indexedListing.mileage, doc);
+        }
+    }
+
+    private void removeListing(Long listingId) {
+
+        var doc = docsByListingId.remove(listingId);
+        if (doc == null) {
+            return;
+        }
+
+        var indexedListing = docs.get(doc);
+        for (var attribute : IndexedAttribute.values()) {
+            var value = indexedListing.values[attribute.ordinal()];
+            if (value != null) {
+                var valueBitmaps = attributeBitmaps.get(attribute);
+                var bitmap = valueBitmaps.get(value);
+                bitmap.remove(doc);
+                if (bitmap.isEmpty()) {
+                    valueBitmaps.remove(value);
+                }
+            }
+        }
+        prices.remove(indexedListing.price, doc);
+        mileages.remove(indexedListing.mileage, doc);
+
+        liveDocs.remove(doc);
+        docs.set(doc, null);
+        freeDocs.push(doc);
+    }
+
+    private void filter(RoaringBitmap matches, IndexedAttribute attribute, Object value) {
+        if (value == null) {
+            return;
+        }
+        var bitmap = attributeBitmaps.get(attribute).get(value);
+        if (bitmap == null) {
+            matches.clear();
+        } else {
+            matches.and(bitmap);
+        }
+    }
+
+    private void filterYears(RoaringBitmap matches, Integer minYear, Integer maxYear) {
+        if (minYear == null && maxYear == null) {
+            return;
+        }
+        var years = new RoaringBitmap();
+        attributeBitmaps.get(IndexedAttribute.YEAR).forEach((year, bitmap) -> {
+            if ((minYear == null || (Integer) year >= minYear) && (maxYear == null || (Integer) year <= maxYear)) {
+                years.or(bitmap);
+            }
+        });
+        matches.and(years);
+    }
+
+    /* Facet values are ordered from the most to the least frequent, values without matches are left out */
+    private Map<String, Map<String, Integer>> countFacets(RoaringBitmap matches) {
+
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        for (var attribute : IndexedAttribute.values()) {
+
+            List<Map.Entry<String, Integer>> valueCounts = new ArrayList<>();
+            attributeBitmaps.get(attribute).forEach((value, bitmap) -> {
+                var count = RoaringBitmap.andCardinality(matches, bitmap);
+                if (count > 0) {
+                    valueCounts.add(Map.entry(String.valueOf(value), count));
+                }
+            });
+            valueCounts.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            Map<String, Integer> facet = new LinkedHashMap<>();
+            valueCounts.forEach(valueCount -> facet.put(valueCount.getKey(), valueCount.getValue()));
+            facets.put(attribute.facetName, facet);
+        }
+        return facets;
+    }
+
+    @AllArgsConstructor
+    private static class IndexedListing {
+
+        private final long listingId;
+        private final int price;
+        private final int mileage;
+        /* Indexed attribute values, by attribute ordinal */
+        private final Object[] values;
+    }
+
+    /* Sorted array of keys packing a value in the high 32 bits and a document number in the low 32 bits */
+    private static class RangeIndex {
+
+        private long[] keys = new long[INITIAL_RANGE_CAPACITY];
+        private int size;
+
+        private void clear() {
+            size = 0;
+        }
+
+        /* Appended keys are only searchable after the next sort */
+        private void append(int value, int doc) {
+            ensureCapacity();
+            keys[size++] = key(value, doc);
+        }
+
+        private void sort() {
+            Arrays.sort(keys, 0, size);
+        }
+
+        private void insert(int value, int doc) {
+            var key = key(value, doc);
+            var position = Arrays.binarySearch(keys, 0, size, key);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            ensureCapacity();
+            System.arraycopy(keys, position, keys, position + 1, size - position);
+            keys[position] = key;
+            size++;
+        }
+
+        private void remove(int value, int doc) {
+            var position = Arrays.binarySearch(keys, 0, size, key(value, doc));
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+            size--;
+        }
+
+        /* Collects whichever side of the range is smaller, the documents inside it or the ones outside */
+        private void filter(RoaringBitmap matches, Integer min, Integer max) {
+            if (min == null && max == null) {
+                return;
+            }
+            var from = min == null ? 0 : lowerBound(key(min, 0));
+            var to = max == null ? size : lowerBound(key(max + 1L, 0));
+            if (to - from <= size / 2) {
+                matches.and(docs(from, to));
+            } else {
+                var outside = docs(0, from);
+                outside.or(docs(to, size));
+                matches.andNot(outside);
+            }
+        }
+
+        private RoaringBitmap docs(int from, int to) {
+            var docs = new RoaringBitmap();
+            for (int i = from; i < to; i++) {
+                docs.add((int) keys[i]);
+            }
+            return docs;
+        }
+
+        private int lowerBound(long key) {
+            var position = Arrays.binarySearch(keys, 0, size, key);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        private void ensureCapacity() {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, keys.length * 2);
+            }
+        }
+
+        private static long key(long value, int doc) {
+            return value << 32 | doc;
+        }
+    }
+}
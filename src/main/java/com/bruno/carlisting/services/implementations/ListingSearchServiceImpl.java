@@ -0,0 +1,96 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.LocationRepository;
+import com.bruno.carlisting.repositories.projections.LocationIdsProjection;
+import com.bruno.carlisting.services.interfaces.ListingSearchService;
+import com.bruno.carlisting.services.interfaces.PagingService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.carAttributeEquals;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.carYearBetween;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.fetchCar;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.locatedIn;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.mileageBetween;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.priceBetween;
+
+@Service
+@Slf4j
+public class ListingSearchServiceImpl implements ListingSearchService {
+
+    public static final String NO_LISTINGS_FOUND = "No listings matching the search were found on page %s";
+    public static final String DESCENDING_SORT_PREFIX = "-";
+    /* Sort parameter values and the listing attributes they sort by */
+    private static final Map<String, String> SORT_ATTRIBUTES = Map.of(
+            "price", "price",
+            "mileage", "mileage",
+            "year", "car.year");
+
+    private final ListingRepository listingRepository;
+    private final LocationRepository locationRepository;
+    private final PagingService pagingService;
+
+    public ListingSearchServiceImpl(ListingRepository listingRepository, LocationRepository locationRepository,
+                                    PagingService pagingService) {
+        this.listingRepository = listingRepository;
+        this.locationRepository = locationRepository;
+        this.pagingService = pagingService;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ListingPublicResponseDTO> searchListings(ListingSearchRequestDTO searchRequestDTO, int page, int size,
+                                                         String sort) {
+
+        var pageRequest = PageRequest.of(page, size, toSort(sort));
+        var listingsPage = listingRepository.findAll(toSpecification(searchRequestDTO), pageRequest);
+
+        log.debug("method = searchListings, searchRequestDTO = {}, page number = {}, page size = {}, " +
+                        "sort = {}, number of listings = {}", searchRequestDTO, page, size, sort,
+                listingsPage.getNumberOfElements());
+
+        pagingService.validatePage(listingsPage, String.format(NO_LISTINGS_FOUND, page));
+
+        var listingsIds = listingsPage.map(Listing::getListingId).getContent();
+        var locations = locationRepository.findLocationsIdsByListingIds(listingsIds).stream()
+                .collect(Collectors.toMap(LocationIdsProjection::getListingId, Function.identity()));
+        return ListingPublicResponseDTO.toListingPublicDTO(listingsPage, locations);
+    }
+
+    private static Specification<Listing> toSpecification(ListingSearchRequestDTO searchRequestDTO) {
+        return Specification.where(fetchCar())
+                .and(priceBetween(searchRequestDTO.getMinPrice(), searchRequestDTO.getMaxPrice()))
+                .and(mileageBetween(searchRequestDTO.getMinMileage(), searchRequestDTO.getMaxMileage()))
+                .and(carAttributeEquals("make", searchRequestDTO.getMake()))
+                .and(carAttributeEquals("model", searchRequestDTO.getModel()))
+                .and(carYearBetween(searchRequestDTO.getMinYear(), searchRequestDTO.getMaxYear()))
+                .and(carAttributeEquals("fuel", searchRequestDTO.getFuel()))
+                .and(carAttributeEquals("transmission", searchRequestDTO.getTransmission()))
+                .and(locatedIn(searchRequestDTO.getCountryId(), searchRequestDTO.getStateId(),
+                        searchRequestDTO.getCityId()));
+    }
+
+    /* Listing ID breaks ties, so pages stay stable between requests */
+    private static Sort toSort(String sort) {
+        var listingIdSort = Sort.by("listingId");
+        if (sort == null || sort.isBlank()) {
+            return listingIdSort;
+        }
+        var descending = sort.startsWith(DESCENDING_SORT_PREFIX);
+        var attribute = SORT_ATTRIBUTES.get(descending ? sort.substring(DESCENDING_SORT_PREFIX.length()) : sort);
+        return Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, attribute).and(listingIdSort);
+    }
+}
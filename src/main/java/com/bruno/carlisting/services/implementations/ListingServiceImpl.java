@@ -0,0 +1,159 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.domain.City;
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.domain.Location;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.repositories.CityRepository;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.LocationRepository;
+import com.bruno.carlisting.services.interfaces.CarService;
+import com.bruno.carlisting.services.interfaces.ListingService;
+import com.bruno.carlisting.services.interfaces.ListingViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+@Slf4j
+public class ListingServiceImpl implements ListingService {
+
+    public static final String LISTING_ID_NOT_FOUND = "Listing ID %s not found";
+    public static final String CITY_ID_NOT_FOUND = "City ID %s not found";
+
+    private final ListingRepository listingRepository;
+    private final LocationRepository locationRepository;
+    private final CityRepository cityRepository;
+    private final CarService carService;
+    private final ListingViewService listingViewService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ListingServiceImpl(ListingRepository listingRepository, LocationRepository locationRepository,
+                              CityRepository cityRepository, CarService carService,
+                              ListingViewService listingViewService, ApplicationEventPublisher eventPublisher) {
+        this.listingRepository = listingRepository;
+        this.locationRepository = locationRepository;
+        this.cityRepository = cityRepository;
+        this.carService = carService;
+        this.listingViewService = listingViewService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public Listing getListingById(Long listingId) {
+
+        var listing = listingRepository.findById(listingId);
+
+        log.debug("method = getListingById, listing = {}", listing);
+
+        return listing.orElseThrow(() -> new ObjectNotFoundException(String.format(LISTING_ID_NOT_FOUND, listingId)));
+    }
+
+    /* Served from the listing view, a single row instead of the listing, its car and its location */
+    @Override
+    public ListingPublicResponseDTO getListingPublicById(Long listingId) {
+
+        var listingView = listingViewService.getListingView(listingId);
+
+        log.debug("method = getListingPublicById, listingId = {}", listingId);
+
+        return ListingPublicResponseDTO.toListingPublicDTO(listingView);
+    }
+
+    /* The listing belongs to the user responsible for the car */
+    @Override
+    @Transactional
+    public ListingPublicResponseDTO createListing(Listing newListing, Long carId, Long cityId) {
+
+        var car = carService.getCarById(carId);
+        var city = getCityById(cityId);
+
+        newListing.setCar(car);
+        newListing.setUser(car.getUser());
+        markOwnersUpdated(newListing);
+        var savedListing = listingRepository.save(newListing);
+
+        var state = city.getStateOfCity();
+        var location = locationRepository.save(new Location(savedListing, state.getCountryOfState(), state, city));
+
+        log.debug("method = createListing, savedListing ID = {}, carId = {}, cityId = {}",
+                savedListing.getListingId(), carId, cityId);
+
+        eventPublisher.publishEvent(new ListingsChangedEvent(List.of(savedListing.getListingId()),
+                ListingsChangedEvent.ChangeType.CREATED));
+
+        return ListingPublicResponseDTO.toListingPublicDTO(savedListing, location);
+    }
+
+    @Override
+    @Transactional
+    public ListingPublicResponseDTO updateListing(Listing updatedListing, Long carId, Long cityId, Long listingId) {
+
+        var currentListing = getListingById(listingId);
+        var city = getCityById(cityId);
+
+        currentListing.setPrice(updatedListing.getPrice());
+        currentListing.setMileage(updatedListing.getMileage());
+        currentListing.setDescription(updatedListing.getDescription());
+        if (!currentListing.getCar().getCarId().equals(carId)) {
+            markOwnersUpdated(currentListing);
+            var car = carService.getCarById(carId);
+            currentListing.setCar(car);
+            currentListing.setUser(car.getUser());
+            markOwnersUpdated(currentListing);
+        }
+        /* Flushed so the response carries the incremented version */
+        var savedListing = listingRepository.saveAndFlush(currentListing);
+
+        var state = city.getStateOfCity();
+        var location = locationRepository.findById(listingId)
+                .orElseGet(() -> new Location(savedListing, null, null, null));
+        location.setCountry(state.getCountryOfState());
+        location.setState(state);
+        location.setCity(city);
+        location.setLatitude(city.getLatitude());
+        location.setLongitude(city.getLongitude());
+        var savedLocation = locationRepository.save(location);
+
+        log.debug("method = updateListing, listingId = {}, carId = {}, cityId = {}", listingId, carId, cityId);
+
+        eventPublisher.publishEvent(new ListingsChangedEvent(List.of(listingId),
+                ListingsChangedEvent.ChangeType.UPDATED));
+
+        return ListingPublicResponseDTO.toListingPublicDTO(savedListing, savedLocation);
+    }
+
+    /* The listing location is removed by the database, its foreign key cascades on delete */
+    @Override
+    @Transactional
+    public void deleteListing(Long listingId) {
+
+        var listingToDelete = getListingById(listingId);
+
+        log.debug("method = deleteListing, listingToDelete ID = {}", listingToDelete.getListingId());
+
+        markOwnersUpdated(listingToDelete);
+        listingRepository.delete(listingToDelete);
+
+        eventPublisher.publishEvent(new ListingsChangedEvent(List.of(listingId),
+                ListingsChangedEvent.ChangeType.DELETED));
+    }
+
+    /* Cars and users show the IDs of their listings, adding or removing one is a new version of both */
+    private static void markOwnersUpdated(Listing listing) {
+        listing.getCar().markUpdated();
+        if (listing.getUser() != null) {
+            listing.getUser().markUpdated();
+        }
+    }
+
+    private City getCityById(Long cityId) {
+        return cityRepository.findById(cityId).orElseThrow(() -> new ObjectNotFoundException(
+                String.format(CITY_ID_NOT_FOUND, cityId)));
+    }
+}
@@ -0,0 +1,267 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.ListingStreamProperties;
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingViewResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.exceptions.SubscriptionLimitException;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.services.interfaces.ListingStreamService;
+import com.bruno.carlisting.services.interfaces.ListingViewService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/* Pushes created listings to the open streams whose search filters they match, matched in memory without a query
+   per stream. The listing card is read and serialized once, however many streams it is sent to */
+@Service
+@Slf4j
+public class ListingStreamServiceImpl implements ListingStreamService {
+
+    public static final String SUBSCRIPTIONS_METRIC = "carlisting.listing.stream.subscriptions";
+    public static final String OVERFLOWS_METRIC = "carlisting.listing.stream.overflows";
+    public static final String LISTING_EVENT = "listing";
+    public static final String SUBSCRIPTION_LIMIT_REACHED = "Open listing streams are limited to %s, retry later";
+
+    private final ListingRepository listingRepository;
+    private final ListingViewService listingViewService;
+    private final ListingStreamProperties streamProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong subscriptionIds = new AtomicLong();
+    private final ListingSubscriptionIndex<Subscription> subscriptionIndex = new ListingSubscriptionIndex<>();
+
+    /* Matches listings and queues heartbeats, never writes to a stream itself so it cannot be held by a client */
+    private final ScheduledExecutorService streamExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "listing-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /* Writes the queued events, at most one thread per stream at a time so a stream receives its events in order */
+    private final ExecutorService senderExecutor;
+
+    public ListingStreamServiceImpl(ListingRepository listingRepository, ListingViewService listingViewService,
+                                    ListingStreamProperties streamProperties, ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.listingRepository = listingRepository;
+        this.listingViewService = listingViewService;
+        this.streamProperties = streamProperties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        var senderThreads = new AtomicInteger();
+        senderExecutor = Executors.newFixedThreadPool(streamProperties.getSenderThreads(), runnable -> {
+            var thread = new Thread(runnable, "listing-stream-sender-" + senderThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        meterRegistry.gauge(SUBSCRIPTIONS_METRIC, this, ListingStreamServiceImpl::getSubscriptionsCount);
+
+        var heartbeatMillis = streamProperties.getHeartbeatInterval().toMillis();
+        streamExecutor.scheduleWithFixedDelay(this::queueHeartbeats, heartbeatMillis, heartbeatMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /* The stream opens with a comment, so clients know the subscription is registered before the first listing */
+    @Override
+    public SseEmitter subscribe(ListingSearchRequestDTO searchRequestDTO) {
+
+        var emitter = new SseEmitter(streamProperties.getTimeout().toMillis());
+        var subscription = new Subscription(subscriptionIds.incrementAndGet(), emitter,
+                streamProperties.getQueueCapacity());
+
+        lock.writeLock().lock();
+        try {
+            if (subscriptionIndex.size() >= streamProperties.getMaxSubscriptions()) {
+                throw new SubscriptionLimitException(String.format(SUBSCRIPTION_LIMIT_REACHED,
+                        streamProperties.getMaxSubscriptions()));
+            }
+            subscriptionIndex.add(subscription, searchRequestDTO);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        emitter.onCompletion(() -> streamEnded(subscription));
+        emitter.onTimeout(() -> streamEnded(subscription));
+        emitter.onError(e -> streamEnded(subscription));
+
+        log.debug("method = subscribe, subscriptionId = {}, searchRequestDTO = {}", subscription.id,
+                searchRequestDTO);
+
+        queue(subscription, SseEmitter.event().comment("subscribed"));
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriptionsCount() {
+        lock.readLock().lock();
+        try {
+            return subscriptionIndex.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* Runs after the write is committed, only new listings are streamed */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsChanged(ListingsChangedEvent event) {
+        if (event.getChangeType() == ListingsChangedEvent.ChangeType.CREATED && getSubscriptionsCount() > 0) {
+            streamExecutor.execute(() -> streamListings(event));
+        }
+    }
+
+    private void streamListings(ListingsChangedEvent event) {
+        try {
+            for (var listing : listingRepository.findListingsForIndexByIds(event.getListingsIds())) {
+
+                List<Subscription> subscriptions;
+                lock.readLock().lock();
+                try {
+                    subscriptions = subscriptionIndex.findMatches(listing);
+                } finally {
+                    lock.readLock().unlock();
+                }
+
+                log.debug("method = streamListings, listingId = {}, matching subscriptions = {}",
+                        listing.getListingId(), subscriptions.size());
+
+                if (subscriptions.isEmpty()) {
+                    continue;
+                }
+                var listingJson = objectMapper.writeValueAsString(ListingViewResponseDTO.toListingViewDTO(
+                        listingViewService.getListingView(listing.getListingId())));
+                subscriptions.forEach(subscription -> queue(subscription, SseEmitter.event()
+                        .id(String.valueOf(listing.getListingId()))
+                        .name(LISTING_EVENT)
+                        .data(listingJson, MediaType.APPLICATION_JSON)));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+
+            /* The listings are still found by searching, only their live notification is lost */
+            log.warn("Listing stream failed for event {}:", event, e);
+        }
+    }
+
+    private void queueHeartbeats() {
+
+        List<Subscription> subscriptions;
+        lock.readLock().lock();
+        try {
+            subscriptions = subscriptionIndex.getSubscribers();
+        } finally {
+            lock.readLock().unlock();
+        }
+        subscriptions.forEach(subscription -> queue(subscription, SseEmitter.event().comment("heartbeat")));
+    }
+
+    /* A full queue means the client stopped reading, its stream is closed rather than buffered without bound */
+    private void queue(Subscription subscription, SseEmitter.SseEventBuilder event) {
+
+        if (subscription.closed.get()) {
+            return;
+        }
+        if (!subscription.events.offer(event)) {
+
+            log.debug("method = queue, subscriptionId = {}, queue full, closing stream", subscription.id);
+
+            meterRegistry.counter(OVERFLOWS_METRIC).increment();
+            endSubscription(subscription);
+            subscription.events.clear();
+            scheduleSend(subscription);
+            return;
+        }
+        scheduleSend(subscription);
+    }
+
+    private void scheduleSend(Subscription subscription) {
+        if (subscription.sending.compareAndSet(false, true)) {
+            senderExecutor.execute(() -> sendQueued(subscription));
+        }
+    }
+
+    /* Runs on a sender thread, completes the stream there once it is closed so no other thread waits on its writes */
+    private void sendQueued(Subscription subscription) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!subscription.closed.get() && (event = subscription.events.poll()) != null) {
+                subscription.emitter.send(event);
+            }
+            if (subscription.closed.get() && subscription.completed.compareAndSet(false, true)) {
+                subscription.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+
+            /* The client went away, the container ends the request */
+            log.debug("method = sendQueued, subscriptionId = {}, failed = {}", subscription.id, e.getMessage());
+
+            streamEnded(subscription);
+        } finally {
+            subscription.sending.set(false);
+        }
+        /* Events or a close may have arrived while this thread still held the stream */
+        if (subscription.closed.get() ? !subscription.completed.get() : !subscription.events.isEmpty()) {
+            scheduleSend(subscription);
+        }
+    }
+
+    /* Called again by the emitter callbacks once the stream completes, only the first call removes anything */
+    private void endSubscription(Subscription subscription) {
+        subscription.closed.set(true);
+        lock.writeLock().lock();
+        try {
+            subscriptionIndex.remove(subscription);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* The container completes the stream itself, it must not be completed again */
+    private void streamEnded(Subscription subscription) {
+        subscription.completed.set(true);
+        endSubscription(subscription);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamExecutor.shutdown();
+        senderExecutor.shutdown();
+    }
+
+    private static class Subscription {
+
+        private final long id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> events;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Subscription(long id, SseEmitter emitter, int queueCapacity) {
+            this.id = id;
+            this.emitter = emitter;
+            this.events = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+}
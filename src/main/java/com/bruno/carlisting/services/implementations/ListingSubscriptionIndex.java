@@ -0,0 +1,149 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.repositories.projections.ListingIndexProjection;
+import lombok.AllArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/* Subscribers to new listings by their listing search filters. Every subscriber is kept under a single equality
+   filter value, those without equality filters are kept apart and checked against every listing. A listing is only
+   checked against the subscribers under its own values. Not thread safe, callers guard it */
+public class ListingSubscriptionIndex<T> {
+
+    /* Equality filters a subscriber can be indexed under, from the one expected to narrow listings the most */
+    @AllArgsConstructor
+    private enum IndexedFilter {
+
+        CITY(ListingIndexProjection::getCityId, ListingSearchRequestDTO::getCityId),
+        MODEL(ListingIndexProjection::getModel, ListingSearchRequestDTO::getModel),
+        STATE(ListingIndexProjection::getStateId, ListingSearchRequestDTO::getStateId),
+        MAKE(ListingIndexProjection::getMake, ListingSearchRequestDTO::getMake),
+        COUNTRY(ListingIndexProjection::getCountryId, ListingSearchRequestDTO::getCountryId),
+        FUEL(ListingIndexProjection::getFuel, ListingSearchRequestDTO::getFuel),
+        TRANSMISSION(ListingIndexProjection::getTransmission, ListingSearchRequestDTO::getTransmission);
+
+        private final Function<ListingIndexProjection, Object> listingValue;
+        private final Function<ListingSearchRequestDTO, Object> filterValue;
+    }
+
+    private final Map<IndexedFilter, Map<Object, Set<T>>> subscribersByFilter = new EnumMap<>(IndexedFilter.class);
+    private final Set<T> unindexedSubscribers = new LinkedHashSet<>();
+    private final Map<T, ListingSearchRequestDTO> filtersBySubscriber = new LinkedHashMap<>();
+
+    public ListingSubscriptionIndex() {
+        for (var filter : IndexedFilter.values()) {
+            subscribersByFilter.put(filter, new HashMap<>());
+        }
+    }
+
+    public void add(T subscriber, ListingSearchRequestDTO filters) {
+
+        if (filtersBySubscriber.putIfAbsent(subscriber, filters) != null) {
+            return;
+        }
+        var indexedFilter = indexedFilterOf(filters);
+        if (indexedFilter == null) {
+            unindexedSubscribers.add(subscriber);
+        } else {
+            subscribersByFilter.get(indexedFilter)
+                    .computeIfAbsent(indexedFilter.filterValue.apply(filters), value -> new LinkedHashSet<>())
+                    .add(subscriber);
+        }
+    }
+
+    /* Value sets left empty are dropped, so filter values nobody follows any more are not kept */
+    public boolean remove(T subscriber) {
+
+        var filters = filtersBySubscriber.remove(subscriber);
+        if (filters == null) {
+            return false;
+        }
+        var indexedFilter = indexedFilterOf(filters);
+        if (indexedFilter == null) {
+            unindexedSubscribers.remove(subscriber);
+        } else {
+            var filterSubscribers = subscribersByFilter.get(indexedFilter);
+            var filterValue = indexedFilter.filterValue.apply(filters);
+            var subscribers = filterSubscribers.get(filterValue);
+            subscribers.remove(subscriber);
+            if (subscribers.isEmpty()) {
+                filterSubscribers.remove(filterValue);
+            }
+        }
+        return true;
+    }
+
+    public List<T> findMatches(ListingIndexProjection listing) {
+
+        List<T> matches = new ArrayList<>();
+        for (var filter : IndexedFilter.values()) {
+            var value = filter.listingValue.apply(listing);
+            if (value != null) {
+                subscribersByFilter.get(filter).getOrDefault(value, Set.of()).stream()
+                        .filter(subscriber -> matches(filtersBySubscriber.get(subscriber), listing))
+                        .forEach(matches::add);
+            }
+        }
+        unindexedSubscribers.stream()
+                .filter(subscriber -> matches(filtersBySubscriber.get(subscriber), listing))
+                .forEach(matches::add);
+        return matches;
+    }
+
+    public List<T> getSubscribers() {
+        return new ArrayList<>(filtersBySubscriber.keySet());
+    }
+
+    public int size() {
+        return filtersBySubscriber.size();
+    }
+
+    /* Number of filter values subscribers are kept under */
+    public int getIndexedValuesCount() {
+        return subscribersByFilter.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private IndexedFilter indexedFilterOf(ListingSearchRequestDTO filters) {
+        for (var filter : IndexedFilter.values()) {
+            if (filter.filterValue.apply(filters) != null) {
+                return filter;
+            }
+        }
+        return null;
+    }
+
+    /* Same filters as the listing search, unset filters match every listing */
+    private static boolean matches(ListingSearchRequestDTO filters, ListingIndexProjection listing) {
+        return equalsIfSet(filters.getMake(), listing.getMake())
+                && equalsIfSet(filters.getModel(), listing.getModel())
+                && equalsIfSet(filters.getFuel(), listing.getFuel())
+                && equalsIfSet(filters.getTransmission(), listing.getTransmission())
+                && equalsIfSet(filters.getCountryId(), listing.getCountryId())
+                && equalsIfSet(filters.getStateId(), listing.getStateId())
+                && equalsIfSet(filters.getCityId(), listing.getCityId())
+                && between(listing.getYear(), filters.getMinYear(), filters.getMaxYear())
+                && between(listing.getPrice(), filters.getMinPrice(), filters.getMaxPrice())
+                && between(listing.getMileage(), filters.getMinMileage(), filters.getMaxMileage());
+    }
+
+    private static boolean equalsIfSet(Object filterValue, Object listingValue) {
+        return filterValue == null || Objects.equals(filterValue, listingValue);
+    }
+
+    private static boolean between(Integer value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+}
@@ -0,0 +1,305 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.ListingTextIndexProperties;
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.LocationRepository;
+import com.bruno.carlisting.repositories.projections.ListingIndexProjection;
+import com.bruno.carlisting.repositories.projections.LocationIdsProjection;
+import com.bruno.carlisting.services.interfaces.ListingTextSearchService;
+import com.bruno.carlisting.services.interfaces.PagingService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.fetchCar;
+import static com.bruno.carlisting.repositories.specifications.ListingSpecifications.listingIdIn;
+
+/* Lucene index of listing descriptions, with the structured search attributes indexed alongside as filters */
+@Service
+@Slf4j
+public class ListingTextSearchServiceImpl implements ListingTextSearchService {
+
+    public static final String NO_LISTINGS_MATCH_TEXT = "No listings matching \"%s\" were found on page %s";
+    public static final String TEXT_INDEX_EXCEPTION_MSG = "Listing text index could not be read or written";
+
+    private static final String LISTING_ID_FIELD = "listingId";
+    private static final String DESCRIPTION_FIELD = "description";
+    private static final String PRICE_FIELD = "price";
+    private static final String MILEAGE_FIELD = "mileage";
+    private static final String MAKE_FIELD = "make";
+    private static final String MODEL_FIELD = "model";
+    private static final String YEAR_FIELD = "year";
+    private static final String FUEL_FIELD = "fuel";
+    private static final String TRANSMISSION_FIELD = "transmission";
+    private static final String COUNTRY_ID_FIELD = "countryId";
+    private static final String STATE_ID_FIELD = "stateId";
+    private static final String CITY_ID_FIELD = "cityId";
+
+    private final ListingRepository listingRepository;
+    private final LocationRepository locationRepository;
+    private final PagingService pagingService;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final IndexWriter indexWriter;
+    private final SearcherManager searcherManager;
+    /* Held by the rebuild and by each event update while it reads and writes its listings. Events wait for the
+       rebuild and then read past its snapshot, and an older read of a listing is never written after a newer one */
+    private final Lock indexLock = new ReentrantLock();
+
+    public ListingTextSearchServiceImpl(ListingRepository listingRepository, LocationRepository locationRepository,
+                                        PagingService pagingService, ListingTextIndexProperties properties)
+            throws IOException {
+
+        this.listingRepository = listingRepository;
+        this.locationRepository = locationRepository;
+        this.pagingService = pagingService;
+
+        var directory = properties.getDirectory() == null || properties.getDirectory().isBlank() ?
+                new ByteBuffersDirectory() : FSDirectory.open(Path.of(properties.getDirectory()));
+        this.indexWriter = new IndexWriter(directory,
+                new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        this.searcherManager = new SearcherManager(indexWriter, null);
+    }
+
+    /* The index is rebuilt from the database on every start, an index directory only keeps it off the heap */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndex() {
+
+        var start = System.currentTimeMillis();
+
+        indexLock.lock();
+        try (var listings = listingRepository.streamListingsForIndex()) {
+            indexWriter.deleteAll();
+            for (var listing : (Iterable<ListingIndexProjection>) listings::iterator) {
+                indexWriter.updateDocument(new Term(LISTING_ID_FIELD, String.valueOf(listing.getListingId())),
+                        toDocument(listing));
+            }
+            indexWriter.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(TEXT_INDEX_EXCEPTION_MSG, e);
+        } finally {
+            indexLock.unlock();
+        }
+
+        log.info("Listing text index built with {} listings in {} ms", indexWriter.getDocStats().numDocs,
+                System.currentTimeMillis() - start);
+    }
+
+    /* Runs after the write is committed, reading the changed listings in a transaction of its own */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onListingsChanged(ListingsChangedEvent event) {
+
+        indexLock.lock();
+        try {
+            indexListings(event);
+        } finally {
+            indexLock.unlock();
+        }
+    }
+
+    private void indexListings(ListingsChangedEvent event) {
+
+        var listings = event.getChangeType() == ListingsChangedEvent.ChangeType.DELETED ?
+                List.<ListingIndexProjection>of() : listingRepository.findListingsForIndexByIds(event.getListingsIds());
+
+        /* Listings not found anymore were deleted after the event was published */
+        var deletedListingsIds = new HashSet<>(event.getListingsIds());
+        try {
+            for (var listing : listings) {
+                deletedListingsIds.remove(listing.getListingId());
+                indexWriter.updateDocument(new Term(LISTING_ID_FIELD, String.valueOf(listing.getListingId())),
+                        toDocument(listing));
+            }
+            for (var listingId : deletedListingsIds) {
+                indexWriter.deleteDocuments(new Term(LISTING_ID_FIELD, String.valueOf(listingId)));
+            }
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(TEXT_INDEX_EXCEPTION_MSG, e);
+        }
+
+        log.debug("method = indexListings, event = {}, indexed listings = {}", event, listings.size());
+    }
+
+    @PreDestroy
+    public void closeIndex() throws IOException {
+        searcherManager.close();
+        indexWriter.close();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ListingPublicResponseDTO> searchListings(String text, ListingSearchRequestDTO searchRequestDTO,
+                                                         int page, int size) {
+
+        var pageRequest = PageRequest.of(page, size);
+        List<Long> listingsIds = new ArrayList<>();
+        long totalHits;
+
+        try {
+            var searcher = searcherManager.acquire();
+            try {
+                var collector = TopScoreDocCollector.create((page + 1) * size, Integer.MAX_VALUE);
+                searcher.search(toQuery(text, searchRequestDTO), collector);
+                totalHits = collector.getTotalHits();
+                for (var scoreDoc : collector.topDocs(page * size, size).scoreDocs) {
+                    listingsIds.add(Long.valueOf(searcher.doc(scoreDoc.doc).get(LISTING_ID_FIELD)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(TEXT_INDEX_EXCEPTION_MSG, e);
+        }
+
+        log.debug("method = searchListings, text = {}, searchRequestDTO = {}, page number = {}, page size = {}, " +
+                "total hits = {}", text, searchRequestDTO, page, size, totalHits);
+
+        var listingsPage = new PageImpl<>(findListingsInOrder(listingsIds), pageRequest, totalHits);
+        pagingService.validatePage(listingsPage, String.format(NO_LISTINGS_MATCH_TEXT, text, page));
+
+        var locations = locationRepository.findLocationsIdsByListingIds(listingsIds).stream()
+                .collect(Collectors.toMap(LocationIdsProjection::getListingId, Function.identity()));
+        return ListingPublicResponseDTO.toListingPublicDTO(listingsPage, locations);
+    }
+
+    /* Keeps the relevance order of the hits, leaving out listings deleted since the index was searched */
+    private List<Listing> findListingsInOrder(List<Long> listingsIds) {
+
+        if (listingsIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Listing> listings = listingRepository.findAll(Specification.where(fetchCar())
+                        .and(listingIdIn(listingsIds))).stream()
+                .collect(Collectors.toMap(Listing::getListingId, Function.identity()));
+
+        List<Listing> orderedListings = new ArrayList<>();
+        for (var listingId : listingsIds) {
+            var listing = listings.get(listingId);
+            if (listing != null) {
+                orderedListings.add(listing);
+            }
+        }
+        return orderedListings;
+    }
+
+    private Query toQuery(String text, ListingSearchRequestDTO searchRequestDTO) {
+
+        var textQuery = new SimpleQueryParser(analyzer, DESCRIPTION_FIELD).parse(text);
+        var query = new BooleanQuery.Builder()
+                .add(textQuery == null ? new MatchNoDocsQuery() : textQuery, BooleanClause.Occur.MUST);
+
+        addRangeFilter(query, PRICE_FIELD, searchRequestDTO.getMinPrice(), searchRequestDTO.getMaxPrice());
+        addRangeFilter(query, MILEAGE_FIELD, searchRequestDTO.getMinMileage(), searchRequestDTO.getMaxMileage());
+        addRangeFilter(query, YEAR_FIELD, searchRequestDTO.getMinYear(), searchRequestDTO.getMaxYear());
+        addTermFilter(query, MAKE_FIELD, searchRequestDTO.getMake());
+        addTermFilter(query, MODEL_FIELD, searchRequestDTO.getModel());
+        addTermFilter(query, FUEL_FIELD, searchRequestDTO.getFuel());
+        addTermFilter(query, TRANSMISSION_FIELD, searchRequestDTO.getTransmission());
+        if (searchRequestDTO.getCountryId() != null) {
+            query.add(IntPoint.newExactQuery(COUNTRY_ID_FIELD, searchRequestDTO.getCountryId()),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (searchRequestDTO.getStateId() != null) {
+            query.add(IntPoint.newExactQuery(STATE_ID_FIELD, searchRequestDTO.getStateId()),
+                    BooleanClause.Occur.FILTER);
+        }
+        if (searchRequestDTO.getCityId() != null) {
+            query.add(LongPoint.newExactQuery(CITY_ID_FIELD, searchRequestDTO.getCityId()),
+                    BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /* Filters do not take part in relevance scoring */
+    private static void addRangeFilter(BooleanQuery.Builder query, String field, Integer min, Integer max) {
+        if (min != null || max != null) {
+            query.add(IntPoint.newRangeQuery(field, min == null ? Integer.MIN_VALUE : min,
+                    max == null ? Integer.MAX_VALUE : max), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private static void addTermFilter(BooleanQuery.Builder query, String field, String value) {
+        if (value != null) {
+            query.add(new TermQuery(new Term(field, value)), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private static Document toDocument(ListingIndexProjection listing) {
+
+        var document = new Document();
+        document.add(new StringField(LISTING_ID_FIELD, String.valueOf(listing.getListingId()), Field.Store.YES));
+        document.add(new TextField(DESCRIPTION_FIELD, listing.getDescription(), Field.Store.NO));
+        document.add(new IntPoint(PRICE_FIELD, listing.getPrice()));
+        document.add(new IntPoint(MILEAGE_FIELD, listing.getMileage()));
+        document.add(new IntPoint(YEAR_FIELD, listing.getYear()));
+        addKeyword(document, MAKE_FIELD, listing.getMake());
+        addKeyword(document, MODEL_FIELD, listing.getModel());
+        addKeyword(document, FUEL_FIELD, listing.getFuel());
+        addKeyword(document, TRANSMISSION_FIELD, listing.getTransmission());
+        if (listing.getCountryId() != null) {
+            document.add(new IntPoint(COUNTRY_ID_FIELD, listing.getCountryId()));
+        }
+        if (listing.getStateId() != null) {
+            document.add(new IntPoint(STATE_ID_FIELD, listing.getStateId()));
+        }
+        if (listing.getCityId() != null) {
+            document.add(new LongPoint(CITY_ID_FIELD, listing.getCityId()));
+        }
+        return document;
+    }
+
+    private static void addKeyword(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new StringField(field, value, Field.Store.NO));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.domain.ListingView;
+import com.bruno.carlisting.events.ListingsChangedEvent;
+import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.repositories.ListingViewRepository;
+import com.bruno.carlisting.services.interfaces.ListingViewService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.bruno.carlisting.services.implementations.ListingServiceImpl.LISTING_ID_NOT_FOUND;
+
+/* Keeps the listing_view read model in step with the write side, off the request threads that changed it */
+@Service
+@Slf4j
+public class ListingViewServiceImpl implements ListingViewService {
+
+    public static final String LISTING_VIEW_REBUILD_FAILED = "Listing view could not be rebuilt";
+
+    private final ListingViewRepository listingViewRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /* A single thread applies refreshes in commit order, so an older refresh never overwrites a newer one */
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        var thread = new Thread(runnable, "listing-view-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ListingViewServiceImpl(ListingViewRepository listingViewRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.listingViewRepository = listingViewRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /* Listings changed moments ago may not have their row yet, those are read through the joins instead */
+    @Override
+    @Transactional(readOnly = true)
+    public ListingView getListingView(Long listingId) {
+
+        var listingView = listingViewRepository.findByListingIdIfListed(listingId);
+
+        log.debug("method = getListingView, listingId = {}, found in view = {}", listingId, listingView.isPresent());
+
+        return listingView.or(() -> listingViewRepository.computeListingViewByListingId(listingId))
+                .orElseThrow(() -> new ObjectNotFoundException(String.format(LISTING_ID_NOT_FOUND, listingId)));
+    }
+
+    /* Waits for the rebuild, which runs on the refresh thread so it cannot interleave with refreshes */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildListingViews() {
+        try {
+            refreshExecutor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                listingViewRepository.deleteAllListingViews();
+                var rebuiltRows = listingViewRepository.insertAllListingViews();
+
+                log.info("Listing view rebuilt with {} listings", rebuiltRows);
+            })).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(LISTING_VIEW_REBUILD_FAILED, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(LISTING_VIEW_REBUILD_FAILED, e);
+        }
+    }
+
+    /* Runs after the write is committed, every change type rewrites the rows of the listings from the database */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingsChanged(ListingsChangedEvent event) {
+        refreshExecutor.execute(() -> refreshListingViews(event));
+    }
+
+    /* Rows of deleted listings go in the deleting transaction, they are never served once it commits */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onListingsDeleted(ListingsChangedEvent event) {
+        if (event.getChangeType() != ListingsChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            var deletedRows = listingViewRepository.deleteListingViewsByListingIds(event.getListingsIds());
+
+            log.debug("method = onListingsDeleted, event = {}, deleted rows = {}", event, deletedRows);
+        });
+    }
+
+    private void refreshListingViews(ListingsChangedEvent event) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                var listingsIds = event.getListingsIds();
+                listingViewRepository.deleteListingViewsByListingIds(listingsIds);
+                var refreshedRows = listingViewRepository.insertListingViewsByListingIds(listingsIds);
+
+                log.debug("method = refreshListingViews, event = {}, refreshed rows = {}", event, refreshedRows);
+            });
+        } catch (RuntimeException e) {
+
+            /* Rows stay stale until the listings change again or the view is rebuilt */
+            log.warn("Listing view refresh failed for event {}:", event, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bruno.carlisting.services.implementations;
+
+import com.bruno.carlisting.config.OptimisticLockRetryProperties;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import com.bruno.carlisting.services.interfaces.OptimisticLockRetryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/* Retries writes that lost a version check, instead of locking rows for every write to prevent the conflict */
+@Service
+@Slf4j
+public class OptimisticLockRetryServiceImpl implements OptimisticLockRetryService {
+
+    public static final String CONFLICTS_METRIC = "carlisting.optimistic.lock.conflicts";
+    public static final String OUTCOMES_METRIC = "carlisting.optimistic.lock.outcomes";
+    public static final String OPERATION_TAG = "operation";
+    public static final String OUTCOME_TAG = "outcome";
+    public static final String RECOVERED = "recovered";
+    public static final String EXHAUSTED = "exhausted";
+    public static final String CONDITIONAL = "conditional";
+    public static final String INTERRUPTED = "interrupted";
+
+    private final OptimisticLockRetryProperties retryProperties;
+    private final ConditionalRequestService conditionalRequestService;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticLockRetryServiceImpl(OptimisticLockRetryProperties retryProperties,
+                                          ConditionalRequestService conditionalRequestService,
+                                          MeterRegistry meterRegistry) {
+        this.retryProperties = retryProperties;
+        this.conditionalRequestService = conditionalRequestService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /* Every attempt reads the entity again: a failed transaction clears the persistence context it ran in.
+       Each attempt must therefore commit on its own, callers are not run inside a transaction */
+    @Override
+    public <T> T retryOnConflict(String operation, Supplier<T> attempt) {
+
+        for (var attemptNumber = 1; ; attemptNumber++) {
+            try {
+                var result = attempt.get();
+                if (attemptNumber > 1) {
+                    countOutcome(operation, RECOVERED);
+                }
+                return result;
+            } catch (ObjectOptimisticLockingFailureException e) {
+
+                meterRegistry.counter(CONFLICTS_METRIC, OPERATION_TAG, operation).increment();
+
+                log.debug("method = retryOnConflict, operation = {}, attempt = {}, conflict = {}",
+                        operation, attemptNumber, e.getMessage());
+
+                /* Retrying would apply the write to a newer version than the one the client named */
+                if (conditionalRequestService.isConditionalWrite()) {
+                    countOutcome(operation, CONDITIONAL);
+                    throw e;
+                }
+                if (attemptNumber >= retryProperties.getMaxAttempts()) {
+                    countOutcome(operation, EXHAUSTED);
+                    log.warn("Operation {} gave up after {} conflicting attempts", operation, attemptNumber);
+                    throw e;
+                }
+                if (!pause(attemptNumber)) {
+                    countOutcome(operation, INTERRUPTED);
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /* Full jitter, so writers that conflicted once do not collide again on the next attempt */
+    private boolean pause(int attemptNumber) {
+
+        var ceiling = Math.min(retryProperties.getMaxBackoff().toMillis(),
+                retryProperties.getInitialBackoff().toMillis() << Math.min(attemptNumber - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void countOutcome(String operation, String outcome) {
+        meterRegistry.counter(OUTCOMES_METRIC, OPERATION_TAG, operation, OUTCOME_TAG, outcome).increment();
+    }
+}
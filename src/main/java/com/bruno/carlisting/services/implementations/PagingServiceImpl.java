@@ -1,15 +1,29 @@
 package com.bruno.carlisting.services.implementations;
 
+import com.bruno.carlisting.exceptions.InvalidCursorException;
 import com.bruno.carlisting.exceptions.ObjectNotFoundException;
 import com.bruno.carlisting.services.interfaces.PagingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
 @Service
 @Slf4j
 public class PagingServiceImpl implements PagingService {
 
+    public static final String INVALID_CURSOR = "Cursor %s is not valid for this request";
+
+    private static final String CURSOR_KEYS_SEPARATOR = "\u001F";
+
     @Override
     public void validatePage(Page<?> page, String message) {
         if (page.getTotalElements() == 0) {
@@ -24,4 +38,53 @@ public class PagingServiceImpl implements PagingService {
                             message, page.getTotalElements(), page.getTotalPages() - 1));
         }
     }
+
+    @Override
+    public void validateSlice(Slice<?> slice, String message) {
+        if (!slice.hasContent()) {
+            log.warn("Object not found exception occurred:");
+            throw new ObjectNotFoundException(message);
+        }
+    }
+
+    /* Only asks for the total when it cannot be deduced from a last page that is not empty */
+    @Override
+    public <T> Page<T> toPage(Slice<T> slice, LongSupplier totalElements) {
+        if (slice.hasContent() && !slice.hasNext()) {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(),
+                    slice.getPageable().getOffset() + slice.getNumberOfElements());
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), totalElements.getAsLong());
+    }
+
+    @Override
+    public String encodeCursor(Object... sortKeys) {
+        var cursor = Arrays.stream(sortKeys).map(String::valueOf).collect(Collectors.joining(CURSOR_KEYS_SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public List<String> decodeCursor(String cursor, int sortKeysCount) {
+        try {
+            var sortKeys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split(CURSOR_KEYS_SEPARATOR, -1);
+            if (sortKeys.length != sortKeysCount) {
+                throw new InvalidCursorException(String.format(INVALID_CURSOR, cursor));
+            }
+            return List.of(sortKeys);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid cursor exception occurred:", e);
+            throw new InvalidCursorException(String.format(INVALID_CURSOR, cursor), e);
+        }
+    }
+
+    @Override
+    public Long decodeCursorId(String cursor, String sortKey) {
+        try {
+            return Long.valueOf(sortKey);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid cursor exception occurred:", e);
+            throw new InvalidCursorException(String.format(INVALID_CURSOR, cursor), e);
+        }
+    }
 }
@@ -1,9 +1,14 @@
 package com.bruno.carlisting.services.implementations;
 
+import com.bruno.carlisting.domain.ChangeEvent;
 import com.bruno.carlisting.domain.Role;
+import com.bruno.carlisting.dtos.response.role.RolePublicResponseDTO;
 import com.bruno.carlisting.exceptions.ObjectNotFoundException;
 import com.bruno.carlisting.exceptions.entityRelationshipIntegrityException;
 import com.bruno.carlisting.repositories.RoleRepository;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
+import com.bruno.carlisting.services.interfaces.ChangeFeedService;
+import com.bruno.carlisting.services.interfaces.CountService;
 import com.bruno.carlisting.services.interfaces.PagingService;
 import com.bruno.carlisting.services.interfaces.RoleService;
 import lombok.extern.slf4j.Slf4j;
@@ -11,25 +16,41 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class RoleServiceImpl implements RoleService {
 
     public static final String ROLE_ID_NOT_FOUND = "Role ID %s not found";
+    public static final String ROLES_IDS_NOT_FOUND = "Roles IDs %s not found";
     public static final String PAGE_HAS_NO_ROLES = "Page %s has no roles";
+    public static final String ROLE_TABLE = "role";
+    public static final String ROLES_ALL_ENDPOINT = "roles-all";
     public static final String ROLE_ALREADY_EXISTS = "Role %s already exists";
     public static final String NO_ROLES_ASSOCIATED_TO_USER = "There are no roles associated to user ID %s";
 
     private final RoleRepository roleRepository;
     private final PagingService pagingService;
+    private final CountService countService;
+    private final ChangeFeedService changeFeedService;
+    private final EntityManager entityManager;
 
-    public RoleServiceImpl(RoleRepository roleRepository, PagingService pagingService) {
+    public RoleServiceImpl(RoleRepository roleRepository, PagingService pagingService, CountService countService,
+                           ChangeFeedService changeFeedService, EntityManager entityManager) {
         this.roleRepository = roleRepository;
         this.pagingService = pagingService;
+        this.countService = countService;
+        this.changeFeedService = changeFeedService;
+        this.entityManager = entityManager;
     }
 
     @Override
@@ -55,6 +76,54 @@ public class RoleServiceImpl implements RoleService {
         return role.orElseThrow(() -> new ObjectNotFoundException(String.format(ROLE_ID_NOT_FOUND, roleId)));
     }
 
+    /* Version columns only, the role itself is not loaded */
+    @Override
+    public VersionProjection getRoleVersion(Integer roleId) {
+
+        var roleVersion = roleRepository.findVersionByRoleId(roleId);
+
+        log.debug("method = getRoleVersion, roleId = {}, found = {}", roleId, roleVersion.isPresent());
+
+        return roleVersion.orElseThrow(() -> new ObjectNotFoundException(String.format(ROLE_ID_NOT_FOUND, roleId)));
+    }
+
+    /* Roles held by the second-level cache are read from it, findAllById always queries the database.
+       The roles missing from the cache are then loaded with a single IN query */
+    @Override
+    public List<Role> getRolesByIds(List<Integer> rolesIds) {
+
+        var uniqueRolesIds = new LinkedHashSet<>(rolesIds);
+        var cache = entityManager.getEntityManagerFactory().getCache();
+        Map<Integer, Role> rolesById = new HashMap<>();
+        List<Integer> uncachedRolesIds = new ArrayList<>();
+        for (var roleId : uniqueRolesIds) {
+            var cachedRole = cache.contains(Role.class, roleId) ? entityManager.find(Role.class, roleId) : null;
+            if (cachedRole != null) {
+                rolesById.put(roleId, cachedRole);
+            } else {
+                uncachedRolesIds.add(roleId);
+            }
+        }
+        if (!uncachedRolesIds.isEmpty()) {
+            roleRepository.findAllById(uncachedRolesIds).forEach(role -> rolesById.put(role.getRoleId(), role));
+        }
+
+        log.debug("method = getRolesByIds, rolesIds = {}, uncachedRolesIds = {}, rolesById = {}",
+                rolesIds, uncachedRolesIds, rolesById);
+
+        var missingRolesIds = uniqueRolesIds.stream()
+                .filter(roleId -> !rolesById.containsKey(roleId))
+                .collect(Collectors.toList());
+
+        if (!missingRolesIds.isEmpty()) {
+
+            log.warn("Object not found exception occurred:");
+
+            throw new ObjectNotFoundException(String.format(ROLES_IDS_NOT_FOUND, missingRolesIds));
+        }
+        return uniqueRolesIds.stream().map(rolesById::get).collect(Collectors.toList());
+    }
+
     @Override
     public List<Role> getRolesByUserId(Long userId) {
 
@@ -72,13 +141,64 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<RolePublicResponseDTO> getAllRolesPublic(int page, int size) {
+
+        var pageRequest = PageRequest.of(page, size);
+        var rolesPage = pagingService.toPage(roleRepository.findAllProjectedBy(pageRequest),
+                () -> countService.count(ROLES_ALL_ENDPOINT, ROLE_TABLE, null, roleRepository::count));
+
+        log.debug("method = getAllRolesPublic, page number = {}, page size = {}, number of roles = {}",
+                rolesPage.getPageable().getPageNumber(), rolesPage.getPageable().getPageSize(),
+                rolesPage.getNumberOfElements());
+
+        pagingService.validatePage(rolesPage, String.format(PAGE_HAS_NO_ROLES, page));
+        return RolePublicResponseDTO.fromProjection(rolesPage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RolePublicResponseDTO getRolePublicById(Integer roleId) {
+
+        var role = roleRepository.findProjectedByRoleId(roleId);
+
+        log.debug("method = getRolePublicById, roleId = {}", roleId);
+
+        return RolePublicResponseDTO.fromProjection(role.orElseThrow(
+                () -> new ObjectNotFoundException(String.format(ROLE_ID_NOT_FOUND, roleId))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RolePublicResponseDTO> getRolesPublicByUserId(Long userId) {
+
+        var userRoles = roleRepository.findProjectedByUsers_UserId(userId);
+
+        log.debug("method = getRolesPublicByUserId, userId = {}, number of roles = {}", userId, userRoles.size());
+
+        if (userRoles.isEmpty()) {
+
+            log.warn("Object not found exception occurred:");
+
+            throw new ObjectNotFoundException(String.format(NO_ROLES_ASSOCIATED_TO_USER, userId));
+        }
+        return RolePublicResponseDTO.fromProjection(userRoles);
+    }
+
+    @Override
+    @Transactional
     public Role createRole(Role newRole) {
 
         try {
 
             log.debug("method = createRole, newRole = {}", newRole);
 
-            return roleRepository.save(newRole);
+            var createdRole = roleRepository.save(newRole);
+            roleRepository.flush();
+            changeFeedService.recordChange(ChangeEvent.EntityType.ROLE, createdRole.getRoleId().longValue(),
+                    ChangeEvent.ChangeType.CREATED);
+            countService.evict(ROLE_TABLE);
+            return createdRole;
         } catch (DataIntegrityViolationException e) {
 
             log.warn("Entity relationship integrity exception occurred:", e);
@@ -89,6 +209,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional
     public Role updateRole(Role updatedRole, Integer roleId) {
 
         var optionalRole = roleRepository.findById(roleId);
@@ -102,7 +223,11 @@ public class RoleServiceImpl implements RoleService {
         log.debug("method = updateRole, currentRole = {}", currentRole);
 
         try {
-            return roleRepository.save(currentRole);
+            var savedRole = roleRepository.save(currentRole);
+            roleRepository.flush();
+            changeFeedService.recordChange(ChangeEvent.EntityType.ROLE, roleId.longValue(),
+                    ChangeEvent.ChangeType.UPDATED);
+            return savedRole;
         } catch (DataIntegrityViolationException e) {
 
             log.warn("Entity relationship integrity exception occurred:", e);
@@ -114,6 +239,7 @@ public class RoleServiceImpl implements RoleService {
     }
 
     @Override
+    @Transactional
     public void deleteRoles(Integer roleId) {
 
         var roleToDelete = roleRepository.findById(roleId);
@@ -122,5 +248,7 @@ public class RoleServiceImpl implements RoleService {
 
         roleRepository.delete(roleToDelete.orElseThrow(() -> new ObjectNotFoundException(
                 String.format(ROLE_ID_NOT_FOUND, roleId))));
+        changeFeedService.recordChange(ChangeEvent.EntityType.ROLE, roleId.longValue(), ChangeEvent.ChangeType.DELETED);
+        countService.evict(ROLE_TABLE);
     }
 }
@@ -0,0 +1,26 @@
+package com.bruno.carlisting.services.implementations;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/* Cache evictions must wait for the write to commit, an eviction before it lets a concurrent read cache the rows
+   the transaction is about to replace */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /* Runs the action once the current transaction commits, never if it rolls back, and at once outside of one */
+    public static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
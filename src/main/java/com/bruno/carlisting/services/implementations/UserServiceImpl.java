@@ -1,21 +1,47 @@
 package com.bruno.carlisting.services.implementations;
 
-import com.bruno.carlisting.domain.Role;
+import com.bruno.carlisting.domain.ChangeEvent;
 import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.dtos.response.BatchItemResponseDTO;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.user.UserPublicResponseDTO;
+import com.bruno.carlisting.events.ListingsChangedEvent;
 import com.bruno.carlisting.exceptions.ObjectNotFoundException;
+import com.bruno.carlisting.exceptions.PreconditionFailedException;
 import com.bruno.carlisting.exceptions.entityRelationshipIntegrityException;
+import com.bruno.carlisting.repositories.ListingRepository;
 import com.bruno.carlisting.repositories.UserRepository;
+import com.bruno.carlisting.repositories.projections.UserProjection;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
+import com.bruno.carlisting.services.interfaces.ChangeFeedService;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import com.bruno.carlisting.services.interfaces.CountService;
+import com.bruno.carlisting.services.interfaces.OptimisticLockRetryService;
 import com.bruno.carlisting.services.interfaces.PagingService;
 import com.bruno.carlisting.services.interfaces.RoleService;
 import com.bruno.carlisting.services.interfaces.UserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntBiFunction;
+import java.util.stream.Collectors;
+
+import static com.bruno.carlisting.services.implementations.ConditionalRequestServiceImpl.IF_MATCH_FAILED;
 
 @Service
 @Slf4j
@@ -23,19 +49,41 @@ public class UserServiceImpl implements UserService {
 
     public static final String USER_ID_NOT_FOUND = "User ID %s not found";
     public static final String PAGE_HAS_NO_USERS = "Page %s has no users";
+    public static final String NO_USERS_AFTER_CURSOR = "No users were found after cursor %s";
     public static final String CAR_ID_NOT_FOUND = "Car ID %s not found";
     public static final String USER_DID_NOT_CREATE_CAR = "User ID %s did not create Car ID %s";
+    public static final String USER_TABLE = "users";
+    public static final String USERS_ALL_ENDPOINT = "users-all";
     public static final String USER_ALREADY_EXISTS = "Username %s already exists";
     public static final String USER_IS_ASSOCIATED_TO_CARS = "User ID %s has cars associated therefore cannot be deleted";
 
     private final UserRepository userRepository;
+    private final ListingRepository listingRepository;
     private final RoleService roleService;
     private final PagingService pagingService;
-
-    public UserServiceImpl(UserRepository userRepository, RoleService roleService, PagingService pagingService) {
+    private final CountService countService;
+    private final OptimisticLockRetryService optimisticLockRetryService;
+    private final ConditionalRequestService conditionalRequestService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserServiceImpl(UserRepository userRepository, ListingRepository listingRepository,
+                           RoleService roleService, PagingService pagingService, CountService countService,
+                           OptimisticLockRetryService optimisticLockRetryService,
+                           ConditionalRequestService conditionalRequestService,
+                           ApplicationEventPublisher eventPublisher, ChangeFeedService changeFeedService,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.listingRepository = listingRepository;
         this.roleService = roleService;
         this.pagingService = pagingService;
+        this.countService = countService;
+        this.optimisticLockRetryService = optimisticLockRetryService;
+        this.conditionalRequestService = conditionalRequestService;
+        this.eventPublisher = eventPublisher;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -61,6 +109,29 @@ public class UserServiceImpl implements UserService {
         return user.orElseThrow(() -> new ObjectNotFoundException(String.format(USER_ID_NOT_FOUND, userId)));
     }
 
+    @Override
+    public Map<Long, User> getUsersByIds(Collection<Long> usersIds) {
+
+        var usersById = userRepository.findAllById(usersIds.stream().filter(Objects::nonNull)
+                .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        log.debug("method = getUsersByIds, usersIds = {}, users found = {}", usersIds, usersById.size());
+
+        return usersById;
+    }
+
+    /* Version columns only, conditional requests are answered without loading the user */
+    @Override
+    public VersionProjection getUserVersion(Long userId) {
+
+        var userVersion = userRepository.findVersionByUserId(userId);
+
+        log.debug("method = getUserVersion, userId = {}, found = {}", userId, userVersion.isPresent());
+
+        return userVersion.orElseThrow(() -> new ObjectNotFoundException(String.format(USER_ID_NOT_FOUND, userId)));
+    }
+
     @Override
     public User getUserByCarId(Long carId) {
 
@@ -74,17 +145,116 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<UserPublicResponseDTO> getAllUsersPublic(int page, int size) {
+
+        var pageRequest = PageRequest.of(page, size);
+        var usersPage = pagingService.toPage(userRepository.findAllProjectedBy(pageRequest),
+                () -> countService.count(USERS_ALL_ENDPOINT, USER_TABLE, null, userRepository::count));
+
+        log.debug("method = getAllUsersPublic, page number = {}, page size = {}, number of users = {}",
+                usersPage.getPageable().getPageNumber(), usersPage.getPageable().getPageSize(),
+                usersPage.getNumberOfElements());
+
+        pagingService.validatePage(usersPage, String.format(PAGE_HAS_NO_USERS, page));
+
+        var usersIds = usersPage.map(UserProjection::getUserId).getContent();
+
+        return UserPublicResponseDTO.fromProjection(usersPage,
+                listingRepository.findListingsIdsGroupedByUserId(usersIds),
+                userRepository.findRolesIdsGroupedByUserId(usersIds));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceResponseDTO<UserPublicResponseDTO> getAllUsersPublicAfter(String after, int size) {
+
+        var lastUserId = after.isBlank() ? 0L : pagingService.decodeCursorId(after,
+                pagingService.decodeCursor(after, 1).get(0));
+        var usersSlice = userRepository.findProjectedByUserIdGreaterThanOrderByUserIdAsc(
+                lastUserId, PageRequest.of(0, size));
+
+        log.debug("method = getAllUsersPublicAfter, after userId = {}, page size = {}, number of users = {}",
+                lastUserId, size, usersSlice.getNumberOfElements());
+
+        pagingService.validateSlice(usersSlice, String.format(NO_USERS_AFTER_CURSOR, after));
+
+        var usersIds = usersSlice.map(UserProjection::getUserId).getContent();
+        var nextCursor = usersSlice.hasNext() ?
+                pagingService.encodeCursor(usersIds.get(usersIds.size() - 1)) : null;
+
+        return UserPublicResponseDTO.fromProjection(usersSlice,
+                listingRepository.findListingsIdsGroupedByUserId(usersIds),
+                userRepository.findRolesIdsGroupedByUserId(usersIds), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPublicResponseDTO getUserPublicById(Long userId) {
+
+        var user = userRepository.findProjectedByUserId(userId).orElseThrow(
+                () -> new ObjectNotFoundException(String.format(USER_ID_NOT_FOUND, userId)));
+
+        log.debug("method = getUserPublicById, userId = {}", userId);
+
+        var usersIds = List.of(userId);
+
+        return UserPublicResponseDTO.fromProjection(user,
+                listingRepository.findListingsIdsGroupedByUserId(usersIds).getOrDefault(userId, new ArrayList<>()),
+                userRepository.findRolesIdsGroupedByUserId(usersIds).getOrDefault(userId, new ArrayList<>()));
+    }
+
+    /* A query for the users, one for their listings and one for their roles, however many IDs are requested */
+    @Override
+    @Transactional(readOnly = true)
+    public List<BatchItemResponseDTO<UserPublicResponseDTO>> getUsersPublicByIds(List<Long> usersIds) {
+
+        var users = userRepository.findProjectedByUserIdIn(usersIds).stream()
+                .collect(Collectors.toMap(UserProjection::getUserId, Function.identity()));
+        var usersListingsIds = users.isEmpty() ? Map.<Long, List<Long>>of() :
+                listingRepository.findListingsIdsGroupedByUserId(users.keySet());
+        var usersRolesIds = users.isEmpty() ? Map.<Long, List<Integer>>of() :
+                userRepository.findRolesIdsGroupedByUserId(users.keySet());
+
+        log.debug("method = getUsersPublicByIds, usersIds = {}, users found = {}", usersIds, users.size());
+
+        List<BatchItemResponseDTO<UserPublicResponseDTO>> usersDTO = new ArrayList<>();
+        usersIds.forEach(userId -> usersDTO.add(users.containsKey(userId) ?
+                BatchItemResponseDTO.found(userId, UserPublicResponseDTO.fromProjection(users.get(userId),
+                        usersListingsIds.getOrDefault(userId, new ArrayList<>()),
+                        usersRolesIds.getOrDefault(userId, new ArrayList<>()))) :
+                BatchItemResponseDTO.notFound(userId, String.format(USER_ID_NOT_FOUND, userId))));
+        return usersDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserPublicResponseDTO getUserPublicByCarId(Long carId) {
+
+        var userId = userRepository.searchUserByCarId(carId).orElseThrow(
+                () -> new ObjectNotFoundException(String.format(CAR_ID_NOT_FOUND, carId)));
+
+        log.debug("method = getUserPublicByCarId, carId = {}, userId = {}", carId, userId);
+
+        return getUserPublicById(userId);
+    }
+
+    @Override
+    @Transactional
     public User createUser(User newUser, List<Integer> rolesIds) {
 
-        List<Role> userRoles = new ArrayList<>();
-        rolesIds.forEach(roleId -> userRoles.add(roleService.getRoleById(roleId)));
-        newUser.setRoles(userRoles);
+        newUser.setRoles(roleService.getRolesByIds(rolesIds));
 
         try {
 
             log.debug("method = createUser, newUser = {}, rolesIds = {}", newUser, rolesIds);
 
-            return userRepository.save(newUser);
+            var createdUser = userRepository.save(newUser);
+            userRepository.flush();
+            changeFeedService.recordChange(ChangeEvent.EntityType.USER, createdUser.getUserId(),
+                    ChangeEvent.ChangeType.CREATED);
+            countService.evict(USER_TABLE);
+            return createdUser;
         } catch (DataIntegrityViolationException e) {
 
             log.warn("Entity relationship integrity exception occurred:", e);
@@ -96,93 +266,120 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User updateUser(User updatedUser, List<Integer> rolesIds, Long userId) {
+        return retryInTransaction("updateUser", () -> {
 
-        var currentUser = getUserById(userId);
+            var currentUser = getUserById(userId);
 
-        log.debug("method = updateUser, currentUser = {}", currentUser);
+            log.debug("method = updateUser, currentUser = {}", currentUser);
 
-        List<Role> updatedUserRoles = new ArrayList<>();
-        rolesIds.forEach(roleId -> updatedUserRoles.add(roleService.getRoleById(roleId)));
-        updatedUser.setRoles(updatedUserRoles);
+            updatedUser.setRoles(roleService.getRolesByIds(rolesIds));
 
-        currentUser.setUsername(updatedUser.getUsername());
-        currentUser.setPassword(updatedUser.getPassword());
-        currentUser.setDisplayName(updatedUser.getDisplayName());
-        currentUser.setContact(updatedUser.getContact());
-        currentUser.setRoles(updatedUser.getRoles());
+            currentUser.setUsername(updatedUser.getUsername());
+            currentUser.setPassword(updatedUser.getPassword());
+            currentUser.setDisplayName(updatedUser.getDisplayName());
+            currentUser.setContact(updatedUser.getContact());
+            currentUser.setRoles(updatedUser.getRoles());
 
-        log.debug("method = updateUser, currentUser = {}", currentUser);
+            log.debug("method = updateUser, currentUser = {}", currentUser);
 
-        try {
-            return userRepository.save(currentUser);
-        } catch (DataIntegrityViolationException e) {
+            try {
+                var savedUser = userRepository.save(currentUser);
+                userRepository.flush();
+                changeFeedService.recordChange(ChangeEvent.EntityType.USER, userId, ChangeEvent.ChangeType.UPDATED);
+                publishListingsChanged(findListingsIds(userId), ListingsChangedEvent.ChangeType.UPDATED);
+                return savedUser;
+            } catch (DataIntegrityViolationException e) {
 
-            log.warn("Data integrity violation exception occurred:", e);
+                log.warn("Data integrity violation exception occurred:", e);
 
-            throw new entityRelationshipIntegrityException(String.format(
-                    USER_ALREADY_EXISTS, updatedUser.getUsername()));
-        }
+                throw new entityRelationshipIntegrityException(String.format(
+                        USER_ALREADY_EXISTS, updatedUser.getUsername()));
+            }
+        });
     }
 
     @Override
-    public User updateUserPassword(String password, Long userId) {
-
-        var currentUser = getUserById(userId);
-
-        log.debug("method = updateUserPassword, currentUser = {}", currentUser);
+    public User updateUserPassword(String password, Long userId, Long expectedVersion) {
 
-        currentUser.setPassword(password);
+        log.debug("method = updateUserPassword, userId = {}", userId);
 
-        log.debug("method = updateUserPassword, currentUser = {}", currentUser);
-
-        return userRepository.save(currentUser);
+        return updateUserColumn(userId, expectedVersion, (version, updatedAt) ->
+                userRepository.updatePasswordByUserId(userId, password, version, updatedAt));
     }
 
     @Override
-    public User updateUserDisplayName(String displayName, Long userId) {
+    public User updateUserDisplayName(String displayName, Long userId, Long expectedVersion) {
 
-        var currentUser = getUserById(userId);
+        log.debug("method = updateUserDisplayName, userId = {}, displayName = {}", userId, displayName);
 
-        log.debug("method = updateUserDisplayName, currentUser = {}", currentUser);
+        var savedUser = updateUserColumn(userId, expectedVersion, (version, updatedAt) ->
+                userRepository.updateDisplayNameByUserId(userId, displayName, version, updatedAt));
+        publishListingsChanged(findListingsIds(userId), ListingsChangedEvent.ChangeType.UPDATED);
+        return savedUser;
+    }
 
-        currentUser.setDisplayName(displayName);
+    @Override
+    public User updateUserContact(String contact, Long userId, Long expectedVersion) {
 
-        log.debug("method = updateUserDisplayName, currentUser = {}", currentUser);
+        log.debug("method = updateUserContact, userId = {}, contact = {}", userId, contact);
 
-        return userRepository.save(currentUser);
+        return updateUserColumn(userId, expectedVersion, (version, updatedAt) ->
+                userRepository.updateContactByUserId(userId, contact, version, updatedAt));
     }
 
     @Override
-    public User updateUserContact(String contact, Long userId) {
+    public User updateUserRoles(List<Integer> rolesIds, Long userId) {
+        return retryInTransaction("updateUserRoles", () -> {
 
-        var currentUser = getUserById(userId);
+            var currentUser = getUserById(userId);
 
-        log.debug("method = updateUserContact, currentUser = {}", currentUser);
+            log.debug("method = updateUserRoles, currentUser = {}", currentUser);
 
-        currentUser.setContact(contact);
+            currentUser.setRoles(roleService.getRolesByIds(rolesIds));
 
-        log.debug("method = updateUserContact, currentUser = {}", currentUser);
+            log.debug("method = updateUserRoles, currentUser = {}", currentUser);
 
-        return userRepository.save(currentUser);
+            var savedUser = userRepository.save(currentUser);
+            userRepository.flush();
+            changeFeedService.recordChange(ChangeEvent.EntityType.USER, userId, ChangeEvent.ChangeType.UPDATED);
+            return savedUser;
+        });
     }
 
-    @Override
-    public User updateUserRoles(List<Integer> rolesIds, Long userId) {
+    /* Same single UPDATE, recorded change and read back as the single column updates of cars */
+    private User updateUserColumn(Long userId, Long expectedVersion, ToIntBiFunction<Long, Instant> columnUpdate) {
+
+        int updatedRows = transactionTemplate.execute(status -> {
+            var rows = columnUpdate.applyAsInt(expectedVersion, Instant.now());
+            if (rows > 0) {
+                changeFeedService.recordChange(ChangeEvent.EntityType.USER, userId, ChangeEvent.ChangeType.UPDATED);
+            }
+            return rows;
+        });
 
-        var currentUser = getUserById(userId);
+        log.debug("method = updateUserColumn, userId = {}, expectedVersion = {}, updatedRows = {}",
+                userId, expectedVersion, updatedRows);
+
+        if (updatedRows == 0) {
+            var userVersion = getUserVersion(userId);
+            throw new PreconditionFailedException(String.format(IF_MATCH_FAILED, userVersion.getVersion(),
+                    conditionalRequestService.toETag(expectedVersion)));
+        }
+        return getUserById(userId);
+    }
 
-        log.debug("method = updateUserRoles, currentUser = {}", currentUser);
+    @Override
+    public int markUpdatedByListingsCarId(Long carId) {
 
-        List<Role> updatedUserRoles = new ArrayList<>();
-        rolesIds.forEach(roleId -> updatedUserRoles.add(roleService.getRoleById(roleId)));
-        currentUser.setRoles(updatedUserRoles);
+        var updatedUsers = userRepository.markUpdatedByListingsCarId(carId, Instant.now());
 
-        log.debug("method = updateUserRoles, currentUser = {}", currentUser);
+        log.debug("method = markUpdatedByListingsCarId, carId = {}, updated users = {}", carId, updatedUsers);
 
-        return userRepository.save(currentUser);
+        return updatedUsers;
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
 
         var userToDelete = getUserById(userId);
@@ -191,7 +388,13 @@ public class UserServiceImpl implements UserService {
 
             log.debug("method = deleteUser, userToDelete: {}", userToDelete);
 
+            /* Listings of the user are deleted with it */
+            var userListingsIds = findListingsIds(userId);
             userRepository.delete(userToDelete);
+            userRepository.flush();
+            changeFeedService.recordChange(ChangeEvent.EntityType.USER, userId, ChangeEvent.ChangeType.DELETED);
+            countService.evict(USER_TABLE);
+            publishListingsChanged(userListingsIds, ListingsChangedEvent.ChangeType.DELETED);
         } catch (DataIntegrityViolationException e) {
 
             log.warn("Entity relationship integrity exception occurred:", e);
@@ -200,4 +403,21 @@ public class UserServiceImpl implements UserService {
                     USER_IS_ASSOCIATED_TO_CARS, userId));
         }
     }
+
+    /* Each attempt runs in a transaction of its own, with the change it records */
+    private User retryInTransaction(String operation, Supplier<User> attempt) {
+        return optimisticLockRetryService.retryOnConflict(operation,
+                () -> transactionTemplate.execute(status -> attempt.get()));
+    }
+
+    private List<Long> findListingsIds(Long userId) {
+        return listingRepository.findListingsIdsGroupedByUserId(List.of(userId)).getOrDefault(userId, List.of());
+    }
+
+    /* Listing cards show the display name of their user, so user writes are published as changes of its listings */
+    private void publishListingsChanged(List<Long> listingsIds, ListingsChangedEvent.ChangeType changeType) {
+        if (!listingsIds.isEmpty()) {
+            eventPublisher.publishEvent(new ListingsChangedEvent(listingsIds, changeType));
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.response.car.CarImportResponseDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface CarImportService {
+
+    CarImportResponseDTO importCars(InputStream carsJson) throws IOException;
+}
@@ -1,37 +1,67 @@
 package com.bruno.carlisting.services.interfaces;
 
 import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.dtos.response.BatchItemResponseDTO;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.car.CarPublicResponseDTO;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 public interface CarService {
 
     Page<Car> getAllCars(int page, int size);
 
     Car getCarById(Long carId);
 
+    VersionProjection getCarVersion(Long carId);
+
     Page<Car> getCarsByMake(String searchMake, int page, int size);
 
     Page<Car> getCarsByUserId(Long userId, int page, int size);
 
+    Page<CarPublicResponseDTO> getAllCarsPublic(int page, int size);
+
+    CarPublicResponseDTO getCarPublicById(Long carId);
+
+    /* One result per requested ID, in request order */
+    List<BatchItemResponseDTO<CarPublicResponseDTO>> getCarsPublicByIds(List<Long> carsIds);
+
+    Page<CarPublicResponseDTO> getCarsPublicByMake(String searchMake, int page, int size);
+
+    Page<CarPublicResponseDTO> getCarsPublicByUserId(Long userId, int page, int size);
+
+    CursorSliceResponseDTO<CarPublicResponseDTO> getAllCarsPublicAfter(String after, int size);
+
+    CursorSliceResponseDTO<CarPublicResponseDTO> getCarsPublicByMakeAfter(String searchMake, String after, int size);
+
     Car createCar(Car newCar, Long userId);
 
+    /* usersIds holds the responsible user ID of each car, in the same order as newCars */
+    List<Car> createCars(List<Car> newCars, List<Long> usersIds);
+
+    /* users holds the already loaded responsible user of each car, in the same order as newCars */
+    List<Car> createCarsForUsers(List<Car> newCars, List<User> users);
+
     Car updateCar(Car updatedCar, Long userId, Long carId);
 
-    Car updateCarMake(String make, Long carId);
+    /* Single column updates write only at expectedVersion when it is not null */
+    Car updateCarMake(String make, Long carId, Long expectedVersion);
 
-    Car updateCarModel(String model, Long carId);
+    Car updateCarModel(String model, Long carId, Long expectedVersion);
 
-    Car updateCarYear(Integer year, Long carId);
+    Car updateCarYear(Integer year, Long carId, Long expectedVersion);
 
-    Car updateCarTrim(String trim, Long carId);
+    Car updateCarTrim(String trim, Long carId, Long expectedVersion);
 
-    Car updateCarColor(String color, Long carId);
+    Car updateCarColor(String color, Long carId, Long expectedVersion);
 
-    Car updateCarTransmission(String transmission, Long carId);
+    Car updateCarTransmission(String transmission, Long carId, Long expectedVersion);
 
-    Car updateCarFuel(String fuel, Long carId);
+    Car updateCarFuel(String fuel, Long carId, Long expectedVersion);
 
-    Car updateCarUser(Long userId, Long carId);
+    Car updateCarUser(Long userId, Long carId, Long expectedVersion);
 
     void deleteCar(Long carId);
 }
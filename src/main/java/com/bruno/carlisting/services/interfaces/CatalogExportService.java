@@ -0,0 +1,32 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.response.ExportFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CatalogExportService {
+
+    /* Request parameter constraints shared by every export endpoint */
+    String EXPORT_DEFAULT_FORMAT = "ndjson";
+    String EXPORT_FORMAT_PATTERN = "^(ndjson|csv)$";
+
+    long exportCars(ExportFormat format, boolean gzip, OutputStream output) throws IOException;
+
+    long exportListings(ExportFormat format, boolean gzip, OutputStream output) throws IOException;
+
+    /* True when the Accept-Encoding header gives gzip, or * without gzip, a quality value above zero */
+    boolean acceptsGzip(String acceptEncoding);
+
+    /* Streams what export writes as an attachment named after the exported rows, compressed if gzip is accepted */
+    ResponseEntity<StreamingResponseBody> toExportResponse(String rowsName, String format, String acceptEncoding,
+                                                           Export export);
+
+    @FunctionalInterface
+    interface Export {
+
+        long write(ExportFormat format, boolean gzip, OutputStream output) throws IOException;
+    }
+}
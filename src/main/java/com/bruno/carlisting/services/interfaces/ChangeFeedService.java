@@ -0,0 +1,16 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.domain.ChangeEvent;
+import com.bruno.carlisting.dtos.response.change.ChangeFeedResponseDTO;
+
+import java.util.Collection;
+
+public interface ChangeFeedService {
+
+    void recordChange(ChangeEvent.EntityType entityType, Long entityId, ChangeEvent.ChangeType changeType);
+
+    void recordChanges(ChangeEvent.EntityType entityType, Collection<Long> entitiesIds,
+                       ChangeEvent.ChangeType changeType);
+
+    ChangeFeedResponseDTO getChangesSince(Long since, int size);
+}
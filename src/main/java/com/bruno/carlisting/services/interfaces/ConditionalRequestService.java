@@ -0,0 +1,17 @@
+package com.bruno.carlisting.services.interfaces;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+public interface ConditionalRequestService {
+
+    String toETag(Long version);
+
+    long toLastModified(Instant updatedAt);
+
+    void checkIfMatch(String ifMatch, LongSupplier currentVersion);
+
+    Long getExpectedVersion(String ifMatch, LongSupplier currentVersion);
+
+    boolean isConditionalWrite();
+}
@@ -0,0 +1,10 @@
+package com.bruno.carlisting.services.interfaces;
+
+import java.util.function.LongSupplier;
+
+public interface CountService {
+
+    long count(String endpoint, String tableName, String filterKey, LongSupplier exactCount);
+
+    void evict(String tableName);
+}
@@ -0,0 +1,16 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.response.FacetsResponseDTO;
+
+public interface FacetService {
+
+    FacetsResponseDTO getCarFacets();
+
+    FacetsResponseDTO getListingFacets();
+
+    /* Listing facets count car attributes too, so they are evicted as well. Within a transaction the eviction waits
+       for its commit */
+    void evictCarFacets();
+
+    void evictListingFacets();
+}
@@ -0,0 +1,11 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingNearbyResponseDTO;
+
+public interface ListingGeoSearchService {
+
+    /* Listings are returned from the nearest to the farthest, after is blank on the first slice */
+    CursorSliceResponseDTO<ListingNearbyResponseDTO> getListingsNear(double latitude, double longitude,
+                                                                     double radiusKm, String after, int size);
+}
@@ -0,0 +1,9 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingIndexSearchResponseDTO;
+
+public interface ListingIndexService {
+
+    ListingIndexSearchResponseDTO searchListings(ListingSearchRequestDTO searchRequestDTO, int limit);
+}
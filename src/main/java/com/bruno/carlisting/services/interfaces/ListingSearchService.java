@@ -0,0 +1,11 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import org.springframework.data.domain.Page;
+
+public interface ListingSearchService {
+
+    Page<ListingPublicResponseDTO> searchListings(ListingSearchRequestDTO searchRequestDTO, int page, int size,
+                                                  String sort);
+}
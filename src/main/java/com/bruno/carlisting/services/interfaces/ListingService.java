@@ -0,0 +1,17 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.domain.Listing;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+
+public interface ListingService {
+
+    Listing getListingById(Long listingId);
+
+    ListingPublicResponseDTO getListingPublicById(Long listingId);
+
+    ListingPublicResponseDTO createListing(Listing newListing, Long carId, Long cityId);
+
+    ListingPublicResponseDTO updateListing(Listing updatedListing, Long carId, Long cityId, Long listingId);
+
+    void deleteListing(Long listingId);
+}
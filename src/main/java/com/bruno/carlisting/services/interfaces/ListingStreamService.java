@@ -0,0 +1,11 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ListingStreamService {
+
+    SseEmitter subscribe(ListingSearchRequestDTO searchRequestDTO);
+
+    int getSubscriptionsCount();
+}
@@ -0,0 +1,12 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.dtos.response.listing.ListingPublicResponseDTO;
+import org.springframework.data.domain.Page;
+
+public interface ListingTextSearchService {
+
+    /* Listings are returned from the most to the least relevant description */
+    Page<ListingPublicResponseDTO> searchListings(String text, ListingSearchRequestDTO searchRequestDTO, int page,
+                                                  int size);
+}
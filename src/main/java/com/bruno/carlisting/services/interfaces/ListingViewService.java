@@ -0,0 +1,10 @@
+package com.bruno.carlisting.services.interfaces;
+
+import com.bruno.carlisting.domain.ListingView;
+
+public interface ListingViewService {
+
+    ListingView getListingView(Long listingId);
+
+    void rebuildListingViews();
+}
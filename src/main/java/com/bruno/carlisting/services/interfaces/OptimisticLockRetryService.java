@@ -0,0 +1,8 @@
+package com.bruno.carlisting.services.interfaces;
+
+import java.util.function.Supplier;
+
+public interface OptimisticLockRetryService {
+
+    <T> T retryOnConflict(String operation, Supplier<T> attempt);
+}
@@ -1,8 +1,22 @@
 package com.bruno.carlisting.services.interfaces;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.LongSupplier;
 
 public interface PagingService {
 
     void validatePage(Page<?> page, String message);
+
+    void validateSlice(Slice<?> slice, String message);
+
+    <T> Page<T> toPage(Slice<T> slice, LongSupplier totalElements);
+
+    String encodeCursor(Object... sortKeys);
+
+    List<String> decodeCursor(String cursor, int sortKeysCount);
+
+    Long decodeCursorId(String cursor, String sortKey);
 }
@@ -1,6 +1,8 @@
 package com.bruno.carlisting.services.interfaces;
 
 import com.bruno.carlisting.domain.Role;
+import com.bruno.carlisting.dtos.response.role.RolePublicResponseDTO;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -13,8 +15,18 @@ public interface RoleService {
 
     Role getRoleById(Integer roleId);
 
+    VersionProjection getRoleVersion(Integer roleId);
+
+    List<Role> getRolesByIds(List<Integer> rolesIds);
+
     List<Role> getRolesByUserId(Long userId);
 
+    Page<RolePublicResponseDTO> getAllRolesPublic(int page, int size);
+
+    RolePublicResponseDTO getRolePublicById(Integer roleId);
+
+    List<RolePublicResponseDTO> getRolesPublicByUserId(Long userId);
+
     Role updateRole(Role updatedRole, Integer roleId);
 
     void deleteRoles(Integer roleId);
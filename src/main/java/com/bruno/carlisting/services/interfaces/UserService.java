@@ -1,9 +1,15 @@
 package com.bruno.carlisting.services.interfaces;
 
 import com.bruno.carlisting.domain.User;
+import com.bruno.carlisting.dtos.response.BatchItemResponseDTO;
+import com.bruno.carlisting.dtos.response.CursorSliceResponseDTO;
+import com.bruno.carlisting.dtos.response.user.UserPublicResponseDTO;
+import com.bruno.carlisting.repositories.projections.VersionProjection;
 import org.springframework.data.domain.Page;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface UserService {
 
@@ -11,19 +17,39 @@ public interface UserService {
 
     User getUserById(Long userId);
 
+    VersionProjection getUserVersion(Long userId);
+
+    /* Users of the given IDs loaded with a single query, by user ID. IDs that do not exist are left out */
+    Map<Long, User> getUsersByIds(Collection<Long> usersIds);
+
     User getUserByCarId(Long carId);
 
+    Page<UserPublicResponseDTO> getAllUsersPublic(int page, int size);
+
+    CursorSliceResponseDTO<UserPublicResponseDTO> getAllUsersPublicAfter(String after, int size);
+
+    UserPublicResponseDTO getUserPublicById(Long userId);
+
+    /* One result per requested ID, in request order */
+    List<BatchItemResponseDTO<UserPublicResponseDTO>> getUsersPublicByIds(List<Long> usersIds);
+
+    UserPublicResponseDTO getUserPublicByCarId(Long carId);
+
     User createUser(User newUser, List<Integer> rolesIds);
 
     User updateUser(User updatedUser, List<Integer> rolesIds, Long userId);
 
-    User updateUserPassword(String password, Long userId);
+    /* Single column updates write only at expectedVersion when it is not null */
+    User updateUserPassword(String password, Long userId, Long expectedVersion);
 
-    User updateUserDisplayName(String displayName, Long userId);
+    User updateUserDisplayName(String displayName, Long userId, Long expectedVersion);
 
-    User updateUserContact(String contact, Long userId);
+    User updateUserContact(String contact, Long userId, Long expectedVersion);
 
     User updateUserRoles(List<Integer> rolesIds, Long userId);
 
+    /* A new version of the users of the listings of the car, whose deletion takes those listings along */
+    int markUpdatedByListingsCarId(Long carId);
+
     void deleteUser(Long userId);
 }
@@ -0,0 +1,83 @@
+-- Seed data of the sequence-ids profile: data.sql with explicit keys
+
+-- Users
+INSERT INTO users (user_id, username, password, display_name, contact) VALUES (1, 'JohnDoe', 'John123456789', 'John', 'john@email.com');
+INSERT INTO users (user_id, username, password, display_name, contact) VALUES (2, 'Mary', 'Mary123456789', 'Mary', 'mary@email.com');
+INSERT INTO users (user_id, username, password, display_name, contact) VALUES (3, 'Jose', 'Jose123456789', 'Jose', 'jose@email.com');
+INSERT INTO users (user_id, username, password, display_name, contact) VALUES (4, 'Mike', 'Mike123456789', 'Mike', 'mike@email.com');
+INSERT INTO users (user_id, username, password, display_name, contact) VALUES (5, 'Geralt', 'Geralt123456789', 'Geralt', 'geralt@email.com');
+
+-- Roles
+INSERT INTO role (role_id, type) VALUES (1, 'user');
+INSERT INTO role (role_id, type) VALUES (2, 'admin');
+
+-- User / Role mapping
+INSERT INTO user_roles (user_id, role_id) VALUES (1, 1);
+INSERT INTO user_roles (user_id, role_id) VALUES (1, 2);
+INSERT INTO user_roles (user_id, role_id) VALUES (2, 2);
+INSERT INTO user_roles (user_id, role_id) VALUES (3, 2);
+INSERT INTO user_roles (user_id, role_id) VALUES (4, 2);
+INSERT INTO user_roles (user_id, role_id) VALUES (5, 2);
+
+-- Cars
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (1, 'Toyota', 'Corolla', 2020, 'SEG', 'Silver', 'AT', 'Gasoline', 1);
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (2, 'Honda', 'Civic', 2018, 'EX', 'Black', 'AT', 'Gasoline', 1);
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (3, 'Ford', 'F-150', 2017, 'Limited', 'Red', 'AT', 'Diesel', 1);
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (4, 'Honda', 'Civic', 2009, 'SI', 'Red', 'MT', 'Gasoline', 1);
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (5, 'BMW', '320i', 2014, 'Sport GP', 'White', 'AT', 'Gasoline', 1);
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (6, 'Chevrolet', 'Cruze', 2016, 'LT', 'Blue', 'AT', 'Gasoline', 1);
+INSERT INTO car (car_id, make, model, year, trim, color, transmission, fuel, user_id) VALUES (7, 'Dodge', 'Challenger', 2019, 'SRT8', 'Yellow', 'AT', 'Gasoline', 1);
+
+-- Listings
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (1, 35000, 0, 'Brand new car', 1, 1);
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (2, 30000, 45000, 'Used car', 2, 1);
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (3, 50000, 35000, 'Used truck', 3, 2);
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (4, 15000, 65000, 'Affordable sport car', 4, 3);
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (5, 40000, 20000, 'German saloon', 5, 4);
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (6, 18000, 70000, 'Highway use', 6, 4);
+INSERT INTO listing (listing_id, price, mileage, description, car_id, user_id) VALUES (7, 60000, 15000, 'American muscle car', 7, 4);
+
+-- Countries
+INSERT INTO country (country_id, country_name) VALUES (1, 'USA');
+INSERT INTO country (country_id, country_name) VALUES (2, 'Canada');
+INSERT INTO country (country_id, country_name) VALUES (3, 'Mexico');
+INSERT INTO country (country_id, country_name) VALUES (4, 'Brazil');
+
+-- States
+INSERT INTO state (state_id, country_id, state_name) VALUES (1, 1, 'Illinois');
+INSERT INTO state (state_id, country_id, state_name) VALUES (2, 1, 'Indiana');
+INSERT INTO state (state_id, country_id, state_name) VALUES (3, 1, 'Wisconsin');
+INSERT INTO state (state_id, country_id, state_name) VALUES (4, 1, 'Michigan');
+INSERT INTO state (state_id, country_id, state_name) VALUES (5, 2, 'British Columbia');
+INSERT INTO state (state_id, country_id, state_name) VALUES (6, 4, 'Sao Paulo');
+
+
+-- Cities
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (1, 1, 'Chicago', 41.8781, -87.6298);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (2, 1, 'Evanston', 42.0451, -87.6877);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (3, 1, 'Naperville', 41.7508, -88.1535);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (4, 1, 'Des Plaines', 42.0334, -87.8834);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (5, 2, 'Indianapolis', 39.7684, -86.1581);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (6, 3, 'Milwaukee', 43.0389, -87.9065);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (7, 4, 'Grand Rapids', 42.9634, -85.6681);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (8, 4, 'Detroit', 42.3314, -83.0458);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (9, 5, 'Victoria', 48.4284, -123.3656);
+INSERT INTO city (city_id, state_id, city_name, latitude, longitude) VALUES (10, 6, 'Sao Paulo', -23.5505, -46.6333);
+
+-- Locations
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (1, 1, 1, 1, 41.8781, -87.6298);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (2, 1, 1, 2, 42.0451, -87.6877);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (3, 1, 1, 3, 41.7508, -88.1535);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (4, 2, 5, 9, 48.4284, -123.3656);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (5, 2, 5, 9, 48.4284, -123.3656);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (6, 4, 6, 10, -23.5505, -46.6333);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (7, 4, 6, 10, -23.5505, -46.6333);
+
+-- Sequences continue after the seeded keys
+ALTER SEQUENCE users_seq RESTART WITH 6;
+ALTER SEQUENCE role_seq RESTART WITH 3;
+ALTER SEQUENCE car_seq RESTART WITH 8;
+ALTER SEQUENCE listing_seq RESTART WITH 8;
+ALTER SEQUENCE country_seq RESTART WITH 5;
+ALTER SEQUENCE state_seq RESTART WITH 7;
+ALTER SEQUENCE city_seq RESTART WITH 11;
@@ -51,22 +51,22 @@ INSERT INTO state (country_id, state_name) VALUES (4, 'Sao Paulo');
 
 
 -- Cities
-INSERT INTO city (state_id, city_name) VALUES (1, 'Chicago');
-INSERT INTO city (state_id, city_name) VALUES (1, 'Evanston');
-INSERT INTO city (state_id, city_name) VALUES (1, 'Naperville');
-INSERT INTO city (state_id, city_name) VALUES (1, 'Des Plaines');
-INSERT INTO city (state_id, city_name) VALUES (2, 'Indianapolis');
-INSERT INTO city (state_id, city_name) VALUES (3, 'Milwaukee');
-INSERT INTO city (state_id, city_name) VALUES (4, 'Grand Rapids');
-INSERT INTO city (state_id, city_name) VALUES (4, 'Detroit');
-INSERT INTO city (state_id, city_name) VALUES (5, 'Victoria');
-INSERT INTO city (state_id, city_name) VALUES (6, 'Sao Paulo');
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (1, 'Chicago', 41.8781, -87.6298);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (1, 'Evanston', 42.0451, -87.6877);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (1, 'Naperville', 41.7508, -88.1535);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (1, 'Des Plaines', 42.0334, -87.8834);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (2, 'Indianapolis', 39.7684, -86.1581);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (3, 'Milwaukee', 43.0389, -87.9065);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (4, 'Grand Rapids', 42.9634, -85.6681);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (4, 'Detroit', 42.3314, -83.0458);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (5, 'Victoria', 48.4284, -123.3656);
+INSERT INTO city (state_id, city_name, latitude, longitude) VALUES (6, 'Sao Paulo', -23.5505, -46.6333);
 
 -- Locations
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (1, 1, 1, 1);
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (2, 1, 1, 2);
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (3, 1, 1, 3);
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (4, 2, 5, 9);
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (5, 2, 5, 9);
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (6, 4, 6, 10);
-INSERT INTO location (listing_id, country_id, state_id, city_id) VALUES (7, 4, 6, 10);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (1, 1, 1, 1, 41.8781, -87.6298);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (2, 1, 1, 2, 42.0451, -87.6877);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (3, 1, 1, 3, 41.7508, -88.1535);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (4, 2, 5, 9, 48.4284, -123.3656);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (5, 2, 5, 9, 48.4284, -123.3656);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (6, 4, 6, 10, -23.5505, -46.6333);
+INSERT INTO location (listing_id, country_id, state_id, city_id, latitude, longitude) VALUES (7, 4, 6, 10, -23.5505, -46.6333);
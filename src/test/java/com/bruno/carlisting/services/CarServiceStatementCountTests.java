@@ -0,0 +1,119 @@
+package com.bruno.carlisting.services;
+
+import com.bruno.carlisting.dtos.response.car.CarPublicResponseDTO;
+import com.bruno.carlisting.services.interfaces.CarService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/* Exact counts so the count statement is always issued when more pages follow */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "paging.count-strategies.cars-all=exact",
+        "paging.count-strategies.cars-make=exact",
+        "paging.count-strategies.cars-user=exact"
+})
+class CarServiceStatementCountTests {
+
+    /* One statement for the slice and one for the listings of every car on it */
+    private static final long STATEMENTS_PER_SLICE = 2;
+
+    /* One statement for the cars and one for their listings */
+    private static final long STATEMENTS_PER_BATCH = 2;
+
+    private static final long MISSING_CAR_ID = 999L;
+
+    @Autowired
+    private CarService carService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7})
+    void getAllCarsPublicStatementCountDoesNotGrowWithPageSize(int size) {
+        var carsPageDTO = carService.getAllCarsPublic(0, size);
+
+        assertEquals(size, carsPageDTO.getContent().size());
+        carsPageDTO.forEach(car -> assertEquals(1, car.getCarListingsIds().size()));
+        assertEquals(statementsPerPage(carsPageDTO), statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2})
+    void getCarsPublicByMakeStatementCountDoesNotGrowWithPageSize(int size) {
+        var carsPageDTO = carService.getCarsPublicByMake("Honda", 0, size);
+
+        assertEquals(size, carsPageDTO.getContent().size());
+        assertEquals(statementsPerPage(carsPageDTO), statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 7})
+    void getCarsPublicByUserIdStatementCountDoesNotGrowWithPageSize(int size) {
+        var carsPageDTO = carService.getCarsPublicByUserId(1L, 0, size);
+
+        assertEquals(size, carsPageDTO.getContent().size());
+        assertEquals(statementsPerPage(carsPageDTO), statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7})
+    void getAllCarsPublicAfterStatementCountDoesNotGrowWithSliceSize(int size) {
+        var carsSliceDTO = carService.getAllCarsPublicAfter("", size);
+
+        assertEquals(size, carsSliceDTO.getContent().size());
+        carsSliceDTO.forEach(car -> assertEquals(1, car.getCarListingsIds().size()));
+        assertEquals(STATEMENTS_PER_SLICE, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2})
+    void getCarsPublicByMakeAfterStatementCountDoesNotGrowWithSliceSize(int size) {
+        var carsSliceDTO = carService.getCarsPublicByMakeAfter("Honda", "", size);
+
+        assertEquals(size, carsSliceDTO.getContent().size());
+        assertEquals(STATEMENTS_PER_SLICE, statistics.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 7})
+    void getCarsPublicByIdsStatementCountDoesNotGrowWithIds(int size) {
+        var carsIds = LongStream.rangeClosed(1, size).boxed().collect(Collectors.toList());
+        carsIds.add(0, MISSING_CAR_ID);
+
+        var carsDTO = carService.getCarsPublicByIds(carsIds);
+
+        assertEquals(carsIds.size(), carsDTO.size());
+        assertFalse(carsDTO.get(0).isFound());
+        for (int i = 1; i < carsDTO.size(); i++) {
+            assertEquals(carsIds.get(i), carsDTO.get(i).getItem().getCarId());
+        }
+        assertEquals(STATEMENTS_PER_BATCH, statistics.getPrepareStatementCount());
+    }
+
+    /* The count is only queried when the slice does not reach the last car */
+    private static long statementsPerPage(Page<CarPublicResponseDTO> carsPageDTO) {
+        return STATEMENTS_PER_SLICE + (carsPageDTO.hasNext() ? 1 : 0);
+    }
+}
@@ -0,0 +1,201 @@
+package com.bruno.carlisting.services;
+
+import com.bruno.carlisting.dtos.response.ExportFormat;
+import com.bruno.carlisting.repositories.CarRepository;
+import com.bruno.carlisting.repositories.ListingRepository;
+import com.bruno.carlisting.repositories.projections.CarExportProjection;
+import com.bruno.carlisting.services.implementations.CatalogExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogExportServiceTests {
+
+    private static final Instant UPDATED_AT = Instant.parse("2021-03-01T10:15:30Z");
+
+    @Mock
+    private CarRepository mockedCarRepository;
+
+    @Mock
+    private ListingRepository mockedListingRepository;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CatalogExportServiceImpl catalogExportService;
+
+    @BeforeEach
+    void setUp() {
+        catalogExportService = new CatalogExportServiceImpl(mockedCarRepository, mockedListingRepository,
+                objectMapper);
+    }
+
+    @Test
+    void exportsCarsAsOneJsonObjectPerLine() throws IOException {
+        whenCarsExported(new ExportedCar(1L, "Honda", "Civic"), new ExportedCar(2L, "Ford", "F-150"));
+
+        var output = new ByteArrayOutputStream();
+        var exportedRows = catalogExportService.exportCars(ExportFormat.NDJSON, false, output);
+
+        assertEquals(2, exportedRows);
+        var lines = output.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        var firstCar = objectMapper.readTree(lines[0]);
+        assertEquals(1L, firstCar.get("carId").asLong());
+        assertEquals("Civic", firstCar.get("model").asText());
+        assertEquals(UPDATED_AT.toString(), firstCar.get("updatedAt").asText());
+        assertEquals("F-150", objectMapper.readTree(lines[1]).get("model").asText());
+        assertEquals("", lines[2]);
+    }
+
+    @Test
+    void exportsCarsAsCsvWithAHeaderAndQuotedValues() throws IOException {
+        whenCarsExported(new ExportedCar(1L, "Honda", "Civic, \"Si\""));
+
+        var output = new ByteArrayOutputStream();
+        catalogExportService.exportCars(ExportFormat.CSV, false, output);
+
+        assertEquals("carId,make,model,year,trim,color,transmission,fuel,userId,updatedAt\r\n" +
+                "1,Honda,\"Civic, \"\"Si\"\"\",2018,EX,Black,AT,Gasoline,1," + UPDATED_AT + "\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void compressesTheExportWhenGzipIsAccepted() throws IOException {
+        whenCarsExported(new ExportedCar(1L, "Honda", "Civic"));
+
+        var response = catalogExportService.toExportResponse("cars", "csv", "br;q=1.0, gzip;q=0.8",
+                catalogExportService::exportCars);
+        var output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+        assertEquals("attachment; filename=\"cars.csv\"",
+                response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        try (var gzipInput = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertTrue(new String(gzipInput.readAllBytes(), StandardCharsets.UTF_8)
+                    .startsWith("carId,make,model"));
+        }
+    }
+
+    @Test
+    void leavesTheExportUncompressedWhenGzipIsRefused() throws IOException {
+        whenCarsExported(new ExportedCar(1L, "Honda", "Civic"));
+
+        var response = catalogExportService.toExportResponse("cars", "ndjson", "gzip;q=0, identity",
+                catalogExportService::exportCars);
+        var output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("Honda", objectMapper.readTree(output.toString(StandardCharsets.UTF_8).trim())
+                .get("make").asText());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "deflate, gzip", "GZIP;Q=0.5", "x-gzip", "*", "br, *;q=0.1", "gzip;q=1, *;q=0"})
+    void acceptsGzipWithAPositiveQuality(String acceptEncoding) {
+        assertTrue(catalogExportService.acceptsGzip(acceptEncoding));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "identity", "br, deflate", "gzip;q=0", "gzip;q=0.000", "*;q=0", "gzip;q=0, *",
+            "gzip;q=oops"})
+    void refusesGzipWithoutAPositiveQuality(String acceptEncoding) {
+        assertFalse(catalogExportService.acceptsGzip(acceptEncoding));
+    }
+
+    @Test
+    void refusesGzipWithoutAnAcceptEncodingHeader() {
+        assertFalse(catalogExportService.acceptsGzip(null));
+    }
+
+    private void whenCarsExported(CarExportProjection... cars) {
+        when(mockedCarRepository.streamCarsForExport()).thenReturn(Stream.of(cars));
+    }
+
+    private static class ExportedCar implements CarExportProjection {
+
+        private final Long carId;
+        private final String make;
+        private final String model;
+
+        private ExportedCar(Long carId, String make, String model) {
+            this.carId = carId;
+            this.make = make;
+            this.model = model;
+        }
+
+        @Override
+        public Long getCarId() {
+            return carId;
+        }
+
+        @Override
+        public String getMake() {
+            return make;
+        }
+
+        @Override
+        public String getModel() {
+            return model;
+        }
+
+        @Override
+        public Integer getYear() {
+            return 2018;
+        }
+
+        @Override
+        public String getTrim() {
+            return "EX";
+        }
+
+        @Override
+        public String getColor() {
+            return "Black";
+        }
+
+        @Override
+        public String getTransmission() {
+            return "AT";
+        }
+
+        @Override
+        public String getFuel() {
+            return "Gasoline";
+        }
+
+        @Override
+        public Long getUserId() {
+            return 1L;
+        }
+
+        @Override
+        public Instant getUpdatedAt() {
+            return UPDATED_AT;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bruno.carlisting.services;
+
+import com.bruno.carlisting.config.ChangeFeedProperties;
+import com.bruno.carlisting.domain.ChangeEvent;
+import com.bruno.carlisting.dtos.response.change.ChangeEventResponseDTO;
+import com.bruno.carlisting.dtos.response.change.ChangeFeedResponseDTO;
+import com.bruno.carlisting.repositories.ChangeEventRepository;
+import com.bruno.carlisting.services.implementations.ChangeFeedServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedServiceTests {
+
+    @Mock
+    private ChangeEventRepository mockedChangeEventRepository;
+
+    @Mock
+    private JdbcTemplate mockedJdbcTemplate;
+
+    private ChangeFeedProperties changeFeedProperties;
+
+    private ChangeFeedServiceImpl changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedProperties = new ChangeFeedProperties();
+        changeFeedProperties.setSettleTime(Duration.ofHours(1));
+        changeFeedService = new ChangeFeedServiceImpl(mockedChangeEventRepository, mockedJdbcTemplate,
+                changeFeedProperties);
+    }
+
+    @Test
+    void servesContiguousChangesUpToThePageSize() {
+        whenChangesAfter(10L, 3, 11L, 12L, 13L, 14L);
+
+        var changeFeed = changeFeedService.getChangesSince(10L, 3);
+
+        assertEquals(List.of(11L, 12L, 13L), changesSeqs(changeFeed));
+        assertEquals(13L, changeFeed.getNextSince().longValue());
+        assertTrue(changeFeed.isHasMore());
+    }
+
+    @Test
+    void holdsBackChangesAfterAGapSeenForLessThanTheSettleTime() {
+        whenChangesAfter(10L, 5, 11L, 12L, 14L, 15L);
+
+        var changeFeed = changeFeedService.getChangesSince(10L, 5);
+
+        assertEquals(List.of(11L, 12L), changesSeqs(changeFeed));
+        assertEquals(12L, changeFeed.getNextSince().longValue());
+        assertFalse(changeFeed.isHasMore());
+    }
+
+    @Test
+    void servesNothingWhenTheFirstSequenceIsMissing() {
+        whenChangesAfter(10L, 5, 12L);
+
+        var changeFeed = changeFeedService.getChangesSince(10L, 5);
+
+        assertTrue(changeFeed.getChanges().isEmpty());
+        assertEquals(10L, changeFeed.getNextSince().longValue());
+    }
+
+    @Test
+    void servesTheGapOnceItsWriteCommits() {
+        whenChangesAfter(12L, 5, 14L);
+        assertTrue(changeFeedService.getChangesSince(12L, 5).getChanges().isEmpty());
+
+        whenChangesAfter(12L, 5, 13L, 14L);
+        assertEquals(List.of(13L, 14L), changesSeqs(changeFeedService.getChangesSince(12L, 5)));
+    }
+
+    @Test
+    void skipsAGapSeenForTheSettleTime() {
+        changeFeedProperties.setSettleTime(Duration.ZERO);
+        whenChangesAfter(10L, 5, 11L, 13L, 16L);
+
+        var changeFeed = changeFeedService.getChangesSince(10L, 5);
+
+        assertEquals(List.of(11L, 13L, 16L), changesSeqs(changeFeed));
+        assertEquals(16L, changeFeed.getNextSince().longValue());
+    }
+
+    private void whenChangesAfter(Long since, int size, Long... changesSeqs) {
+        when(mockedChangeEventRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since,
+                PageRequest.of(0, size + 1))).thenReturn(Arrays.stream(changesSeqs).map(changeSeq -> {
+                    var changeEvent = new ChangeEvent(ChangeEvent.EntityType.CAR, changeSeq,
+                            ChangeEvent.ChangeType.UPDATED);
+                    ReflectionTestUtils.setField(changeEvent, "changeSeq", changeSeq);
+                    return changeEvent;
+                }).collect(Collectors.toList()));
+    }
+
+    private static List<Long> changesSeqs(ChangeFeedResponseDTO changeFeed) {
+        return changeFeed.getChanges().stream().map(ChangeEventResponseDTO::getChangeSeq).collect(Collectors.toList());
+    }
+}
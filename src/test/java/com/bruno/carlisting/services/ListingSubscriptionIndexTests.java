@@ -0,0 +1,134 @@
+package com.bruno.carlisting.services;
+
+import com.bruno.carlisting.dtos.request.listing.ListingSearchRequestDTO;
+import com.bruno.carlisting.repositories.projections.ListingIndexProjection;
+import com.bruno.carlisting.services.implementations.ListingSubscriptionIndex;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ListingSubscriptionIndexTests {
+
+    private static final TestListing CIVIC_IN_CHICAGO = new TestListing(1L, 30000, 45000, "Honda", "Civic", 2018,
+            "Gasoline", "AT", 1, 1, 1L);
+
+    private ListingSubscriptionIndex<String> subscriptionIndex;
+
+    @BeforeEach
+    void setUp() {
+        subscriptionIndex = new ListingSubscriptionIndex<>();
+    }
+
+    @Test
+    void matchesSubscribersUnderEveryIndexedFilterAndWithoutOne() {
+        var byCity = new ListingSearchRequestDTO();
+        byCity.setCityId(1L);
+        byCity.setMake("Honda");
+        var byModel = new ListingSearchRequestDTO();
+        byModel.setModel("Civic");
+        var byTransmission = new ListingSearchRequestDTO();
+        byTransmission.setTransmission("AT");
+        var byPriceOnly = new ListingSearchRequestDTO();
+        byPriceOnly.setMaxPrice(30000);
+        var everything = new ListingSearchRequestDTO();
+
+        subscriptionIndex.add("byCity", byCity);
+        subscriptionIndex.add("byModel", byModel);
+        subscriptionIndex.add("byTransmission", byTransmission);
+        subscriptionIndex.add("byPriceOnly", byPriceOnly);
+        subscriptionIndex.add("everything", everything);
+
+        var matches = subscriptionIndex.findMatches(CIVIC_IN_CHICAGO);
+
+        assertEquals(5, matches.size());
+        assertTrue(matches.containsAll(List.of("byCity", "byModel", "byTransmission", "byPriceOnly", "everything")));
+    }
+
+    @Test
+    void leavesOutSubscribersWhoseOtherFiltersDoNotMatch() {
+        var otherMake = new ListingSearchRequestDTO();
+        otherMake.setCityId(1L);
+        otherMake.setMake("Toyota");
+        var otherCity = new ListingSearchRequestDTO();
+        otherCity.setCityId(2L);
+        var tooExpensive = new ListingSearchRequestDTO();
+        tooExpensive.setModel("Civic");
+        tooExpensive.setMaxPrice(29999);
+        var tooOld = new ListingSearchRequestDTO();
+        tooOld.setMinYear(2019);
+
+        subscriptionIndex.add("otherMake", otherMake);
+        subscriptionIndex.add("otherCity", otherCity);
+        subscriptionIndex.add("tooExpensive", tooExpensive);
+        subscriptionIndex.add("tooOld", tooOld);
+
+        assertTrue(subscriptionIndex.findMatches(CIVIC_IN_CHICAGO).isEmpty());
+    }
+
+    @Test
+    void listingWithoutLocationDoesNotMatchLocationFilters() {
+        var byState = new ListingSearchRequestDTO();
+        byState.setStateId(1);
+        subscriptionIndex.add("byState", byState);
+
+        var listingWithoutLocation = new TestListing(2L, 30000, 45000, "Honda", "Civic", 2018, "Gasoline", "AT",
+                null, null, null);
+
+        assertTrue(subscriptionIndex.findMatches(listingWithoutLocation).isEmpty());
+    }
+
+    @Test
+    void removedSubscribersAreNotMatchedAndTheirValuesAreDropped() {
+        var byMake = new ListingSearchRequestDTO();
+        byMake.setMake("Honda");
+        var alsoByMake = new ListingSearchRequestDTO();
+        alsoByMake.setMake("Honda");
+        var everything = new ListingSearchRequestDTO();
+
+        subscriptionIndex.add("byMake", byMake);
+        subscriptionIndex.add("alsoByMake", alsoByMake);
+        subscriptionIndex.add("everything", everything);
+        assertEquals(1, subscriptionIndex.getIndexedValuesCount());
+
+        assertTrue(subscriptionIndex.remove("byMake"));
+        assertEquals(List.of("alsoByMake", "everything"), subscriptionIndex.findMatches(CIVIC_IN_CHICAGO));
+        assertEquals(1, subscriptionIndex.getIndexedValuesCount());
+
+        assertTrue(subscriptionIndex.remove("alsoByMake"));
+        assertTrue(subscriptionIndex.remove("everything"));
+        assertFalse(subscriptionIndex.remove("everything"));
+
+        assertTrue(subscriptionIndex.findMatches(CIVIC_IN_CHICAGO).isEmpty());
+        assertEquals(0, subscriptionIndex.getIndexedValuesCount());
+        assertEquals(0, subscriptionIndex.size());
+    }
+
+    @AllArgsConstructor
+    @Getter
+    private static class TestListing implements ListingIndexProjection {
+
+        private final Long listingId;
+        private final Integer price;
+        private final Integer mileage;
+        private final String make;
+        private final String model;
+        private final Integer year;
+        private final String fuel;
+        private final String transmission;
+        private final Integer countryId;
+        private final Integer stateId;
+        private final Long cityId;
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.bruno.carlisting.services;
+
+import com.bruno.carlisting.config.OptimisticLockRetryProperties;
+import com.bruno.carlisting.domain.Car;
+import com.bruno.carlisting.services.implementations.OptimisticLockRetryServiceImpl;
+import com.bruno.carlisting.services.interfaces.ConditionalRequestService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.bruno.carlisting.services.implementations.OptimisticLockRetryServiceImpl.CONDITIONAL;
+import static com.bruno.carlisting.services.implementations.OptimisticLockRetryServiceImpl.CONFLICTS_METRIC;
+import static com.bruno.carlisting.services.implementations.OptimisticLockRetryServiceImpl.EXHAUSTED;
+import static com.bruno.carlisting.services.implementations.OptimisticLockRetryServiceImpl.OUTCOMES_METRIC;
+import static com.bruno.carlisting.services.implementations.OptimisticLockRetryServiceImpl.RECOVERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockRetryServiceTests {
+
+    private static final String OPERATION = "updateCarColor";
+
+    @Mock
+    private ConditionalRequestService mockedConditionalRequestService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OptimisticLockRetryServiceImpl retryService;
+
+    @BeforeEach
+    void setUp() {
+        var retryProperties = new OptimisticLockRetryProperties();
+        retryProperties.setMaxAttempts(3);
+        retryProperties.setInitialBackoff(Duration.ofMillis(1));
+        retryProperties.setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+        retryService = new OptimisticLockRetryServiceImpl(retryProperties, mockedConditionalRequestService,
+                meterRegistry);
+    }
+
+    @Test
+    void retriesConflictsUntilAnAttemptSucceeds() {
+        var attempts = new AtomicInteger();
+
+        var result = retryService.retryOnConflict(OPERATION, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "saved";
+        });
+
+        assertEquals("saved", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.counter(CONFLICTS_METRIC, "operation", OPERATION).count());
+        assertEquals(1, outcomeCount(RECOVERED));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                retryService.retryOnConflict(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    throw conflict();
+                }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(1, outcomeCount(EXHAUSTED));
+    }
+
+    @Test
+    void doesNotRetryConditionalWrites() {
+        when(mockedConditionalRequestService.isConditionalWrite()).thenReturn(true);
+        var attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                retryService.retryOnConflict(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    throw conflict();
+                }));
+
+        assertEquals(1, attempts.get());
+        assertEquals(1, outcomeCount(CONDITIONAL));
+    }
+
+    private double outcomeCount(String outcome) {
+        return meterRegistry.counter(OUTCOMES_METRIC, "operation", OPERATION, "outcome", outcome).count();
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Car.class, 1L);
+    }
+}
@@ -4,6 +4,8 @@ import com.bruno.carlisting.domain.Role;
 import com.bruno.carlisting.domain.User;
 import com.bruno.carlisting.repositories.UserRepository;
 import com.bruno.carlisting.services.implementations.UserServiceImpl;
+import com.bruno.carlisting.services.interfaces.ChangeFeedService;
+import com.bruno.carlisting.services.interfaces.CountService;
 import com.bruno.carlisting.services.interfaces.PagingService;
 import com.bruno.carlisting.services.interfaces.RoleService;
 import org.junit.jupiter.api.Test;
@@ -24,8 +26,8 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -46,6 +48,12 @@ class UserServiceTests {
     @Mock
     private PagingService mockedPagingService;
 
+    @Mock
+    private CountService mockedCountService;
+
+    @Mock
+    private ChangeFeedService mockedChangeFeedService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -112,15 +120,14 @@ class UserServiceTests {
         userRoles.add(role1.get().getRoleId());
         userRoles.add(role2.get().getRoleId());
 
-        when(mockedRoleService.getRoleById(1)).thenReturn(role1.get());
-        when(mockedRoleService.getRoleById(2)).thenReturn(role2.get());
+        when(mockedRoleService.getRolesByIds(userRoles)).thenReturn(List.of(role1.get(), role2.get()));
         when(mockedUserRepository.save(user)).thenReturn(user);
 
         User newUser = userService.createUser(user, userRoles);
         assertNotNull(newUser);
         assertEquals(role1.get().getRoleId(), newUser.getRoles().get(0).getRoleId());
         assertEquals(role2.get().getRoleId(), newUser.getRoles().get(1).getRoleId());
-        verify(mockedRoleService, times(2)).getRoleById(anyInt());
+        verify(mockedRoleService, times(1)).getRolesByIds(anyList());
         verify(mockedUserRepository, times(1)).save(any(User.class));
         verifyNoInteractions(mockedPagingService);
     }